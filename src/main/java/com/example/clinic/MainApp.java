@@ -1,35 +1,110 @@
 package com.example.clinic;
 
+import com.example.clinic.data.ClinicDatabase;
+import com.example.clinic.data.ClinicEventStore;
 import com.example.clinic.data.UserRepository;
+import com.example.clinic.inventory.InventoryLedger;
+import com.example.clinic.inventory.ReorderEngine;
+import com.example.clinic.journal.ClinicJournal;
 import com.example.clinic.model.AppUser;
+import com.example.clinic.model.Appointment;
+import com.example.clinic.model.InventoryItem;
+import com.example.clinic.model.PatientRecord;
+import com.example.clinic.model.StockMovement;
+import com.example.clinic.schedule.AppointmentCalendar;
+import com.example.clinic.schedule.AppointmentIndex;
+import com.example.clinic.search.ClinicSearch;
+import com.example.clinic.stats.ClinicStatistics;
+import com.example.clinic.status.StatusHistory;
 import com.example.clinic.service.AuthService;
+import com.example.clinic.service.PasswordHashingService;
 import com.example.clinic.settings.SettingsStore;
 import com.example.clinic.ui.DashboardView;
 import com.example.clinic.ui.LoginView;
 import javafx.application.Application;
 import javafx.stage.Stage;
 
+import java.util.Iterator;
+
 public class MainApp extends Application {
+    private static final System.Logger LOG = System.getLogger(MainApp.class.getName());
+
     private final UserRepository repository = new UserRepository();
+    private final ClinicDatabase clinicDatabase = new ClinicDatabase();
+    private final ClinicJournal journal = new ClinicJournal();
+    private final PasswordHashingService hashingService = new PasswordHashingService();
     private final SettingsStore settingsStore = new SettingsStore();
-    private final AuthService authService = new AuthService(repository);
+    private final AuthService authService = new AuthService(repository, hashingService);
+    private final AppointmentIndex appointmentIndex = new AppointmentIndex();
+    private final AppointmentCalendar appointmentCalendar = new AppointmentCalendar();
+    private final ClinicSearch search = new ClinicSearch();
+    private final ClinicStatistics statistics = new ClinicStatistics();
+    private final ReorderEngine reorderEngine = new ReorderEngine();
+    private final InventoryLedger ledger = new InventoryLedger();
+    private final StatusHistory statusHistory = new StatusHistory();
 
     @Override
     public void start(Stage primaryStage) {
-        repository.ensureDemoUsers();
+        repository.ensureDemoUsers(hashingService);
+        // changes journaled but not yet written when the app last stopped go to clinic.db first
+        journal.recover(new ClinicEventStore(clinicDatabase));
+        LOG.log(System.Logger.Level.INFO, "Replayed {0} journal events in {1} ms",
+                journal.getReplayedEvents(), journal.getRecoveryMillis());
+        clinicDatabase.ensureSampleData();
+        loadIndexes();
         var loginView = new LoginView(authService, settingsStore, this::showDashboard);
         loginView.start(primaryStage);
     }
 
+    private void loadIndexes() {
+        for (Iterator<StockMovement> it = clinicDatabase.movements().iterateAll(); it.hasNext(); ) {
+            ledger.load(it.next());
+        }
+        for (Iterator<PatientRecord> it = clinicDatabase.patients().iterateAll(); it.hasNext(); ) {
+            PatientRecord patient = it.next();
+            search.patients().put(patient);
+            statistics.putPatient(patient);
+        }
+        for (Iterator<InventoryItem> it = clinicDatabase.inventory().iterateAll(); it.hasNext(); ) {
+            InventoryItem item = it.next();
+            search.inventory().put(item);
+            statistics.putItem(item);
+            reorderEngine.track(item, System.currentTimeMillis());
+            // items that predate the ledger open with a receipt; ones edited outside it get an adjustment
+            StockMovement opening = ledger.reconcile(item, System.currentTimeMillis());
+            if (opening != null) {
+                clinicDatabase.movementWrites().save(opening);
+            }
+        }
+        for (Iterator<Appointment> it = clinicDatabase.appointments().iterateAll(); it.hasNext(); ) {
+            Appointment appointment = it.next();
+            appointmentIndex.put(appointment);
+            appointmentCalendar.put(appointment);
+            search.appointments().put(appointment);
+        }
+    }
+
     private void showDashboard(Stage stage, AppUser user) {
         Runnable logout = () -> {
             var loginView = new LoginView(authService, settingsStore, this::showDashboard);
             loginView.start(stage);
         };
-        var dashboard = new DashboardView(repository, settingsStore, logout);
+        var dashboard = new DashboardView(repository, clinicDatabase, journal, appointmentIndex, appointmentCalendar,
+                search, statistics, reorderEngine, ledger, statusHistory, hashingService, settingsStore, logout);
         dashboard.start(stage, user);
     }
 
+    @Override
+    public void stop() {
+        hashingService.close();
+        repository.close();
+        // Checkpoints, which flushes the write-behind queues, while the database is still open.
+        journal.close();
+        // Flushes anything queued since the checkpoint before closing the pool.
+        clinicDatabase.close();
+        statusHistory.close();
+    }
+
     public static void main(String[] args) {
         launch(args);
     }
@@ -0,0 +1,52 @@
+package com.example.clinic.data;
+
+import com.example.clinic.model.Appointment;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+public class AppointmentRepository extends PagedRepository<Appointment> {
+    // Fixed width so the text column sorts chronologically.
+    private static final DateTimeFormatter SCHEDULED_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+
+    public AppointmentRepository(ConnectionPool pool) {
+        super(pool, "appointment", "appointments", List.of("id", "patient_name", "clinician", "scheduled_at", "notes", "duration_minutes"),
+                "CREATE TABLE IF NOT EXISTS appointment (id TEXT PRIMARY KEY, patient_name TEXT NOT NULL, "
+                        + "clinician TEXT NOT NULL, scheduled_at TEXT NOT NULL, notes TEXT NOT NULL)",
+                // (column, id) so a sorted page is read straight off the index, tie-break included
+                "DROP INDEX IF EXISTS idx_appointment_scheduled_at",
+                "CREATE INDEX IF NOT EXISTS idx_appointment_scheduled_at_id ON appointment (scheduled_at, id)",
+                "CREATE INDEX IF NOT EXISTS idx_appointment_clinician ON appointment (clinician, scheduled_at)",
+                "CREATE INDEX IF NOT EXISTS idx_appointment_patient ON appointment (patient_name, scheduled_at)",
+                "CREATE INDEX IF NOT EXISTS idx_appointment_clinician_id ON appointment (clinician, id)",
+                "CREATE INDEX IF NOT EXISTS idx_appointment_patient_id ON appointment (patient_name, id)");
+        addColumnIfMissing(pool, "appointment", "duration_minutes",
+                "INTEGER NOT NULL DEFAULT " + Appointment.DEFAULT_DURATION_MINUTES);
+    }
+
+    @Override
+    protected String idOf(Appointment appointment) {
+        return appointment.getId();
+    }
+
+    @Override
+    protected void bind(PreparedStatement statement, Appointment appointment) throws SQLException {
+        statement.setString(1, appointment.getId());
+        statement.setString(2, appointment.getPatientName());
+        statement.setString(3, appointment.getClinician());
+        statement.setString(4, appointment.getScheduledAt().format(SCHEDULED_FORMAT));
+        statement.setString(5, appointment.getNotes() == null ? "" : appointment.getNotes());
+        statement.setInt(6, appointment.getDurationMinutes());
+    }
+
+    @Override
+    protected Appointment mapRow(ResultSet resultSet) throws SQLException {
+        return new Appointment(resultSet.getString("id"), resultSet.getString("patient_name"),
+                resultSet.getString("clinician"), LocalDateTime.parse(resultSet.getString("scheduled_at"), SCHEDULED_FORMAT),
+                resultSet.getInt("duration_minutes"), resultSet.getString("notes"));
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.clinic.data;
+
+import com.example.clinic.model.Appointment;
+import com.example.clinic.model.InventoryItem;
+import com.example.clinic.model.PatientRecord;
+import com.example.clinic.model.StockMovement;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * Owns the clinic.db connection pool, the repositories that share it, and the write-behind
+ * queues the UI writes through. All queues flush on one writer thread because SQLite admits a
+ * single writer anyway.
+ */
+public class ClinicDatabase implements AutoCloseable {
+    private final ConnectionPool pool;
+    private final PatientRepository patients;
+    private final InventoryRepository inventory;
+    private final AppointmentRepository appointments;
+    private final StockMovementRepository movements;
+    private final IdGenerator.Sequence patientIds;
+    private final IdGenerator.Sequence inventoryIds;
+    private final IdGenerator.Sequence appointmentIds;
+    private final ScheduledExecutorService writer;
+    private final WriteBehindQueue<PatientRecord> patientWrites;
+    private final WriteBehindQueue<InventoryItem> inventoryWrites;
+    private final WriteBehindQueue<Appointment> appointmentWrites;
+    private final WriteBehindQueue<StockMovement> movementWrites;
+
+    public ClinicDatabase() {
+        this(Paths.get("storage", "clinic.db"), ConnectionPool.DEFAULT_MAX_CONNECTIONS, StorageProfile.fromSystemProperty());
+    }
+
+    public ClinicDatabase(Path dbFile, int maxConnections, StorageProfile profile) {
+        try {
+            Path parent = dbFile.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to prepare clinic storage", e);
+        }
+        this.pool = new ConnectionPool("jdbc:sqlite:" + dbFile.toAbsolutePath(), maxConnections, profile);
+        this.patients = new PatientRepository(pool);
+        this.inventory = new InventoryRepository(pool);
+        this.appointments = new AppointmentRepository(pool);
+        this.movements = new StockMovementRepository(pool);
+        IdGenerator ids = new IdGenerator(pool);
+        this.patientIds = ids.sequence("PAT-", "patient");
+        this.inventoryIds = ids.sequence("INV-", "inventory_item");
+        this.appointmentIds = ids.sequence("APT-", "appointment");
+        this.writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "clinic-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.patientWrites = new WriteBehindQueue<>(patients, writer, PagedRepository.DEFAULT_BATCH_SIZE);
+        this.inventoryWrites = new WriteBehindQueue<>(inventory, writer, PagedRepository.DEFAULT_BATCH_SIZE);
+        this.appointmentWrites = new WriteBehindQueue<>(appointments, writer, PagedRepository.DEFAULT_BATCH_SIZE);
+        this.movementWrites = new WriteBehindQueue<>(movements, writer, PagedRepository.DEFAULT_BATCH_SIZE);
+    }
+
+    public PatientRepository patients() {
+        return patients;
+    }
+
+    public InventoryRepository inventory() {
+        return inventory;
+    }
+
+    public AppointmentRepository appointments() {
+        return appointments;
+    }
+
+    public StockMovementRepository movements() {
+        return movements;
+    }
+
+    public IdGenerator.Sequence patientIds() {
+        return patientIds;
+    }
+
+    public IdGenerator.Sequence inventoryIds() {
+        return inventoryIds;
+    }
+
+    public IdGenerator.Sequence appointmentIds() {
+        return appointmentIds;
+    }
+
+    public WriteBehindQueue<PatientRecord> patientWrites() {
+        return patientWrites;
+    }
+
+    public WriteBehindQueue<InventoryItem> inventoryWrites() {
+        return inventoryWrites;
+    }
+
+    public WriteBehindQueue<Appointment> appointmentWrites() {
+        return appointmentWrites;
+    }
+
+    public WriteBehindQueue<StockMovement> movementWrites() {
+        return movementWrites;
+    }
+
+    public void flush() {
+        patientWrites.flush();
+        inventoryWrites.flush();
+        appointmentWrites.flush();
+        movementWrites.flush();
+    }
+
+    public void ensureSampleData() {
+        if (patients.count() == 0) {
+            patients.saveAll(List.of(
+                    new PatientRecord("PAT-100001", "Mara Vega", "Stable - Monitoring", "Room 112"),
+                    new PatientRecord("PAT-100002", "Hector Liao", "Critical - Ventilated", "Room 204"),
+                    new PatientRecord("PAT-100003", "Priya Sen", "Recovery - Physical", "Room 305"),
+                    new PatientRecord("PAT-100004", "Elena Brooks", "Observation - Neonatal", "Room 118"),
+                    new PatientRecord("PAT-100005", "Ravi Patel", "Pre-op - Clearing", "Room 402")
+            ));
+        }
+        if (inventory.count() == 0) {
+            inventory.saveAll(List.of(
+                    new InventoryItem("INV-420115", "Surgical Masks", 320, 0.35, "Healthy"),
+                    new InventoryItem("INV-420116", "Intravenous Sets", 78, 4.80, "Reorder soon"),
+                    new InventoryItem("INV-420117", "Standard Syringes", 610, 0.85, "Healthy"),
+                    new InventoryItem("INV-420118", "Isolation Gowns", 42, 6.25, "Critical"),
+                    new InventoryItem("INV-420119", "Defibrillator Pads", 6, 12.00, "Critical")
+            ));
+        }
+        if (appointments.count() == 0) {
+            LocalDateTime now = LocalDateTime.now().withSecond(0).withNano(0);
+            appointments.saveAll(List.of(
+                    new Appointment("APT-301100", "Mara Vega", "Dr. Carter", now.plusHours(3), "Post-op check"),
+                    new Appointment("APT-301101", "Hector Liao", "Nurse Samuels", now.plusHours(6), "Ventilator check"),
+                    new Appointment("APT-301102", "Priya Sen", "Dr. Ortega", now.plusDays(1), "Therapy consult")
+            ));
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            flush();
+        } finally {
+            writer.shutdown();
+            pool.close();
+        }
+    }
+}
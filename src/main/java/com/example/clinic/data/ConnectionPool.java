@@ -0,0 +1,223 @@
+package com.example.clinic.data;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded pool of long-lived SQLite connections. Each connection keeps its own
+ * prepared statements so hot queries are parsed once per connection instead of
+ * once per call. Writes are funnelled through a single lock because SQLite only
+ * admits one writer at a time anyway. The {@link StorageProfile} pragmas are
+ * applied to every connection when it is opened.
+ */
+public final class ConnectionPool implements AutoCloseable {
+    public static final int DEFAULT_MAX_CONNECTIONS = 4;
+    private static final long BORROW_TIMEOUT_SECONDS = 30;
+
+    private final String jdbcUrl;
+    private final int maxConnections;
+    private final StorageProfile profile;
+    private final BlockingQueue<PooledConnection> idle;
+    private final List<PooledConnection> all = new ArrayList<>();
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final ScheduledExecutorService checkpointer;
+    private volatile boolean closed;
+
+    public ConnectionPool(String jdbcUrl, int maxConnections) {
+        this(jdbcUrl, maxConnections, StorageProfile.ROLLBACK_JOURNAL);
+    }
+
+    public ConnectionPool(String jdbcUrl, int maxConnections, StorageProfile profile) {
+        if (maxConnections < 1) {
+            throw new IllegalArgumentException("Pool needs at least one connection");
+        }
+        this.jdbcUrl = jdbcUrl;
+        this.maxConnections = maxConnections;
+        this.profile = profile;
+        this.idle = new ArrayBlockingQueue<>(maxConnections);
+        int interval = profile.getCheckpointIntervalSeconds();
+        if (interval > 0) {
+            checkpointer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "sqlite-checkpoint");
+                thread.setDaemon(true);
+                return thread;
+            });
+            checkpointer.scheduleWithFixedDelay(this::checkpoint, interval, interval, TimeUnit.SECONDS);
+        } else {
+            checkpointer = null;
+        }
+    }
+
+    public StorageProfile getProfile() {
+        return profile;
+    }
+
+    public void checkpoint() {
+        if (closed) {
+            return;
+        }
+        try {
+            read(connection -> {
+                profile.checkpoint(connection.raw());
+                return null;
+            });
+        } catch (SQLException e) {
+            // a busy checkpoint is retried on the next tick
+        }
+    }
+
+    public <T> T read(SqlWork<T> work) throws SQLException {
+        PooledConnection connection = borrow();
+        try {
+            return work.run(connection);
+        } finally {
+            release(connection);
+        }
+    }
+
+    public <T> T write(SqlWork<T> work) throws SQLException {
+        writeLock.lock();
+        try {
+            return read(work);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public <T> T inTransaction(SqlWork<T> work) throws SQLException {
+        return write(connection -> {
+            Connection raw = connection.raw();
+            raw.setAutoCommit(false);
+            try {
+                T result = work.run(connection);
+                raw.commit();
+                return result;
+            } catch (SQLException | RuntimeException e) {
+                raw.rollback();
+                throw e;
+            } finally {
+                raw.setAutoCommit(true);
+            }
+        });
+    }
+
+    private PooledConnection borrow() throws SQLException {
+        ensureOpen();
+        PooledConnection connection = idle.poll();
+        if (connection != null) {
+            return connection;
+        }
+        synchronized (all) {
+            if (all.size() < maxConnections) {
+                Connection raw = DriverManager.getConnection(jdbcUrl);
+                try {
+                    profile.apply(raw);
+                } catch (SQLException | RuntimeException e) {
+                    // not yet in the pool, so nothing else would ever close it
+                    raw.close();
+                    throw e;
+                }
+                PooledConnection created = new PooledConnection(raw);
+                all.add(created);
+                return created;
+            }
+        }
+        try {
+            connection = idle.poll(BORROW_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a connection", e);
+        }
+        if (connection == null) {
+            throw new SQLException("Timed out waiting for a database connection");
+        }
+        return connection;
+    }
+
+    private void release(PooledConnection connection) {
+        if (closed) {
+            connection.close();
+            return;
+        }
+        idle.offer(connection);
+    }
+
+    private void ensureOpen() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed");
+        }
+    }
+
+    @Override
+    public void close() {
+        if (checkpointer != null) {
+            checkpointer.shutdownNow();
+        }
+        checkpoint();
+        closed = true;
+        synchronized (all) {
+            for (PooledConnection connection : all) {
+                connection.close();
+            }
+            all.clear();
+        }
+        idle.clear();
+    }
+
+    @FunctionalInterface
+    public interface SqlWork<T> {
+        T run(PooledConnection connection) throws SQLException;
+    }
+
+    public static final class PooledConnection {
+        private final Connection connection;
+        private final Map<String, PreparedStatement> statements = new HashMap<>();
+
+        private PooledConnection(Connection connection) {
+            this.connection = connection;
+        }
+
+        public PreparedStatement prepare(String sql) throws SQLException {
+            PreparedStatement statement = statements.get(sql);
+            if (statement == null || statement.isClosed()) {
+                statement = connection.prepareStatement(sql);
+                statements.put(sql, statement);
+            } else {
+                statement.clearParameters();
+            }
+            return statement;
+        }
+
+        public Connection raw() {
+            return connection;
+        }
+
+        private void close() {
+            for (PreparedStatement statement : statements.values()) {
+                try {
+                    statement.close();
+                } catch (SQLException ignored) {
+                    // closing anyway
+                }
+            }
+            statements.clear();
+            try {
+                connection.close();
+            } catch (SQLException ignored) {
+                // closing anyway
+            }
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.clinic.data;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Named id sequences persisted in the {@code id_sequence} table. A sequence reserves a block of
+ * values with one short write transaction and hands them out with a single atomic increment, so
+ * ids are unique across threads and restarts and only one caller in {@code blockSize} touches the
+ * database. A new sequence starts above the largest numeric id its table already holds under the
+ * same prefix, so rows written before it existed are never reissued. A sequence that drains a
+ * block within a second doubles the next one, up to {@value #MAX_BLOCK_GROWTH} times the base
+ * size, so bulk callers are not held to one commit per block. Values still unused in a block when
+ * the application stops are skipped, never reused.
+ */
+public final class IdGenerator {
+    public static final int DEFAULT_BLOCK_SIZE = 1_000;
+    private static final int MAX_BLOCK_GROWTH = 64;
+    private static final long FAST_BLOCK_NANOS = 1_000_000_000L;
+
+    private final ConnectionPool pool;
+    private final int blockSize;
+
+    public IdGenerator(ConnectionPool pool) {
+        this(pool, DEFAULT_BLOCK_SIZE);
+    }
+
+    public IdGenerator(ConnectionPool pool, int blockSize) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("Block size must be positive");
+        }
+        this.pool = pool;
+        this.blockSize = blockSize;
+        try {
+            pool.write(connection -> {
+                try (Statement statement = connection.raw().createStatement()) {
+                    statement.execute("CREATE TABLE IF NOT EXISTS id_sequence (name TEXT PRIMARY KEY, "
+                            + "next_value INTEGER NOT NULL)");
+                }
+                return null;
+            });
+        } catch (SQLException e) {
+            throw new IllegalStateException("Unable to create id sequence schema", e);
+        }
+    }
+
+    /**
+     * A sequence of ids such as {@code APT-300001}, seeded from the ids of {@code table}.
+     */
+    public Sequence sequence(String prefix, String table) {
+        return new Sequence(prefix, table);
+    }
+
+    private Block reserve(String prefix, String table, long size) {
+        try {
+            return pool.inTransaction(connection -> {
+                PreparedStatement seed = connection.prepare("INSERT INTO id_sequence (name, next_value) "
+                        + "SELECT ?, COALESCE(MAX(CAST(SUBSTR(id, ?) AS INTEGER)), 0) + 1 FROM " + table
+                        + " WHERE id GLOB ? ON CONFLICT(name) DO NOTHING");
+                seed.setString(1, prefix);
+                seed.setInt(2, prefix.length() + 1);
+                seed.setString(3, prefix + "[0-9]*");
+                seed.executeUpdate();
+                PreparedStatement read = connection.prepare("SELECT next_value FROM id_sequence WHERE name = ?");
+                read.setString(1, prefix);
+                long first;
+                try (ResultSet resultSet = read.executeQuery()) {
+                    resultSet.next();
+                    first = resultSet.getLong(1);
+                }
+                PreparedStatement advance = connection.prepare(
+                        "UPDATE id_sequence SET next_value = ? WHERE name = ?");
+                advance.setLong(1, first + size);
+                advance.setString(2, prefix);
+                advance.executeUpdate();
+                return new Block(first, first + size);
+            });
+        } catch (SQLException e) {
+            throw new IllegalStateException("Unable to reserve " + prefix + " ids", e);
+        }
+    }
+
+    public final class Sequence implements Supplier<String> {
+        private final String prefix;
+        private final String table;
+        private volatile Block block = new Block(0, 0);
+        private long size = blockSize;
+        private long reservedAt;
+
+        private Sequence(String prefix, String table) {
+            this.prefix = prefix;
+            this.table = table;
+        }
+
+        /**
+         * The next value, strictly greater than every value this sequence has returned before.
+         */
+        public long nextValue() {
+            while (true) {
+                Block current = block;
+                long value = current.next.getAndIncrement();
+                if (value < current.limit) {
+                    return value;
+                }
+                refill(current);
+            }
+        }
+
+        @Override
+        public String get() {
+            return prefix + nextValue();
+        }
+
+        private synchronized void refill(Block exhausted) {
+            // only the first thread to find the block empty reserves the next one
+            if (block == exhausted) {
+                long now = System.nanoTime();
+                if (exhausted.limit > 0 && now - reservedAt < FAST_BLOCK_NANOS) {
+                    size = Math.min(size * 2, (long) blockSize * MAX_BLOCK_GROWTH);
+                } else {
+                    size = blockSize;
+                }
+                block = reserve(prefix, table, size);
+                reservedAt = now;
+            }
+        }
+    }
+
+    private static final class Block {
+        private final AtomicLong next;
+        private final long limit;
+
+        private Block(long first, long limit) {
+            this.next = new AtomicLong(first);
+            this.limit = limit;
+        }
+    }
+}
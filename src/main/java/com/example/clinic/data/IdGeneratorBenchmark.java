@@ -0,0 +1,89 @@
+package com.example.clinic.data;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Times drawing ids from one sequence on several threads against a scratch database. Uniqueness,
+ * ordering and restarts are covered by {@code IdGeneratorTest}. Run with
+ * {@code java -cp target/classes com.example.clinic.data.IdGeneratorBenchmark 8 1000000}.
+ */
+public final class IdGeneratorBenchmark {
+    private IdGeneratorBenchmark() {
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException, SQLException {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        int perThread = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+        Path directory = Files.createTempDirectory("id-benchmark");
+        Path dbFile = directory.resolve("ids.db");
+        try {
+            long[][] drawn = new long[threads][perThread];
+            try (ConnectionPool pool = new ConnectionPool("jdbc:sqlite:" + dbFile, threads)) {
+                pool.write(connection -> {
+                    try (Statement statement = connection.raw().createStatement()) {
+                        statement.execute("CREATE TABLE appointment (id TEXT PRIMARY KEY)");
+                    }
+                    return null;
+                });
+                IdGenerator.Sequence sequence = new IdGenerator(pool).sequence("APT-", "appointment");
+                for (int round = 0; round < 2; round++) {
+                    // the first round warms up the JIT; only the second is representative
+                    long nanos = draw(sequence, drawn);
+                    long total = (long) threads * perThread;
+                    System.out.printf("%-24s %,12d ids %10.1f ns/id %,14.0f ids/s%n", threads + " threads", total,
+                            (double) nanos / total, total / (nanos / 1e9));
+                }
+            }
+        } finally {
+            try (var files = Files.list(directory)) {
+                for (Path file : (Iterable<Path>) files::iterator) {
+                    Files.deleteIfExists(file);
+                }
+            }
+            Files.deleteIfExists(directory);
+        }
+    }
+
+    private static long draw(IdGenerator.Sequence sequence, long[][] drawn) throws InterruptedException {
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        CountDownLatch ready = new CountDownLatch(drawn.length);
+        CountDownLatch go = new CountDownLatch(1);
+        Thread[] workers = new Thread[drawn.length];
+        for (int t = 0; t < drawn.length; t++) {
+            long[] ids = drawn[t];
+            workers[t] = new Thread(() -> {
+                ready.countDown();
+                try {
+                    go.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                try {
+                    for (int i = 0; i < ids.length; i++) {
+                        ids[i] = sequence.nextValue();
+                    }
+                } catch (RuntimeException e) {
+                    failure.compareAndSet(null, e);
+                }
+            });
+            workers[t].start();
+        }
+        ready.await();
+        long start = System.nanoTime();
+        go.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+        return System.nanoTime() - start;
+    }
+}
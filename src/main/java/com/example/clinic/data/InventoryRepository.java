@@ -0,0 +1,47 @@
+package com.example.clinic.data;
+
+import com.example.clinic.model.InventoryItem;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+public class InventoryRepository extends PagedRepository<InventoryItem> {
+
+    public InventoryRepository(ConnectionPool pool) {
+        super(pool, "inventory_item", "inventory", List.of("id", "name", "quantity", "price", "status", "reorder_level"),
+                "CREATE TABLE IF NOT EXISTS inventory_item (id TEXT PRIMARY KEY, name TEXT NOT NULL, "
+                        + "quantity INTEGER NOT NULL, price REAL NOT NULL, status TEXT NOT NULL)",
+                // (column, id) so a sorted page is read straight off the index, tie-break included
+                "DROP INDEX IF EXISTS idx_inventory_item_name",
+                "DROP INDEX IF EXISTS idx_inventory_item_quantity",
+                "CREATE INDEX IF NOT EXISTS idx_inventory_item_name_id ON inventory_item (name, id)",
+                "CREATE INDEX IF NOT EXISTS idx_inventory_item_quantity_id ON inventory_item (quantity, id)",
+                "CREATE INDEX IF NOT EXISTS idx_inventory_item_price_id ON inventory_item (price, id)",
+                "CREATE INDEX IF NOT EXISTS idx_inventory_item_status_id ON inventory_item (status, id)");
+        addColumnIfMissing(pool, "inventory_item", "reorder_level",
+                "INTEGER NOT NULL DEFAULT " + InventoryItem.DEFAULT_REORDER_LEVEL);
+    }
+
+    @Override
+    protected String idOf(InventoryItem item) {
+        return item.getId();
+    }
+
+    @Override
+    protected void bind(PreparedStatement statement, InventoryItem item) throws SQLException {
+        statement.setString(1, item.getId());
+        statement.setString(2, item.getName());
+        statement.setInt(3, item.getQuantity());
+        statement.setDouble(4, item.getPrice());
+        statement.setString(5, item.getStatus());
+        statement.setInt(6, item.getReorderLevel());
+    }
+
+    @Override
+    protected InventoryItem mapRow(ResultSet resultSet) throws SQLException {
+        return new InventoryItem(resultSet.getString("id"), resultSet.getString("name"), resultSet.getInt("quantity"),
+                resultSet.getDouble("price"), resultSet.getString("status"), resultSet.getInt("reorder_level"));
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.clinic.data;
+
+import java.util.List;
+
+/**
+ * Rows read by {@link PagedRepository#findPage(PageQuery, Page, int, int)}, with the sort key and
+ * id of the last row so the following page can be read by seeking past it.
+ */
+public record Page<T>(PageQuery query, List<T> rows, Object lastKey, String lastId) {
+}
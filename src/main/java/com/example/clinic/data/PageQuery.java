@@ -0,0 +1,25 @@
+package com.example.clinic.data;
+
+/**
+ * Order and filter for a paged read. {@code orderBy} and {@code filterColumn} name columns of the
+ * repository's table; a null {@code filterPrefix} reads every row, otherwise only rows whose
+ * filter column starts with it, matching case. Each sortable column needs an index on
+ * {@code (column, id)} for pages to be read in index order.
+ */
+public record PageQuery(String orderBy, boolean descending, String filterColumn, String filterPrefix) {
+    public static PageQuery orderedBy(String column) {
+        return new PageQuery(column, false, null, null);
+    }
+
+    public PageQuery sortedBy(String column, boolean descending) {
+        return new PageQuery(column, descending, filterColumn, filterPrefix);
+    }
+
+    public PageQuery filteredBy(String column, String prefix) {
+        return new PageQuery(orderBy, descending, column, prefix == null || prefix.isEmpty() ? null : prefix);
+    }
+
+    public boolean isFiltered() {
+        return filterColumn != null && filterPrefix != null;
+    }
+}
@@ -0,0 +1,420 @@
+package com.example.clinic.data;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+
+/**
+ * Shared plumbing for the clinic tables: upserts batched inside one transaction, offset pages in
+ * display order for the tables, and a keyset scan over the primary key for exports, so no caller
+ * ever needs the whole table in memory.
+ */
+public abstract class PagedRepository<T> {
+    public static final int DEFAULT_BATCH_SIZE = 500;
+    private static final int SCAN_PAGE_SIZE = 1_000;
+
+    protected final ConnectionPool pool;
+    private final String table;
+    private final String noun;
+    private final List<String> columns;
+    private final String select;
+    private final String findById;
+    private final String scanPage;
+    private final String count;
+    private final String upsert;
+    private final String delete;
+
+    protected PagedRepository(ConnectionPool pool, String table, String noun, List<String> columns,
+                              String... schema) {
+        this.pool = pool;
+        this.table = table;
+        this.noun = noun;
+        this.columns = List.copyOf(columns);
+        this.select = "SELECT " + String.join(", ", columns) + " FROM " + table;
+        this.findById = select + " WHERE id = ?";
+        this.scanPage = select + " WHERE id > ? ORDER BY id LIMIT ?";
+        this.count = "SELECT COUNT(*) FROM " + table;
+        this.delete = "DELETE FROM " + table + " WHERE id = ?";
+        StringBuilder upsertSql = new StringBuilder("INSERT INTO ").append(table)
+                .append(" (").append(String.join(", ", columns)).append(") VALUES (")
+                .append("?, ".repeat(columns.size() - 1)).append("?) ON CONFLICT(id) DO UPDATE SET ");
+        for (int i = 1; i < columns.size(); i++) {
+            upsertSql.append(i > 1 ? ", " : "").append(columns.get(i)).append(" = excluded.").append(columns.get(i));
+        }
+        this.upsert = upsertSql.toString();
+        setupSchema(schema);
+    }
+
+    protected abstract String idOf(T row);
+
+    protected abstract void bind(PreparedStatement statement, T row) throws SQLException;
+
+    protected abstract T mapRow(ResultSet resultSet) throws SQLException;
+
+    private void setupSchema(String[] schema) {
+        try {
+            pool.write(connection -> {
+                try (Statement statement = connection.raw().createStatement()) {
+                    for (String ddl : schema) {
+                        statement.execute(ddl);
+                    }
+                }
+                return null;
+            });
+        } catch (SQLException e) {
+            throw new IllegalStateException("Unable to create " + noun + " schema", e);
+        }
+    }
+
+    // static, so subclass constructors can migrate their table without leaking a half-built this
+    protected static void addColumnIfMissing(ConnectionPool pool, String table, String column, String definition) {
+        try {
+            pool.write(connection -> {
+                try (Statement statement = connection.raw().createStatement()) {
+                    try (ResultSet resultSet = statement.executeQuery("PRAGMA table_info(" + table + ")")) {
+                        while (resultSet.next()) {
+                            if (column.equals(resultSet.getString("name"))) {
+                                return null;
+                            }
+                        }
+                    }
+                    statement.execute("ALTER TABLE " + table + " ADD COLUMN " + column + " " + definition);
+                }
+                return null;
+            });
+        } catch (SQLException e) {
+            throw new IllegalStateException("Unable to migrate " + table + " schema", e);
+        }
+    }
+
+    public Optional<T> findById(String id) {
+        try {
+            return pool.read(connection -> {
+                PreparedStatement statement = connection.prepare(findById);
+                statement.setString(1, id);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    return resultSet.next() ? Optional.of(mapRow(resultSet)) : Optional.<T>empty();
+                }
+            });
+        } catch (SQLException e) {
+            throw new IllegalStateException("Unable to read " + noun, e);
+        }
+    }
+
+    /**
+     * One page in the order and filter of {@code query}. When {@code previous} is the page just
+     * before the wanted one under the same query, the read seeks past its last row through the
+     * sort column's index instead of skipping {@code offset} rows, so paging forward costs the same
+     * however deep it goes.
+     */
+    public Page<T> findPage(PageQuery query, Page<T> previous, int offset, int limit) {
+        String orderBy = checkedColumn(query.orderBy());
+        boolean seek = previous != null && query.equals(previous.query()) && previous.lastId() != null;
+        boolean seekOnFilter = seek && orderBy.equals(query.filterColumn());
+        String direction = query.descending() ? " DESC" : " ASC";
+        StringBuilder sql = new StringBuilder(select);
+        appendFilter(sql, query, seekOnFilter);
+        if (seek) {
+            sql.append(query.isFiltered() ? " AND " : " WHERE ").append("(").append(orderBy).append(", id) ")
+                    .append(query.descending() ? "<" : ">").append(" (?, ?)");
+        }
+        sql.append(" ORDER BY ").append(orderBy).append(direction).append(", id").append(direction)
+                .append(" LIMIT ? OFFSET ?");
+        try {
+            return pool.read(connection -> {
+                PreparedStatement statement = connection.prepare(sql.toString());
+                int parameter = bindFilter(statement, query, 1, seekOnFilter);
+                if (seek) {
+                    statement.setObject(parameter++, previous.lastKey());
+                    statement.setString(parameter++, previous.lastId());
+                }
+                statement.setInt(parameter++, limit);
+                statement.setInt(parameter, seek ? 0 : offset);
+                List<T> rows = new ArrayList<>(Math.min(limit, SCAN_PAGE_SIZE));
+                Object lastKey = null;
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        rows.add(mapRow(resultSet));
+                        lastKey = resultSet.getObject(orderBy);
+                    }
+                }
+                String lastId = rows.isEmpty() ? null : idOf(rows.get(rows.size() - 1));
+                return new Page<>(query, rows, lastKey, lastId);
+            });
+        } catch (SQLException e) {
+            throw new IllegalStateException("Unable to list " + noun, e);
+        }
+    }
+
+    public long count(PageQuery query) {
+        if (!query.isFiltered()) {
+            return count();
+        }
+        StringBuilder sql = new StringBuilder("SELECT COUNT(*) FROM ").append(table);
+        appendFilter(sql, query);
+        try {
+            return pool.read(connection -> {
+                PreparedStatement statement = connection.prepare(sql.toString());
+                bindFilter(statement, query, 1);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    return resultSet.next() ? resultSet.getLong(1) : 0L;
+                }
+            });
+        } catch (SQLException e) {
+            throw new IllegalStateException("Unable to count " + noun, e);
+        }
+    }
+
+    private void appendFilter(StringBuilder sql, PageQuery query) {
+        appendFilter(sql, query, false);
+    }
+
+    /**
+     * When a seek runs on the filtered column itself, SQLite would otherwise pick the prefix range
+     * over the seek and rescan the rows already shown; the unary {@code +} keeps the prefix out of
+     * the index choice, and a plain bound on the far side stops the scan where the prefix ends.
+     */
+    private void appendFilter(StringBuilder sql, PageQuery query, boolean seekOnFilter) {
+        if (!query.isFiltered()) {
+            return;
+        }
+        String column = checkedColumn(query.filterColumn());
+        if (!seekOnFilter) {
+            sql.append(" WHERE ").append(column).append(" GLOB ?");
+            return;
+        }
+        sql.append(" WHERE +").append(column).append(" GLOB ?");
+        if (query.descending()) {
+            sql.append(" AND ").append(column).append(" >= ?");
+        } else if (prefixEnd(query.filterPrefix()) != null) {
+            sql.append(" AND ").append(column).append(" < ?");
+        }
+    }
+
+    private static int bindFilter(PreparedStatement statement, PageQuery query, int parameter,
+                                  boolean seekOnFilter) throws SQLException {
+        parameter = bindFilter(statement, query, parameter);
+        if (!query.isFiltered() || !seekOnFilter) {
+            return parameter;
+        }
+        String bound = query.descending() ? query.filterPrefix() : prefixEnd(query.filterPrefix());
+        if (bound != null) {
+            statement.setString(parameter++, bound);
+        }
+        return parameter;
+    }
+
+    private static int bindFilter(PreparedStatement statement, PageQuery query, int parameter) throws SQLException {
+        if (!query.isFiltered()) {
+            return parameter;
+        }
+        // GLOB rather than LIKE: it is case-sensitive, so a prefix becomes a range scan on the index
+        StringBuilder pattern = new StringBuilder(query.filterPrefix().length() + 1);
+        for (char c : query.filterPrefix().toCharArray()) {
+            if (c == '*' || c == '?' || c == '[') {
+                pattern.append('[').append(c).append(']');
+            } else {
+                pattern.append(c);
+            }
+        }
+        statement.setString(parameter, pattern.append('*').toString());
+        return parameter + 1;
+    }
+
+    /**
+     * The smallest string above every string starting with {@code prefix}, or null when the last
+     * character cannot simply be incremented.
+     */
+    private static String prefixEnd(String prefix) {
+        char last = prefix.charAt(prefix.length() - 1);
+        if (last == Character.MAX_VALUE || Character.isSurrogate(last)) {
+            return null;
+        }
+        return prefix.substring(0, prefix.length() - 1) + (char) (last + 1);
+    }
+
+    private String checkedColumn(String column) {
+        // column names are spliced into SQL, so only this table's own columns are accepted
+        if (!columns.contains(column)) {
+            throw new IllegalArgumentException("Unknown " + noun + " column " + column);
+        }
+        return column;
+    }
+
+    public long count() {
+        try {
+            return pool.read(connection -> {
+                try (ResultSet resultSet = connection.prepare(count).executeQuery()) {
+                    return resultSet.next() ? resultSet.getLong(1) : 0L;
+                }
+            });
+        } catch (SQLException e) {
+            throw new IllegalStateException("Unable to count " + noun, e);
+        }
+    }
+
+    /**
+     * Walks the whole table in primary key order one page at a time. Each page is a separate
+     * short read, so writers are never blocked behind a long export.
+     */
+    public Iterator<T> iterateAll() {
+        return new Iterator<>() {
+            private List<T> page = List.of();
+            private int index;
+            private String lastId = "";
+            private boolean exhausted;
+
+            @Override
+            public boolean hasNext() {
+                if (index < page.size()) {
+                    return true;
+                }
+                if (exhausted) {
+                    return false;
+                }
+                page = scanAfter(lastId);
+                index = 0;
+                exhausted = page.size() < SCAN_PAGE_SIZE;
+                if (page.isEmpty()) {
+                    return false;
+                }
+                lastId = idOf(page.get(page.size() - 1));
+                return true;
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return page.get(index++);
+            }
+        };
+    }
+
+    private List<T> scanAfter(String lastId) {
+        try {
+            return pool.read(connection -> {
+                PreparedStatement statement = connection.prepare(scanPage);
+                statement.setString(1, lastId);
+                statement.setInt(2, SCAN_PAGE_SIZE);
+                return collect(statement, SCAN_PAGE_SIZE);
+            });
+        } catch (SQLException e) {
+            throw new IllegalStateException("Unable to list " + noun, e);
+        }
+    }
+
+    protected List<T> collect(PreparedStatement statement, int expected) throws SQLException {
+        List<T> rows = new ArrayList<>(Math.min(expected, SCAN_PAGE_SIZE));
+        try (ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                rows.add(mapRow(resultSet));
+            }
+        }
+        return rows;
+    }
+
+    public void save(T row) {
+        try {
+            pool.write(connection -> {
+                PreparedStatement statement = connection.prepare(upsert);
+                bind(statement, row);
+                return statement.executeUpdate();
+            });
+        } catch (SQLException e) {
+            throw new IllegalStateException("Unable to save " + noun, e);
+        }
+    }
+
+    public int saveAll(Collection<T> rows) {
+        return saveAll(rows.iterator(), DEFAULT_BATCH_SIZE);
+    }
+
+    public int saveAll(Iterator<T> rows, int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+        try {
+            return pool.inTransaction(connection -> upsertBatched(connection, rows, batchSize));
+        } catch (SQLException e) {
+            throw new IllegalStateException("Unable to save " + noun, e);
+        }
+    }
+
+    /**
+     * Applies upserts and deletes for distinct ids in a single transaction.
+     */
+    public void apply(Collection<T> upserts, Collection<String> deletes) {
+        try {
+            pool.inTransaction(connection -> {
+                upsertBatched(connection, upserts.iterator(), DEFAULT_BATCH_SIZE);
+                return deleteBatched(connection, deletes);
+            });
+        } catch (SQLException e) {
+            throw new IllegalStateException("Unable to save " + noun, e);
+        }
+    }
+
+    private int upsertBatched(ConnectionPool.PooledConnection connection, Iterator<T> rows, int batchSize)
+            throws SQLException {
+        PreparedStatement statement = connection.prepare(upsert);
+        int written = 0;
+        int pending = 0;
+        try {
+            while (rows.hasNext()) {
+                bind(statement, rows.next());
+                statement.addBatch();
+                if (++pending == batchSize) {
+                    statement.executeBatch();
+                    written += pending;
+                    pending = 0;
+                }
+            }
+            if (pending > 0) {
+                statement.executeBatch();
+                written += pending;
+            }
+        } finally {
+            statement.clearBatch();
+        }
+        return written;
+    }
+
+    private int deleteBatched(ConnectionPool.PooledConnection connection, Collection<String> ids) throws SQLException {
+        PreparedStatement statement = connection.prepare(delete);
+        int deleted = 0;
+        for (String id : ids) {
+            statement.setString(1, id);
+            deleted += statement.executeUpdate();
+        }
+        return deleted;
+    }
+
+    public boolean delete(String id) {
+        try {
+            return pool.write(connection -> {
+                PreparedStatement statement = connection.prepare(delete);
+                statement.setString(1, id);
+                return statement.executeUpdate() > 0;
+            });
+        } catch (SQLException e) {
+            throw new IllegalStateException("Unable to delete " + noun, e);
+        }
+    }
+
+    public int deleteAll(Collection<String> ids) {
+        try {
+            return pool.inTransaction(connection -> deleteBatched(connection, ids));
+        } catch (SQLException e) {
+            throw new IllegalStateException("Unable to delete " + noun, e);
+        }
+    }
+}
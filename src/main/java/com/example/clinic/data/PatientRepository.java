@@ -0,0 +1,80 @@
+package com.example.clinic.data;
+
+import com.example.clinic.model.PatientRecord;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+
+public class PatientRepository extends PagedRepository<PatientRecord> {
+    private static final String UPDATE_STATUS_AND_ROOM = "UPDATE patient SET status = COALESCE(?, status), "
+            + "room = COALESCE(?, room) WHERE id = ?";
+
+    public PatientRepository(ConnectionPool pool) {
+        super(pool, "patient", "patients", List.of("id", "name", "status", "room"),
+                "CREATE TABLE IF NOT EXISTS patient (id TEXT PRIMARY KEY, name TEXT NOT NULL, status TEXT NOT NULL, "
+                        + "room TEXT NOT NULL)",
+                // (column, id) so a sorted page is read straight off the index, tie-break included
+                "DROP INDEX IF EXISTS idx_patient_name",
+                "CREATE INDEX IF NOT EXISTS idx_patient_name_id ON patient (name, id)",
+                "CREATE INDEX IF NOT EXISTS idx_patient_status_id ON patient (status, id)",
+                "CREATE INDEX IF NOT EXISTS idx_patient_room_id ON patient (room, id)");
+    }
+
+    /**
+     * Sets the status and room of existing patients in one transaction, without reading them
+     * first. A null status or room is left as stored, and changes for ids with no row are dropped.
+     */
+    public void updateStatusAndRoom(Collection<StatusAndRoom> changes) {
+        try {
+            pool.inTransaction(connection -> {
+                PreparedStatement statement = connection.prepare(UPDATE_STATUS_AND_ROOM);
+                int pending = 0;
+                try {
+                    for (StatusAndRoom change : changes) {
+                        statement.setString(1, change.status());
+                        statement.setString(2, change.room());
+                        statement.setString(3, change.id());
+                        statement.addBatch();
+                        if (++pending == DEFAULT_BATCH_SIZE) {
+                            statement.executeBatch();
+                            pending = 0;
+                        }
+                    }
+                    if (pending > 0) {
+                        statement.executeBatch();
+                    }
+                } finally {
+                    statement.clearBatch();
+                }
+                return null;
+            });
+        } catch (SQLException e) {
+            throw new IllegalStateException("Unable to save patients", e);
+        }
+    }
+
+    @Override
+    protected String idOf(PatientRecord patient) {
+        return patient.getId();
+    }
+
+    @Override
+    protected void bind(PreparedStatement statement, PatientRecord patient) throws SQLException {
+        statement.setString(1, patient.getId());
+        statement.setString(2, patient.getName());
+        statement.setString(3, patient.getStatus());
+        statement.setString(4, patient.getRoom());
+    }
+
+    @Override
+    protected PatientRecord mapRow(ResultSet resultSet) throws SQLException {
+        return new PatientRecord(resultSet.getString("id"), resultSet.getString("name"), resultSet.getString("status"),
+                resultSet.getString("room"));
+    }
+
+    public record StatusAndRoom(String id, String status, String room) {
+    }
+}
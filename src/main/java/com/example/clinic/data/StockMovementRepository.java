@@ -0,0 +1,41 @@
+package com.example.clinic.data;
+
+import com.example.clinic.model.StockMovement;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+public class StockMovementRepository extends PagedRepository<StockMovement> {
+    public StockMovementRepository(ConnectionPool pool) {
+        super(pool, "stock_movement", "stock movements",
+                List.of("id", "item_id", "recorded_at", "kind", "delta", "balance"),
+                "CREATE TABLE IF NOT EXISTS stock_movement (id TEXT PRIMARY KEY, item_id TEXT NOT NULL, "
+                        + "recorded_at INTEGER NOT NULL, kind TEXT NOT NULL, delta INTEGER NOT NULL, "
+                        + "balance INTEGER NOT NULL)",
+                "CREATE INDEX IF NOT EXISTS idx_stock_movement_recorded_at ON stock_movement (recorded_at)");
+    }
+
+    @Override
+    protected String idOf(StockMovement movement) {
+        return movement.getId();
+    }
+
+    @Override
+    protected void bind(PreparedStatement statement, StockMovement movement) throws SQLException {
+        statement.setString(1, movement.getId());
+        statement.setString(2, movement.getItemId());
+        statement.setLong(3, movement.getRecordedAt());
+        statement.setString(4, movement.getKind().name());
+        statement.setInt(5, movement.getDelta());
+        statement.setInt(6, movement.getBalance());
+    }
+
+    @Override
+    protected StockMovement mapRow(ResultSet resultSet) throws SQLException {
+        return new StockMovement(resultSet.getString("id"), resultSet.getString("item_id"),
+                resultSet.getLong("recorded_at"), StockMovement.Kind.valueOf(resultSet.getString("kind")),
+                resultSet.getInt("delta"), resultSet.getInt("balance"));
+    }
+}
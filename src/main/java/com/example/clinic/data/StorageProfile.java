@@ -0,0 +1,76 @@
+package com.example.clinic.data;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Locale;
+
+/**
+ * SQLite tuning applied to every pooled connection. {@link #CONCURRENT_READERS} switches the
+ * database to WAL so readers keep going while a write is in flight, and checkpoints the WAL on
+ * a timer so it does not grow without bound. {@link #ROLLBACK_JOURNAL} switches it back to
+ * SQLite's default rollback journal.
+ */
+public enum StorageProfile {
+    ROLLBACK_JOURNAL("DELETE", null, 0, 0, 5_000, 0),
+    CONCURRENT_READERS("WAL", "NORMAL", -16_000, 256L * 1024 * 1024, 5_000, 60);
+
+    public static final String PROPERTY = "clinic.storage.profile";
+
+    private final String journalMode;
+    private final String synchronous;
+    private final int cacheSize;
+    private final long mmapSize;
+    private final int busyTimeoutMillis;
+    private final int checkpointIntervalSeconds;
+
+    StorageProfile(String journalMode, String synchronous, int cacheSize, long mmapSize,
+                   int busyTimeoutMillis, int checkpointIntervalSeconds) {
+        this.journalMode = journalMode;
+        this.synchronous = synchronous;
+        this.cacheSize = cacheSize;
+        this.mmapSize = mmapSize;
+        this.busyTimeoutMillis = busyTimeoutMillis;
+        this.checkpointIntervalSeconds = checkpointIntervalSeconds;
+    }
+
+    public static StorageProfile fromSystemProperty() {
+        String value = System.getProperty(PROPERTY);
+        if (value == null || value.isBlank()) {
+            return CONCURRENT_READERS;
+        }
+        return valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+
+    public int getCheckpointIntervalSeconds() {
+        return checkpointIntervalSeconds;
+    }
+
+    void apply(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("PRAGMA busy_timeout = " + busyTimeoutMillis);
+            if (journalMode != null) {
+                // set every time, since a database keeps WAL mode after the connection that chose it
+                statement.execute("PRAGMA journal_mode = " + journalMode);
+            }
+            if (synchronous != null) {
+                statement.execute("PRAGMA synchronous = " + synchronous);
+            }
+            if (cacheSize != 0) {
+                statement.execute("PRAGMA cache_size = " + cacheSize);
+            }
+            if (mmapSize > 0) {
+                statement.execute("PRAGMA mmap_size = " + mmapSize);
+            }
+        }
+    }
+
+    void checkpoint(Connection connection) throws SQLException {
+        if (!"WAL".equals(journalMode)) {
+            return;
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("PRAGMA wal_checkpoint(PASSIVE)");
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.clinic.data;
+
+import com.example.clinic.model.AppUser;
+import com.example.clinic.model.PasswordScheme;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs one writer looping {@link UserRepository#save} against several readers looping
+ * {@link UserRepository#findAll} on a scratch user database, once per {@link StorageProfile}, and
+ * reports reads and writes per second. Run with
+ * {@code java -cp target/classes com.example.clinic.data.StorageProfileBenchmark 3 2}
+ * for three readers over two seconds.
+ */
+public final class StorageProfileBenchmark {
+    private StorageProfileBenchmark() {
+    }
+
+    private static final int USERS = 200;
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int readers = args.length > 0 ? Integer.parseInt(args[0]) : 3;
+        double seconds = args.length > 1 ? Double.parseDouble(args[1]) : 2;
+        // the hash is never checked, so a fixed one keeps PBKDF2 out of the numbers
+        String hash = Base64.getEncoder().encodeToString(new byte[32]);
+        List<AppUser> users = new ArrayList<>(USERS);
+        for (int i = 0; i < USERS; i++) {
+            users.add(AppUser.fromStorage(UUID.randomUUID(), "USER" + i, "Nurse", hash, new byte[16],
+                    PasswordScheme.current()));
+        }
+        for (int round = 0; round < 2; round++) {
+            // the first round warms up the JIT; only the second is representative
+            for (StorageProfile profile : StorageProfile.values()) {
+                run(profile, users, readers, seconds);
+            }
+        }
+    }
+
+    private static void run(StorageProfile profile, List<AppUser> users, int readers, double seconds)
+            throws IOException, InterruptedException {
+        Path directory = Files.createTempDirectory("storage-benchmark");
+        try (UserRepository repository = new UserRepository(directory.resolve("users.db"), readers + 1, profile)) {
+            repository.saveAll(users);
+            LongAdder reads = new LongAdder();
+            LongAdder writes = new LongAdder();
+            AtomicBoolean running = new AtomicBoolean(true);
+            CountDownLatch done = new CountDownLatch(readers + 1);
+            List<Thread> threads = new ArrayList<>();
+            threads.add(new Thread(() -> {
+                try {
+                    for (int i = 0; running.get(); i++) {
+                        AppUser user = users.get(i % users.size());
+                        repository.save(AppUser.fromStorage(user.getId(), user.getUsername(),
+                                i % 2 == 0 ? "Doctor" : "Nurse", user.getPasswordHash(), user.getSalt(),
+                                user.getScheme()));
+                        writes.increment();
+                    }
+                } finally {
+                    done.countDown();
+                }
+            }));
+            for (int r = 0; r < readers; r++) {
+                threads.add(new Thread(() -> {
+                    try {
+                        while (running.get()) {
+                            repository.findAll();
+                            reads.increment();
+                        }
+                    } finally {
+                        done.countDown();
+                    }
+                }));
+            }
+            long start = System.nanoTime();
+            threads.forEach(Thread::start);
+            Thread.sleep((long) (seconds * 1_000));
+            running.set(false);
+            done.await();
+            double elapsed = (System.nanoTime() - start) / 1e9;
+            System.out.printf("%-20s %d readers %,12.0f reads/s %,12.0f writes/s%n", profile, readers,
+                    reads.sum() / elapsed, writes.sum() / elapsed);
+        } finally {
+            try (var files = Files.list(directory)) {
+                for (Path file : (Iterable<Path>) files::iterator) {
+                    Files.deleteIfExists(file);
+                }
+            }
+            Files.deleteIfExists(directory);
+        }
+    }
+}
@@ -1,31 +1,63 @@
 package com.example.clinic.data;
 
 import com.example.clinic.model.AppUser;
+import com.example.clinic.model.PasswordScheme;
+import com.example.clinic.service.PasswordHashingService;
+import com.example.clinic.service.PasswordHashingService.NewUser;
 
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 
-public class UserRepository {
-    private final String jdbcUrl;
+public class UserRepository implements AutoCloseable {
+    private static final String FIND_BY_USERNAME = "SELECT * FROM app_user WHERE username = ?";
+    private static final String FIND_ALL = "SELECT * FROM app_user";
+    private static final String UPSERT = "INSERT INTO app_user (id, username, role, password_hash, salt, hash_algorithm, "
+            + "hash_iterations, hash_key_length) VALUES (?, ?, ?, ?, ?, ?, ?, ?) "
+            + "ON CONFLICT(username) DO UPDATE SET role = excluded.role, password_hash = excluded.password_hash, salt = excluded.salt, "
+            + "hash_algorithm = excluded.hash_algorithm, hash_iterations = excluded.hash_iterations, "
+            + "hash_key_length = excluded.hash_key_length";
+    private static final String INSERT_NEW = "INSERT INTO app_user (id, username, role, password_hash, salt, "
+            + "hash_algorithm, hash_iterations, hash_key_length) VALUES (?, ?, ?, ?, ?, ?, ?, ?) "
+            + "ON CONFLICT(username) DO NOTHING";
+    private static final String REPLACE_HASH = "UPDATE app_user SET password_hash = ?, salt = ?, hash_algorithm = ?, "
+            + "hash_iterations = ?, hash_key_length = ? WHERE username = ? AND password_hash = ?";
+
+    public static final int DEFAULT_BATCH_SIZE = 500;
+
+    private final ConnectionPool pool;
+    private final List<Consumer<String>> changeListeners = new CopyOnWriteArrayList<>();
 
     public UserRepository() {
+        this(Paths.get("storage", "users.db"), ConnectionPool.DEFAULT_MAX_CONNECTIONS, StorageProfile.fromSystemProperty());
+    }
+
+    public UserRepository(Path dbFile, int maxConnections) {
+        this(dbFile, maxConnections, StorageProfile.ROLLBACK_JOURNAL);
+    }
+
+    public UserRepository(Path dbFile, int maxConnections, StorageProfile profile) {
         try {
-            Path storage = Paths.get("storage");
-            Files.createDirectories(storage);
-            Path dbFile = storage.resolve("users.db");
-            this.jdbcUrl = "jdbc:sqlite:" + dbFile.toAbsolutePath();
+            Path parent = dbFile.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            this.pool = new ConnectionPool("jdbc:sqlite:" + dbFile.toAbsolutePath(), maxConnections, profile);
             setupSchema();
         } catch (IOException e) {
             throw new IllegalStateException("Unable to prepare user storage", e);
@@ -33,68 +65,247 @@ public class UserRepository {
     }
 
     private void setupSchema() {
-        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
-            statement.execute("CREATE TABLE IF NOT EXISTS app_user (id TEXT PRIMARY KEY, username TEXT UNIQUE NOT NULL, "
-                    + "role TEXT NOT NULL, password_hash TEXT NOT NULL, salt BLOB NOT NULL)");
+        try {
+            pool.write(connection -> {
+                try (Statement statement = connection.raw().createStatement()) {
+                    statement.execute("CREATE TABLE IF NOT EXISTS app_user (id TEXT PRIMARY KEY, username TEXT UNIQUE NOT NULL, "
+                            + "role TEXT NOT NULL, password_hash TEXT NOT NULL, salt BLOB NOT NULL)");
+                    Set<String> columns = new HashSet<>();
+                    try (ResultSet resultSet = statement.executeQuery("PRAGMA table_info(app_user)")) {
+                        while (resultSet.next()) {
+                            columns.add(resultSet.getString("name"));
+                        }
+                    }
+                    // Rows written before the scheme columns existed were all hashed with the legacy parameters.
+                    PasswordScheme legacy = PasswordScheme.LEGACY;
+                    if (!columns.contains("hash_algorithm")) {
+                        statement.execute("ALTER TABLE app_user ADD COLUMN hash_algorithm TEXT NOT NULL DEFAULT '"
+                                + legacy.algorithm() + "'");
+                    }
+                    if (!columns.contains("hash_iterations")) {
+                        statement.execute("ALTER TABLE app_user ADD COLUMN hash_iterations INTEGER NOT NULL DEFAULT "
+                                + legacy.iterations());
+                    }
+                    if (!columns.contains("hash_key_length")) {
+                        statement.execute("ALTER TABLE app_user ADD COLUMN hash_key_length INTEGER NOT NULL DEFAULT "
+                                + legacy.keyLength());
+                    }
+                }
+                return null;
+            });
         } catch (SQLException e) {
             throw new IllegalStateException("Unable to create user schema", e);
         }
     }
 
-    public void ensureDemoUsers() {
-        List<AppUser> demos = List.of(
-                AppUser.withPassword("ADMIN", "Administrator", "Admin1234"),
-                AppUser.withPassword("DOCTOR", "Doctor", "Doctor1234"),
-                AppUser.withPassword("NURSE", "Nurse", "Nurse1234")
+    public void ensureDemoUsers(PasswordHashingService hasher) {
+        List<NewUser> demos = List.of(
+                new NewUser("ADMIN", "Administrator", "Admin1234"),
+                new NewUser("DOCTOR", "Doctor", "Doctor1234"),
+                new NewUser("NURSE", "Nurse", "Nurse1234")
         );
-        for (AppUser demo : demos) {
-            if (findByUsername(demo.getUsername()).isEmpty()) {
-                save(demo);
+        List<NewUser> missing = new ArrayList<>();
+        for (NewUser demo : demos) {
+            if (findByUsername(demo.username()).isEmpty()) {
+                missing.add(demo);
             }
         }
+        if (!missing.isEmpty()) {
+            saveAll(hasher.withPasswords(missing).join());
+        }
     }
 
     public Optional<AppUser> findByUsername(String username) {
-        try (Connection connection = connect();
-             PreparedStatement statement = connection.prepareStatement("SELECT * FROM app_user WHERE username = ?")) {
-            statement.setString(1, username);
-            try (ResultSet resultSet = statement.executeQuery()) {
-                if (resultSet.next()) {
-                    return Optional.of(mapRow(resultSet));
+        try {
+            return pool.read(connection -> {
+                PreparedStatement statement = connection.prepare(FIND_BY_USERNAME);
+                statement.setString(1, username);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    if (resultSet.next()) {
+                        return Optional.of(mapRow(resultSet));
+                    }
                 }
-            }
+                return Optional.<AppUser>empty();
+            });
         } catch (SQLException e) {
             throw new IllegalStateException("Unable to read user", e);
         }
-        return Optional.empty();
+    }
+
+    /**
+     * Which of {@code usernames} already have a user.
+     */
+    public Set<String> existingUsernames(Collection<String> usernames) {
+        List<String> wanted = List.copyOf(usernames);
+        try {
+            return pool.read(connection -> {
+                Set<String> existing = new HashSet<>();
+                // a bounded number of parameters per query, well under SQLite's limit
+                for (int from = 0; from < wanted.size(); from += DEFAULT_BATCH_SIZE) {
+                    List<String> chunk = wanted.subList(from, Math.min(wanted.size(), from + DEFAULT_BATCH_SIZE));
+                    try (PreparedStatement statement = connection.raw().prepareStatement(
+                            "SELECT username FROM app_user WHERE username IN ("
+                                    + "?, ".repeat(chunk.size() - 1) + "?)")) {
+                        for (int i = 0; i < chunk.size(); i++) {
+                            statement.setString(i + 1, chunk.get(i));
+                        }
+                        try (ResultSet resultSet = statement.executeQuery()) {
+                            while (resultSet.next()) {
+                                existing.add(resultSet.getString(1));
+                            }
+                        }
+                    }
+                }
+                return existing;
+            });
+        } catch (SQLException e) {
+            throw new IllegalStateException("Unable to read users", e);
+        }
     }
 
     public List<AppUser> findAll() {
-        List<AppUser> users = new ArrayList<>();
-        try (Connection connection = connect(); Statement statement = connection.createStatement(); ResultSet resultSet = statement.executeQuery("SELECT * FROM app_user")) {
-            while (resultSet.next()) {
-                users.add(mapRow(resultSet));
-            }
+        try {
+            return pool.read(connection -> {
+                List<AppUser> users = new ArrayList<>();
+                try (ResultSet resultSet = connection.prepare(FIND_ALL).executeQuery()) {
+                    while (resultSet.next()) {
+                        users.add(mapRow(resultSet));
+                    }
+                }
+                return users;
+            });
         } catch (SQLException e) {
             throw new IllegalStateException("Unable to list users", e);
         }
-        return users;
     }
 
     public void save(AppUser user) {
-        try (Connection connection = connect();
-             PreparedStatement statement = connection.prepareStatement(
-                     "INSERT INTO app_user (id, username, role, password_hash, salt) VALUES (?, ?, ?, ?, ?) "
-                             + "ON CONFLICT(username) DO UPDATE SET role = excluded.role, password_hash = excluded.password_hash, salt = excluded.salt")) {
-            statement.setString(1, user.getId().toString());
-            statement.setString(2, user.getUsername());
-            statement.setString(3, user.getRole());
-            statement.setString(4, user.getPasswordHash());
-            statement.setBytes(5, user.getSalt());
-            statement.executeUpdate();
+        try {
+            pool.write(connection -> {
+                PreparedStatement statement = connection.prepare(UPSERT);
+                bindUser(statement, user);
+                return statement.executeUpdate();
+            });
         } catch (SQLException e) {
             throw new IllegalStateException("Unable to save user", e);
         }
+        notifyChanged(List.of(user.getUsername()));
+    }
+
+    /**
+     * Stores {@code user}'s new hash only if the stored hash is still {@code expectedHash}, so a
+     * background re-hash never overwrites a password changed in the meantime. Returns whether it
+     * was stored.
+     */
+    public boolean replacePasswordHash(AppUser user, String expectedHash) {
+        int updated;
+        try {
+            updated = pool.write(connection -> {
+                PreparedStatement statement = connection.prepare(REPLACE_HASH);
+                statement.setString(1, user.getPasswordHash());
+                statement.setBytes(2, user.getSalt());
+                PasswordScheme scheme = user.getScheme();
+                statement.setString(3, scheme.algorithm());
+                statement.setInt(4, scheme.iterations());
+                statement.setInt(5, scheme.keyLength());
+                statement.setString(6, user.getUsername());
+                statement.setString(7, expectedHash);
+                return statement.executeUpdate();
+            });
+        } catch (SQLException e) {
+            throw new IllegalStateException("Unable to save user", e);
+        }
+        if (updated == 0) {
+            return false;
+        }
+        notifyChanged(List.of(user.getUsername()));
+        return true;
+    }
+
+    public int saveAll(Collection<AppUser> users) {
+        return saveAll(users.iterator(), DEFAULT_BATCH_SIZE);
+    }
+
+    public int saveAll(Iterator<AppUser> users, int batchSize) {
+        return saveAll(users, batchSize, true);
+    }
+
+    /**
+     * Saves {@code users} in one transaction, {@code batchSize} statements at a time. Unless
+     * {@code overwrite} is set, a user whose username is already taken is left as it is, and only
+     * the users actually written are counted.
+     */
+    public int saveAll(Iterator<AppUser> users, int batchSize, boolean overwrite) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+        List<String> usernames = new ArrayList<>();
+        int saved;
+        try {
+            saved = pool.inTransaction(connection -> {
+                PreparedStatement statement = connection.prepare(overwrite ? UPSERT : INSERT_NEW);
+                List<String> batch = new ArrayList<>(Math.min(batchSize, DEFAULT_BATCH_SIZE));
+                int written = 0;
+                try {
+                    while (users.hasNext()) {
+                        AppUser user = users.next();
+                        bindUser(statement, user);
+                        batch.add(user.getUsername());
+                        statement.addBatch();
+                        if (batch.size() == batchSize) {
+                            written += executeBatch(statement, batch, usernames);
+                        }
+                    }
+                    if (!batch.isEmpty()) {
+                        written += executeBatch(statement, batch, usernames);
+                    }
+                } finally {
+                    statement.clearBatch();
+                }
+                return written;
+            });
+        } catch (SQLException e) {
+            throw new IllegalStateException("Unable to save users", e);
+        }
+        notifyChanged(usernames);
+        return saved;
+    }
+
+    // keeps the usernames of the rows the batch actually wrote, which a skipped conflict did not
+    private static int executeBatch(PreparedStatement statement, List<String> batch, List<String> written)
+            throws SQLException {
+        int[] counts = statement.executeBatch();
+        int rows = 0;
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] != 0) {
+                written.add(batch.get(i));
+                rows++;
+            }
+        }
+        batch.clear();
+        return rows;
+    }
+
+    public void addChangeListener(Consumer<String> listener) {
+        changeListeners.add(listener);
+    }
+
+    private void notifyChanged(List<String> usernames) {
+        for (Consumer<String> listener : changeListeners) {
+            usernames.forEach(listener);
+        }
+    }
+
+    private void bindUser(PreparedStatement statement, AppUser user) throws SQLException {
+        statement.setString(1, user.getId().toString());
+        statement.setString(2, user.getUsername());
+        statement.setString(3, user.getRole());
+        statement.setString(4, user.getPasswordHash());
+        statement.setBytes(5, user.getSalt());
+        PasswordScheme scheme = user.getScheme();
+        statement.setString(6, scheme.algorithm());
+        statement.setInt(7, scheme.iterations());
+        statement.setInt(8, scheme.keyLength());
     }
 
     private AppUser mapRow(ResultSet resultSet) throws SQLException {
@@ -103,10 +314,13 @@ public class UserRepository {
         String role = resultSet.getString("role");
         String passwordHash = resultSet.getString("password_hash");
         byte[] salt = resultSet.getBytes("salt");
-        return AppUser.fromStorage(id, username, role, passwordHash, salt);
+        PasswordScheme scheme = new PasswordScheme(resultSet.getString("hash_algorithm"), resultSet.getInt("hash_iterations"),
+                resultSet.getInt("hash_key_length"));
+        return AppUser.fromStorage(id, username, role, passwordHash, salt, scheme);
     }
 
-    private Connection connect() throws SQLException {
-        return DriverManager.getConnection(jdbcUrl);
+    @Override
+    public void close() {
+        pool.close();
     }
 }
@@ -0,0 +1,144 @@
+package com.example.clinic.data;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Buffers saves and deletes for one repository and writes them on a background thread. Only the
+ * latest mutation per id is kept, so a burst of edits to the same row costs one write. Every flush
+ * runs on the single writer thread, which keeps mutations of one entity in submission order. A
+ * failed flush puts its mutations back (unless a newer one arrived meanwhile) and retries later.
+ */
+public final class WriteBehindQueue<T> {
+    private static final long FLUSH_DELAY_MILLIS = 200;
+    private static final long RETRY_DELAY_MILLIS = 2_000;
+
+    private final PagedRepository<T> repository;
+    private final ScheduledExecutorService writer;
+    private final int batchSize;
+    private final Object lock = new Object();
+    private Map<String, Mutation<T>> pending = new LinkedHashMap<>();
+    private boolean flushScheduled;
+    private boolean drainQueued;
+
+    private final AtomicLong flushes = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private volatile long lastFlushNanos;
+    private volatile long maxFlushNanos;
+    private volatile RuntimeException lastFailure;
+
+    WriteBehindQueue(PagedRepository<T> repository, ScheduledExecutorService writer, int batchSize) {
+        this.repository = repository;
+        this.writer = writer;
+        this.batchSize = batchSize;
+    }
+
+    public void save(T row) {
+        enqueue(repository.idOf(row), new Mutation<>(row));
+    }
+
+    public void delete(String id) {
+        enqueue(id, new Mutation<>(null));
+    }
+
+    /**
+     * Blocks until everything queued before the call has been written.
+     */
+    public void flush() {
+        try {
+            writer.submit(this::drain).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while flushing writes", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Unable to flush writes", e.getCause());
+        }
+        RuntimeException failure = lastFailure;
+        if (failure != null && depth() > 0) {
+            throw new IllegalStateException("Unable to flush writes", failure);
+        }
+    }
+
+    public int depth() {
+        synchronized (lock) {
+            return pending.size();
+        }
+    }
+
+    public Metrics metrics() {
+        return new Metrics(depth(), flushes.get(), written.get(), failures.get(),
+                lastFlushNanos / 1_000_000.0, maxFlushNanos / 1_000_000.0);
+    }
+
+    private void enqueue(String id, Mutation<T> mutation) {
+        synchronized (lock) {
+            pending.remove(id);
+            pending.put(id, mutation);
+            if (pending.size() >= batchSize && !drainQueued) {
+                drainQueued = true;
+                writer.execute(this::drain);
+            } else if (!flushScheduled) {
+                flushScheduled = true;
+                writer.schedule(this::drain, FLUSH_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    private void drain() {
+        Map<String, Mutation<T>> batch;
+        synchronized (lock) {
+            batch = pending;
+            pending = new LinkedHashMap<>();
+            flushScheduled = false;
+            drainQueued = false;
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<T> upserts = new ArrayList<>();
+        List<String> deletes = new ArrayList<>();
+        for (Map.Entry<String, Mutation<T>> entry : batch.entrySet()) {
+            T row = entry.getValue().row();
+            if (row == null) {
+                deletes.add(entry.getKey());
+            } else {
+                upserts.add(row);
+            }
+        }
+        long start = System.nanoTime();
+        try {
+            repository.apply(upserts, deletes);
+            written.addAndGet(batch.size());
+            lastFailure = null;
+        } catch (RuntimeException e) {
+            failures.incrementAndGet();
+            lastFailure = e;
+            synchronized (lock) {
+                batch.forEach(pending::putIfAbsent);
+                if (!flushScheduled) {
+                    flushScheduled = true;
+                    writer.schedule(this::drain, RETRY_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+                }
+            }
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            flushes.incrementAndGet();
+            lastFlushNanos = elapsed;
+            maxFlushNanos = Math.max(maxFlushNanos, elapsed);
+        }
+    }
+
+    public record Metrics(int depth, long flushes, long written, long failures, double lastFlushMillis,
+                          double maxFlushMillis) {
+    }
+
+    private record Mutation<T>(T row) {
+    }
+}
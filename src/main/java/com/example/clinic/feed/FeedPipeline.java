@@ -0,0 +1,142 @@
+package com.example.clinic.feed;
+
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Carries status updates from a {@link StatusFeed} to its subscribers through a bounded
+ * {@link SubmissionPublisher}, delivering on one background thread. Each subscriber holds at most
+ * {@code capacity} undelivered updates and asks for more only as it works through them; what
+ * happens to a feed that outpaces a subscriber is the {@link Overflow} policy.
+ */
+public final class FeedPipeline implements AutoCloseable {
+    public static final String CAPACITY_PROPERTY = "clinic.feed.capacity";
+    public static final String OVERFLOW_PROPERTY = "clinic.feed.overflow";
+    public static final int DEFAULT_CAPACITY = 1_024;
+    private static final int REQUEST_BATCH = 64;
+
+    public enum Overflow {
+        /** The feed waits for room, so nothing is lost and a fast source is slowed to the subscriber's pace. */
+        BLOCK,
+        /** The update that does not fit is discarded and counted, so the feed never waits. */
+        DROP_NEWEST
+    }
+
+    private final ExecutorService delivery;
+    private final SubmissionPublisher<StatusUpdate> publisher;
+    private final Overflow overflow;
+    private final LongAdder published = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    public FeedPipeline(int capacity, Overflow overflow) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.overflow = overflow;
+        this.delivery = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "status-feed-delivery");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.publisher = new SubmissionPublisher<>(delivery, capacity);
+    }
+
+    public static FeedPipeline fromSystemProperties() {
+        String overflow = System.getProperty(OVERFLOW_PROPERTY);
+        return new FeedPipeline(Integer.getInteger(CAPACITY_PROPERTY, DEFAULT_CAPACITY),
+                overflow == null || overflow.isBlank()
+                        ? Overflow.BLOCK
+                        : Overflow.valueOf(overflow.trim().toUpperCase(Locale.ROOT)));
+    }
+
+    /**
+     * Hands {@code update} to every subscriber, applying the overflow policy to any whose buffer is
+     * full. Updates published after {@link #close()} are dropped.
+     */
+    public void publish(StatusUpdate update) {
+        published.increment();
+        if (publisher.isClosed()) {
+            dropped.increment();
+            return;
+        }
+        try {
+            if (overflow == Overflow.BLOCK) {
+                publisher.submit(update);
+            } else {
+                publisher.offer(update, (subscriber, item) -> {
+                    dropped.increment();
+                    return false;
+                });
+            }
+        } catch (IllegalStateException e) {
+            // closed while this update was on its way in
+            dropped.increment();
+        }
+    }
+
+    /**
+     * Calls {@code consumer} on the delivery thread for each update, in publication order. An
+     * exception from the consumer is counted and skips only that update.
+     */
+    public void subscribe(Consumer<StatusUpdate> consumer) {
+        publisher.subscribe(new Flow.Subscriber<>() {
+            private Flow.Subscription subscription;
+            private int outstanding;
+
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                this.subscription = subscription;
+                outstanding = REQUEST_BATCH;
+                subscription.request(REQUEST_BATCH);
+            }
+
+            @Override
+            public void onNext(StatusUpdate update) {
+                try {
+                    consumer.accept(update);
+                    delivered.increment();
+                } catch (RuntimeException e) {
+                    failed.increment();
+                }
+                // topped up in halves, so the publisher is not asked once per update
+                if (--outstanding <= REQUEST_BATCH / 2) {
+                    subscription.request(REQUEST_BATCH - outstanding);
+                    outstanding = REQUEST_BATCH;
+                }
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                failed.increment();
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        });
+    }
+
+    public Metrics metrics() {
+        return new Metrics(published.sum(), delivered.sum(), dropped.sum(), failed.sum(),
+                publisher.estimateMaximumLag());
+    }
+
+    /**
+     * Stops accepting and delivering updates; anything still buffered is discarded.
+     */
+    @Override
+    public void close() {
+        publisher.close();
+        delivery.shutdownNow();
+    }
+
+    public record Metrics(long published, long delivered, long dropped, long failed, int backlog) {
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.clinic.feed;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Follows a text file that another process appends {@code patientId,status} lines to, like
+ * {@code tail -f}. Reading starts at the current end of the file unless {@code fromStart} is set,
+ * and starts again from the top if the file shrinks. A line is only read once its newline has been
+ * written, and the file itself is the buffer: while the sink blocks, nothing more is read. Blank
+ * lines and lines starting with {@code #} are skipped; other lines without a comma are counted in
+ * {@link #malformedLines()}.
+ */
+public final class FileStatusFeed implements StatusFeed {
+    private static final long POLL_MILLIS = 250;
+    private static final int READ_BUFFER_BYTES = 64 * 1024;
+
+    private final Path file;
+    private final boolean fromStart;
+    private final AtomicLong malformed = new AtomicLong();
+    private volatile Thread thread;
+
+    public FileStatusFeed(Path file, boolean fromStart) {
+        this.file = file;
+        this.fromStart = fromStart;
+    }
+
+    @Override
+    public synchronized void start(Consumer<StatusUpdate> sink) {
+        if (thread != null) {
+            throw new IllegalStateException("Status feed already started");
+        }
+        thread = new Thread(() -> run(sink), "status-feed-tail");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public long malformedLines() {
+        return malformed.get();
+    }
+
+    private void run(Consumer<StatusUpdate> sink) {
+        long position = -1;
+        ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_BYTES);
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        while (!Thread.currentThread().isInterrupted()) {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                if (position < 0) {
+                    position = fromStart ? 0 : channel.size();
+                } else if (channel.size() < position) {
+                    position = 0;
+                    line.reset();
+                }
+                channel.position(position);
+                int read;
+                while (!Thread.currentThread().isInterrupted() && (read = channel.read(buffer)) > 0) {
+                    position += read;
+                    byte[] bytes = buffer.array();
+                    int lineStart = 0;
+                    for (int i = 0; i < read; i++) {
+                        if (bytes[i] != '\n') {
+                            continue;
+                        }
+                        if (line.size() == 0) {
+                            accept(new String(bytes, lineStart, i - lineStart, StandardCharsets.UTF_8), sink);
+                        } else {
+                            // the start of this line came in with the previous read
+                            line.write(bytes, lineStart, i - lineStart);
+                            accept(line.toString(StandardCharsets.UTF_8), sink);
+                            line.reset();
+                        }
+                        lineStart = i + 1;
+                    }
+                    line.write(bytes, lineStart, read - lineStart);
+                    buffer.clear();
+                }
+            } catch (NoSuchFileException e) {
+                // not created yet, or rotated away: whatever the next file holds is new
+                position = 0;
+                line.reset();
+            } catch (IOException e) {
+                // transient read failures are retried on the next poll
+            }
+            try {
+                TimeUnit.MILLISECONDS.sleep(POLL_MILLIS);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private void accept(String line, Consumer<StatusUpdate> sink) {
+        String text = line.trim();
+        if (text.isEmpty() || text.startsWith("#")) {
+            return;
+        }
+        int comma = text.indexOf(',');
+        String patientId = comma > 0 ? text.substring(0, comma).trim() : "";
+        String status = comma > 0 ? text.substring(comma + 1).trim() : "";
+        if (patientId.isEmpty() || status.isEmpty()) {
+            malformed.incrementAndGet();
+            return;
+        }
+        sink.accept(new StatusUpdate(patientId, status, System.currentTimeMillis()));
+    }
+
+    @Override
+    public synchronized void close() {
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+}
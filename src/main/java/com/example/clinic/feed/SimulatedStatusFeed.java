@@ -0,0 +1,98 @@
+package com.example.clinic.feed;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Picks a random patient and a random status at a steady rate, for demos and load tests. A rate
+ * of zero or less publishes as fast as the sink accepts. The patient ids are read again on the
+ * feed's thread before each update, at most once a second, so admitted patients are picked and
+ * discharged ones stop being picked; while there are none, nothing is published.
+ */
+public final class SimulatedStatusFeed implements StatusFeed {
+    public static final double DEFAULT_RATE = 0.2;
+    public static final List<String> STATUSES = List.of("Stable - Monitoring", "Critical - ICU",
+            "Recovery - Therapy", "Observation - Cardio", "Pre-op - Prep");
+    private static final long REFRESH_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final Supplier<List<String>> patientIds;
+    private final double eventsPerSecond;
+    private final long maxEvents;
+    private volatile Thread thread;
+
+    public SimulatedStatusFeed(Supplier<List<String>> patientIds, double eventsPerSecond) {
+        this(patientIds, eventsPerSecond, Long.MAX_VALUE);
+    }
+
+    /**
+     * Stops by itself after {@code maxEvents} updates.
+     */
+    public SimulatedStatusFeed(Supplier<List<String>> patientIds, double eventsPerSecond, long maxEvents) {
+        this.patientIds = patientIds;
+        this.eventsPerSecond = eventsPerSecond;
+        this.maxEvents = maxEvents;
+    }
+
+    @Override
+    public synchronized void start(Consumer<StatusUpdate> sink) {
+        if (thread != null) {
+            throw new IllegalStateException("Status feed already started");
+        }
+        thread = new Thread(() -> run(sink), "status-feed-simulator");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void run(Consumer<StatusUpdate> sink) {
+        SplittableRandom random = new SplittableRandom();
+        List<String> ids = List.of();
+        long started = System.nanoTime();
+        long readAt = started - REFRESH_NANOS;
+        long sent = 0;
+        for (long pulse = 0; sent < maxEvents; pulse++) {
+            // paced against the start time, so a slow sink is caught up on rather than drifting
+            if (eventsPerSecond > 0 && !sleepUntil(started + (long) (pulse * 1e9 / eventsPerSecond))) {
+                return;
+            }
+            long now = System.nanoTime();
+            if (now - readAt >= REFRESH_NANOS) {
+                ids = patientIds.get();
+                readAt = now;
+            }
+            if (ids.isEmpty()) {
+                if (eventsPerSecond <= 0 && !sleepUntil(readAt + REFRESH_NANOS)) {
+                    return;
+                }
+                continue;
+            }
+            sink.accept(new StatusUpdate(ids.get(random.nextInt(ids.size())),
+                    STATUSES.get(random.nextInt(STATUSES.size())), System.currentTimeMillis()));
+            sent++;
+        }
+    }
+
+    /**
+     * False once the thread has been interrupted, which is how {@link #close} stops the feed.
+     */
+    private static boolean sleepUntil(long due) {
+        long wait = due - System.nanoTime();
+        try {
+            if (wait > 0) {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            }
+        } catch (InterruptedException e) {
+            return false;
+        }
+        return !Thread.currentThread().isInterrupted();
+    }
+
+    @Override
+    public synchronized void close() {
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+}
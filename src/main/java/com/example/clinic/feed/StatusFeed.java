@@ -0,0 +1,36 @@
+package com.example.clinic.feed;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * A source of patient status updates, such as a monitor or a file another system appends to.
+ * {@link #start(Consumer)} returns at once and delivers on the feed's own thread; the sink may
+ * block, which holds the feed back until there is room downstream.
+ */
+public interface StatusFeed extends AutoCloseable {
+    String FILE_PROPERTY = "clinic.feed.file";
+    String RATE_PROPERTY = "clinic.feed.rate";
+
+    void start(Consumer<StatusUpdate> sink);
+
+    @Override
+    void close();
+
+    /**
+     * Tails {@code clinic.feed.file} when it is set, otherwise simulates {@code clinic.feed.rate}
+     * updates per second (one every five seconds by default) for the patients in
+     * {@code patientIds}.
+     */
+    static StatusFeed fromSystemProperties(Supplier<List<String>> patientIds) {
+        String file = System.getProperty(FILE_PROPERTY);
+        if (file != null && !file.isBlank()) {
+            return new FileStatusFeed(Path.of(file.trim()), false);
+        }
+        String rate = System.getProperty(RATE_PROPERTY);
+        return new SimulatedStatusFeed(patientIds,
+                rate == null || rate.isBlank() ? SimulatedStatusFeed.DEFAULT_RATE : Double.parseDouble(rate.trim()));
+    }
+}
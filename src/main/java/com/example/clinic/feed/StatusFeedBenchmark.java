@@ -0,0 +1,80 @@
+package com.example.clinic.feed;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pushes status updates from a feed through a {@link FeedPipeline} into a subscriber that keeps
+ * the latest status per patient, under each overflow policy, and reports updates per second from
+ * the first one published to the last one delivered. The simulated feed publishes as fast as the
+ * pipeline accepts; the file feed tails a pre-written file from the start, so it also times line
+ * parsing. Only the feed and the pipeline are timed: the subscriber here stands in for the
+ * dashboard's, so the batching onto the FX thread and the patient writes each batch makes are
+ * not. Run with
+ * {@code java -cp target/classes com.example.clinic.feed.StatusFeedBenchmark 2000000 1024}.
+ */
+public final class StatusFeedBenchmark {
+    private StatusFeedBenchmark() {
+    }
+
+    private static final int PATIENTS = 10_000;
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        long events = args.length > 0 ? Long.parseLong(args[0]) : 2_000_000;
+        int capacity = args.length > 1 ? Integer.parseInt(args[1]) : FeedPipeline.DEFAULT_CAPACITY;
+        List<String> ids = new ArrayList<>(PATIENTS);
+        for (int i = 0; i < PATIENTS; i++) {
+            ids.add("PAT-" + (1_000 + i));
+        }
+        Path file = Files.createTempFile("status-feed", ".csv");
+        try {
+            try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                for (long i = 0; i < events; i++) {
+                    writer.write(ids.get((int) (i % PATIENTS)));
+                    writer.write(',');
+                    writer.write(SimulatedStatusFeed.STATUSES.get((int) (i % SimulatedStatusFeed.STATUSES.size())));
+                    writer.newLine();
+                }
+            }
+            for (int round = 0; round < 2; round++) {
+                // the first round warms up the JIT; only the second is representative
+                for (FeedPipeline.Overflow overflow : FeedPipeline.Overflow.values()) {
+                    run("simulated, " + overflow, new SimulatedStatusFeed(() -> ids, 0, events), events,
+                            capacity, overflow);
+                }
+                run("file tail, BLOCK", new FileStatusFeed(file, true), events, capacity,
+                        FeedPipeline.Overflow.BLOCK);
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static void run(String label, StatusFeed feed, long events, int capacity, FeedPipeline.Overflow overflow)
+            throws InterruptedException {
+        Map<String, String> latest = new HashMap<>();
+        try (FeedPipeline pipeline = new FeedPipeline(capacity, overflow)) {
+            pipeline.subscribe(update -> latest.put(update.patientId(), update.status()));
+            long start = System.nanoTime();
+            feed.start(pipeline::publish);
+            FeedPipeline.Metrics metrics = pipeline.metrics();
+            while (metrics.delivered() + metrics.dropped() < events) {
+                TimeUnit.MILLISECONDS.sleep(1);
+                metrics = pipeline.metrics();
+            }
+            long nanos = System.nanoTime() - start;
+            feed.close();
+            System.out.printf("%-22s %,12d published %,12d delivered %,10d dropped %,14.0f delivered/s%n", label,
+                    metrics.published(), metrics.delivered(), metrics.dropped(),
+                    metrics.delivered() / (nanos / 1e9));
+        }
+    }
+}
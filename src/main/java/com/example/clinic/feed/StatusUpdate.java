@@ -0,0 +1,7 @@
+package com.example.clinic.feed;
+
+/**
+ * A patient's new status as reported by a {@link StatusFeed}.
+ */
+public record StatusUpdate(String patientId, String status, long recordedAt) {
+}
@@ -0,0 +1,171 @@
+package com.example.clinic.inventory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binary min-heap of keys with a position index, so a key's priority can be changed or the key
+ * removed in O(log n) without searching for it.
+ */
+final class IndexedMinHeap<K> {
+    private final Map<K, Integer> positions = new HashMap<>();
+    private Object[] keys = new Object[16];
+    private double[] priorities = new double[16];
+    private int size;
+
+    int size() {
+        return size;
+    }
+
+    boolean contains(K key) {
+        return positions.containsKey(key);
+    }
+
+    /**
+     * Inserts the key or moves it to its new priority.
+     */
+    void put(K key, double priority) {
+        Integer position = positions.get(key);
+        if (position == null) {
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+                priorities = Arrays.copyOf(priorities, size * 2);
+            }
+            place(size, key, priority);
+            siftUp(size++);
+            return;
+        }
+        double previous = priorities[position];
+        priorities[position] = priority;
+        if (priority < previous) {
+            siftUp(position);
+        } else {
+            siftDown(position);
+        }
+    }
+
+    boolean remove(K key) {
+        Integer position = positions.remove(key);
+        if (position == null) {
+            return false;
+        }
+        int last = --size;
+        if (position != last) {
+            K moved = key(last);
+            place(position, moved, priorities[last]);
+            siftUp(position);
+            siftDown(positions.get(moved));
+        }
+        keys[last] = null;
+        return true;
+    }
+
+    /**
+     * The {@code limit} smallest keys in priority order, without disturbing the heap: a second,
+     * small heap of frontier positions is expanded instead, costing O(limit log limit).
+     */
+    List<K> smallest(int limit) {
+        List<K> result = new ArrayList<>(Math.min(limit, size));
+        if (size == 0 || limit < 1) {
+            return result;
+        }
+        int[] frontier = new int[Math.min(size, 2 * limit + 1)];
+        int frontierSize = 0;
+        frontier[frontierSize++] = 0;
+        while (frontierSize > 0 && result.size() < limit) {
+            int top = frontier[0];
+            frontier[0] = frontier[--frontierSize];
+            frontierSiftDown(frontier, frontierSize);
+            result.add(key(top));
+            for (int child = 2 * top + 1; child <= 2 * top + 2 && child < size; child++) {
+                frontier[frontierSize] = child;
+                frontierSiftUp(frontier, frontierSize++);
+            }
+        }
+        return result;
+    }
+
+    private void frontierSiftUp(int[] frontier, int index) {
+        int position = frontier[index];
+        while (index > 0) {
+            int parent = (index - 1) / 2;
+            if (priorities[frontier[parent]] <= priorities[position]) {
+                break;
+            }
+            frontier[index] = frontier[parent];
+            index = parent;
+        }
+        frontier[index] = position;
+    }
+
+    private void frontierSiftDown(int[] frontier, int frontierSize) {
+        if (frontierSize == 0) {
+            return;
+        }
+        int index = 0;
+        int position = frontier[0];
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= frontierSize) {
+                break;
+            }
+            if (child + 1 < frontierSize && priorities[frontier[child + 1]] < priorities[frontier[child]]) {
+                child++;
+            }
+            if (priorities[frontier[child]] >= priorities[position]) {
+                break;
+            }
+            frontier[index] = frontier[child];
+            index = child;
+        }
+        frontier[index] = position;
+    }
+
+    private void siftUp(int index) {
+        K key = key(index);
+        double priority = priorities[index];
+        while (index > 0) {
+            int parent = (index - 1) / 2;
+            if (priorities[parent] <= priority) {
+                break;
+            }
+            place(index, key(parent), priorities[parent]);
+            index = parent;
+        }
+        place(index, key, priority);
+    }
+
+    private void siftDown(int index) {
+        K key = key(index);
+        double priority = priorities[index];
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && priorities[child + 1] < priorities[child]) {
+                child++;
+            }
+            if (priorities[child] >= priority) {
+                break;
+            }
+            place(index, key(child), priorities[child]);
+            index = child;
+        }
+        place(index, key, priority);
+    }
+
+    private void place(int index, K key, double priority) {
+        keys[index] = key;
+        priorities[index] = priority;
+        positions.put(key, index);
+    }
+
+    @SuppressWarnings("unchecked")
+    private K key(int index) {
+        return (K) keys[index];
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.clinic.inventory;
+
+import com.example.clinic.model.InventoryItem;
+import com.example.clinic.model.StockMovement;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Receipts, consumptions and adjustments per SKU, kept in parallel primitive arrays in time order
+ * with the running balance and the cumulative units consumed stored beside each movement. A
+ * point-in-time quantity is one binary search, and units consumed over any window is the
+ * difference of two prefix sums, so both are O(log n) in the SKU's history. A movement stamped
+ * earlier than the SKU's last one is moved up to it, which keeps the arrays sorted without ever
+ * rewriting a balance already handed out.
+ */
+public final class InventoryLedger {
+    private static final int INITIAL_CAPACITY = 8;
+    private static final double MILLIS_PER_DAY = 86_400_000.0;
+
+    private final Map<String, History> histories = new HashMap<>();
+
+    /**
+     * Appends a movement and returns it with its running balance, ready to persist.
+     */
+    public synchronized StockMovement record(String itemId, StockMovement.Kind kind, int delta, long timestampMillis) {
+        History history = histories.computeIfAbsent(itemId, id -> new History());
+        long recordedAt = history.size == 0 ? timestampMillis
+                : Math.max(timestampMillis, history.times[history.size - 1]);
+        int balance = history.balance() + delta;
+        history.append(recordedAt, kind, delta, balance);
+        return new StockMovement(StockMovement.idFor(itemId, history.size), itemId, recordedAt, kind, delta, balance);
+    }
+
+    /**
+     * Replays a persisted movement. Movements must arrive in id order, as a keyset scan returns them.
+     */
+    public synchronized void load(StockMovement movement) {
+        History history = histories.computeIfAbsent(movement.getItemId(), id -> new History());
+        long recordedAt = history.size == 0 ? movement.getRecordedAt()
+                : Math.max(movement.getRecordedAt(), history.times[history.size - 1]);
+        history.append(recordedAt, movement.getKind(), movement.getDelta(), movement.getBalance());
+    }
+
+    /**
+     * Opens the ledger of an item it has not seen with a receipt of its quantity, or records an
+     * adjustment when the balance disagrees with the item, for example after an edit made outside
+     * the ledger. Returns null when they already agree.
+     */
+    public synchronized StockMovement reconcile(InventoryItem item, long timestampMillis) {
+        if (!histories.containsKey(item.getId())) {
+            return record(item.getId(), StockMovement.Kind.RECEIPT, item.getQuantity(), timestampMillis);
+        }
+        int difference = item.getQuantity() - balance(item.getId());
+        if (difference == 0) {
+            return null;
+        }
+        return record(item.getId(), StockMovement.Kind.ADJUSTMENT, difference, timestampMillis);
+    }
+
+    public synchronized int movementCount(String itemId) {
+        History history = histories.get(itemId);
+        return history == null ? 0 : history.size;
+    }
+
+    public synchronized int balance(String itemId) {
+        History history = histories.get(itemId);
+        return history == null ? 0 : history.balance();
+    }
+
+    /**
+     * The quantity on hand just after every movement recorded at or before the given time.
+     */
+    public synchronized int quantityAt(String itemId, long timestampMillis) {
+        History history = histories.get(itemId);
+        if (history == null) {
+            return 0;
+        }
+        int last = history.lastAtOrBefore(timestampMillis);
+        return last < 0 ? 0 : history.balances[last];
+    }
+
+    /**
+     * Units consumed by movements recorded after {@code fromMillis} and at or before {@code toMillis}.
+     */
+    public synchronized long consumedBetween(String itemId, long fromMillis, long toMillis) {
+        History history = histories.get(itemId);
+        if (history == null || toMillis <= fromMillis) {
+            return 0;
+        }
+        return history.consumedThrough(history.lastAtOrBefore(toMillis))
+                - history.consumedThrough(history.lastAtOrBefore(fromMillis));
+    }
+
+    public double consumptionPerDay(String itemId, long fromMillis, long toMillis) {
+        if (toMillis <= fromMillis) {
+            return 0;
+        }
+        return consumedBetween(itemId, fromMillis, toMillis) / ((toMillis - fromMillis) / MILLIS_PER_DAY);
+    }
+
+    private static final class History {
+        private long[] times = new long[INITIAL_CAPACITY];
+        private int[] balances = new int[INITIAL_CAPACITY];
+        private long[] consumed = new long[INITIAL_CAPACITY];
+        private int size;
+
+        private void append(long timestampMillis, StockMovement.Kind kind, int delta, int balance) {
+            if (size == times.length) {
+                int capacity = size * 2;
+                times = Arrays.copyOf(times, capacity);
+                balances = Arrays.copyOf(balances, capacity);
+                consumed = Arrays.copyOf(consumed, capacity);
+            }
+            long used = kind == StockMovement.Kind.CONSUMPTION ? Math.abs((long) delta) : 0;
+            times[size] = timestampMillis;
+            balances[size] = balance;
+            consumed[size] = consumedThrough(size - 1) + used;
+            size++;
+        }
+
+        private int balance() {
+            return size == 0 ? 0 : balances[size - 1];
+        }
+
+        private long consumedThrough(int index) {
+            return index < 0 ? 0 : consumed[index];
+        }
+
+        /**
+         * Index of the last movement at or before the given time, or -1 if there is none.
+         */
+        private int lastAtOrBefore(long timestampMillis) {
+            int low = 0;
+            int high = size - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (times[mid] <= timestampMillis) {
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return high;
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.clinic.inventory;
+
+import com.example.clinic.model.InventoryItem;
+import com.example.clinic.model.StockMovement;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Turns stock movements into reorder suggestions as they happen. Each SKU keeps an exponentially
+ * decayed estimate of daily usage; a movement updates that SKU's days of cover and its place in a
+ * min-heap of the SKUs that need reordering, so the cost per movement is O(log n) however large
+ * the catalog is, and the most urgent suggestions are read off the top of the heap. Days of cover
+ * are computed when a SKU moves, so a SKU that stops being used keeps its last estimate until it
+ * moves again.
+ */
+public final class ReorderEngine {
+    public static final double DEFAULT_LEAD_TIME_DAYS = 3;
+    public static final double DEFAULT_TARGET_COVER_DAYS = 14;
+    private static final double USAGE_WINDOW_DAYS = 7;
+    private static final double MILLIS_PER_DAY = 86_400_000.0;
+
+    private final double leadTimeDays;
+    private final double targetCoverDays;
+    private final Map<String, Sku> skus = new HashMap<>();
+    private final IndexedMinHeap<String> needsReorder = new IndexedMinHeap<>();
+    private volatile Consumer<ReorderSuggestion> listener = suggestion -> { };
+
+    public ReorderEngine() {
+        this(DEFAULT_LEAD_TIME_DAYS, DEFAULT_TARGET_COVER_DAYS);
+    }
+
+    public ReorderEngine(double leadTimeDays, double targetCoverDays) {
+        if (leadTimeDays < 0 || targetCoverDays <= 0) {
+            throw new IllegalArgumentException("Invalid reorder horizon");
+        }
+        this.leadTimeDays = leadTimeDays;
+        this.targetCoverDays = targetCoverDays;
+    }
+
+    /**
+     * Called, on the thread that recorded the movement, whenever a SKU starts needing a reorder.
+     */
+    public void setListener(Consumer<ReorderSuggestion> listener) {
+        this.listener = listener == null ? suggestion -> { } : listener;
+    }
+
+    /**
+     * Adds or updates a catalog item. A changed quantity is an adjustment, as the ledger records
+     * it, so it moves the stock level without counting as usage.
+     */
+    public void track(InventoryItem item, long timestampMillis) {
+        ReorderSuggestion raised;
+        synchronized (this) {
+            Sku sku = skus.get(item.getId());
+            if (sku == null) {
+                sku = new Sku(item.getId(), timestampMillis);
+                skus.put(item.getId(), sku);
+            }
+            sku.name = item.getName();
+            sku.onHand = item.getQuantity();
+            sku.reorderLevel = item.getReorderLevel();
+            raised = reindex(sku);
+        }
+        notify(raised);
+    }
+
+    /**
+     * Applies a stock movement: negative for units used or written off, positive for deliveries.
+     * Only consumption feeds the usage estimate.
+     */
+    public void record(String itemId, StockMovement.Kind kind, int delta, long timestampMillis) {
+        ReorderSuggestion raised;
+        synchronized (this) {
+            Sku sku = skus.get(itemId);
+            if (sku == null) {
+                return;
+            }
+            if (kind == StockMovement.Kind.CONSUMPTION && delta < 0) {
+                sku.consume(-delta, timestampMillis);
+            }
+            sku.onHand = Math.max(0, sku.onHand + delta);
+            raised = reindex(sku);
+        }
+        notify(raised);
+    }
+
+    public synchronized void untrack(String itemId) {
+        if (skus.remove(itemId) != null) {
+            needsReorder.remove(itemId);
+        }
+    }
+
+    public synchronized int trackedCount() {
+        return skus.size();
+    }
+
+    public synchronized int pendingCount() {
+        return needsReorder.size();
+    }
+
+    /**
+     * The most urgent suggestions, fewest days of cover first.
+     */
+    public synchronized List<ReorderSuggestion> suggestions(int limit) {
+        List<ReorderSuggestion> suggestions = new ArrayList<>();
+        for (String itemId : needsReorder.smallest(limit)) {
+            suggestions.add(suggest(skus.get(itemId)));
+        }
+        return suggestions;
+    }
+
+    private ReorderSuggestion reindex(Sku sku) {
+        double cover = sku.daysOfCover();
+        if (sku.onHand <= sku.reorderLevel || cover < leadTimeDays) {
+            boolean raised = !needsReorder.contains(sku.id);
+            needsReorder.put(sku.id, cover);
+            return raised ? suggest(sku) : null;
+        }
+        needsReorder.remove(sku.id);
+        return null;
+    }
+
+    private ReorderSuggestion suggest(Sku sku) {
+        double target = sku.usagePerDay * (leadTimeDays + targetCoverDays);
+        int quantity = (int) Math.ceil(Math.max(target, 2.0 * sku.reorderLevel) - sku.onHand);
+        return new ReorderSuggestion(sku.id, sku.name, sku.onHand, sku.reorderLevel, sku.usagePerDay,
+                sku.daysOfCover(), Math.max(1, quantity));
+    }
+
+    private void notify(ReorderSuggestion raised) {
+        if (raised != null) {
+            listener.accept(raised);
+        }
+    }
+
+    private static final class Sku {
+        private final String id;
+        private String name;
+        private int onHand;
+        private int reorderLevel;
+        private double usagePerDay;
+        private long lastUsedMillis;
+
+        private Sku(String id, long timestampMillis) {
+            this.id = id;
+            this.lastUsedMillis = timestampMillis;
+        }
+
+        /**
+         * Decays the usage estimate by the time since the last use, then adds this use spread
+         * over the averaging window, which converges on the recent units per day.
+         */
+        private void consume(int units, long timestampMillis) {
+            double elapsedDays = Math.max(0, timestampMillis - lastUsedMillis) / MILLIS_PER_DAY;
+            usagePerDay = usagePerDay * Math.exp(-elapsedDays / USAGE_WINDOW_DAYS) + units / USAGE_WINDOW_DAYS;
+            lastUsedMillis = Math.max(lastUsedMillis, timestampMillis);
+        }
+
+        private double daysOfCover() {
+            return usagePerDay > 0 ? onHand / usagePerDay : Double.POSITIVE_INFINITY;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.clinic.inventory;
+
+import com.example.clinic.model.InventoryItem;
+import com.example.clinic.model.StockMovement;
+
+import java.util.Random;
+
+/**
+ * Replays synthetic stock movements against a large catalog and reports the cost per movement and
+ * per suggestion query. Run with
+ * {@code java -cp target/classes com.example.clinic.inventory.ReorderEngineBenchmark 50000 2000000}.
+ */
+public final class ReorderEngineBenchmark {
+    private static final long MINUTE_MILLIS = 60_000;
+    private static final int MOVEMENTS_PER_MINUTE = 5_000;
+
+    private ReorderEngineBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        int skus = args.length > 0 ? Integer.parseInt(args[0]) : 50_000;
+        int movements = args.length > 1 ? Integer.parseInt(args[1]) : 2_000_000;
+        Random random = new Random(42);
+        ReorderEngine engine = new ReorderEngine();
+        long[] raised = new long[1];
+        engine.setListener(suggestion -> raised[0]++);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < skus; i++) {
+            engine.track(new InventoryItem("SKU-" + i, "Item " + i, 200 + random.nextInt(2_000), 1.0, "Healthy",
+                    50 + random.nextInt(150)), 0);
+        }
+        report("track (catalog load)", skus, System.nanoTime() - start);
+
+        String[] ids = new String[skus];
+        for (int i = 0; i < skus; i++) {
+            ids[i] = "SKU-" + i;
+        }
+        long clock = 0;
+        for (int round = 0; round < 2; round++) {
+            // the first round warms up the JIT; only the second is representative
+            start = System.nanoTime();
+            for (int i = 0; i < movements; i++) {
+                // a skewed mix: a few fast movers, occasional deliveries
+                int sku = (int) (skus * Math.pow(random.nextDouble(), 3));
+                int delta = random.nextInt(50) == 0 ? 500 : -(1 + random.nextInt(5));
+                clock += MINUTE_MILLIS / MOVEMENTS_PER_MINUTE;
+                engine.record(ids[sku], delta > 0 ? StockMovement.Kind.RECEIPT : StockMovement.Kind.CONSUMPTION,
+                        delta, clock);
+            }
+            report("record movement", movements, System.nanoTime() - start);
+
+            int queries = 100_000;
+            long returned = 0;
+            start = System.nanoTime();
+            for (int i = 0; i < queries; i++) {
+                returned += engine.suggestions(20).size();
+            }
+            report("top 20 suggestions", queries, System.nanoTime() - start);
+            System.out.printf("  (%d pending, %d raised, %d returned)%n", engine.pendingCount(), raised[0], returned);
+        }
+    }
+
+    private static void report(String operation, int operations, long nanos) {
+        System.out.printf("%-24s %,12d ops %10.1f ns/op%n", operation, operations, (double) nanos / operations);
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.clinic.inventory;
+
+/**
+ * A SKU that needs ordering: stock is at or below its reorder level, or will run out within the
+ * supplier lead time at the current rate of use.
+ */
+public record ReorderSuggestion(String itemId, String name, int onHand, int reorderLevel, double dailyUsage,
+                                double daysOfCover, int suggestedQuantity) {
+}
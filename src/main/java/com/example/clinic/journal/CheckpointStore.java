@@ -0,0 +1,76 @@
+package com.example.clinic.journal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+import java.util.zip.CRC32;
+
+/**
+ * The journal sequence the {@link EventStore} is known to hold, written to a temp file and renamed
+ * into place. Layout: {@code [magic][sequence][segment][offset][crc32]}, where segment and offset
+ * locate the first journal record after the checkpoint.
+ */
+final class CheckpointStore {
+    private static final int MAGIC = 0x434A4B31; // "CJK1"
+    private static final int SIZE = 4 + 8 + 8 + 4 + 8;
+    private static final String FILE_NAME = "checkpoint.bin";
+
+    private final Path directory;
+
+    CheckpointStore(Path directory) {
+        this.directory = directory;
+    }
+
+    void write(long sequence, long segment, int offset) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(SIZE);
+        buffer.putInt(MAGIC).putLong(sequence).putLong(segment).putInt(offset);
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 0, SIZE - 8);
+        buffer.putLong(crc.getValue()).flip();
+        Path temp = Files.createTempFile(directory, ".checkpoint-", ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
+            Files.move(temp, directory.resolve(FILE_NAME), StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * The last checkpoint written, or empty if there is none or it fails its checksum, in which
+     * case the whole journal is replayed.
+     */
+    Optional<Checkpoint> load() throws IOException {
+        byte[] bytes;
+        try {
+            bytes = Files.readAllBytes(directory.resolve(FILE_NAME));
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        }
+        if (bytes.length != SIZE) {
+            return Optional.empty();
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, SIZE - 8);
+        if (buffer.getInt(0) != MAGIC || buffer.getLong(SIZE - 8) != crc.getValue()) {
+            return Optional.empty();
+        }
+        return Optional.of(new Checkpoint(buffer.getLong(4), buffer.getLong(12), buffer.getInt(20)));
+    }
+
+    record Checkpoint(long sequence, long segment, int offset) {
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.clinic.journal;
+
+import com.example.clinic.model.Appointment;
+import com.example.clinic.model.InventoryItem;
+import com.example.clinic.model.PatientRecord;
+
+/**
+ * A clinical state change as recorded in the journal.
+ */
+public sealed interface ClinicEvent {
+    record PatientAdmitted(PatientRecord patient) implements ClinicEvent {
+    }
+
+    record PatientUpdated(PatientRecord patient) implements ClinicEvent {
+    }
+
+    record PatientRoomChanged(String patientId, String room) implements ClinicEvent {
+    }
+
+    record PatientStatusChanged(String patientId, String status) implements ClinicEvent {
+    }
+
+    record PatientDischarged(String patientId) implements ClinicEvent {
+    }
+
+    record AppointmentScheduled(Appointment appointment) implements ClinicEvent {
+    }
+
+    record AppointmentUpdated(Appointment appointment) implements ClinicEvent {
+    }
+
+    record AppointmentCancelled(String appointmentId) implements ClinicEvent {
+    }
+
+    record InventoryItemAdded(InventoryItem item) implements ClinicEvent {
+    }
+
+    record InventoryItemAdjusted(InventoryItem item) implements ClinicEvent {
+    }
+
+    record InventoryItemRemoved(String itemId) implements ClinicEvent {
+    }
+}
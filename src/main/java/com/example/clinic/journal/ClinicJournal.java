@@ -0,0 +1,307 @@
+package com.example.clinic.journal;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Append-only journal of clinical events with sequence numbers, stored in memory-mapped segment
+ * files. It is the redo log for an {@link EventStore} that writes behind: every
+ * {@code checkpointInterval} events, and every {@code checkpointPeriodSeconds} if anything was
+ * appended at all, a background thread flushes the store, records the sequence it now holds, and
+ * deletes the segments before it. {@link #recover} replays only the events after the last
+ * checkpoint into the store, so restart time follows the checkpoint interval and period rather
+ * than the length of the journal. Callers queue each change with the store before appending its event,
+ * so a flush that starts after an append always includes that change. Mapped pages are forced to
+ * disk once a second and on close.
+ */
+public final class ClinicJournal implements AutoCloseable {
+    public static final int DEFAULT_SEGMENT_SIZE = 32 * 1024 * 1024;
+    public static final int DEFAULT_CHECKPOINT_INTERVAL = 20_000;
+    public static final int DEFAULT_CHECKPOINT_PERIOD_SECONDS = 30;
+    private static final long SYNC_INTERVAL_SECONDS = 1;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final int checkpointInterval;
+    private final int checkpointPeriodSeconds;
+    private final CheckpointStore checkpoints;
+    private final ScheduledExecutorService background;
+    private final ByteSink scratch = new ByteSink();
+    private EventStore store;
+    private JournalSegment active;
+    private long lastSequence;
+    private long checkpointSequence;
+    private boolean checkpointRunning;
+    private boolean closed;
+    private long recoveryMillis;
+    private long replayedEvents;
+
+    public ClinicJournal() {
+        this(Paths.get("storage", "journal"), DEFAULT_SEGMENT_SIZE, DEFAULT_CHECKPOINT_INTERVAL);
+    }
+
+    public ClinicJournal(Path directory, int segmentSize, int checkpointInterval) {
+        this(directory, segmentSize, checkpointInterval, DEFAULT_CHECKPOINT_PERIOD_SECONDS);
+    }
+
+    /**
+     * A {@code checkpointPeriodSeconds} of 0 leaves checkpoints to the event count alone.
+     */
+    public ClinicJournal(Path directory, int segmentSize, int checkpointInterval, int checkpointPeriodSeconds) {
+        if (segmentSize < 4096 || checkpointInterval < 1 || checkpointPeriodSeconds < 0) {
+            throw new IllegalArgumentException("Invalid journal sizing");
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.checkpointInterval = checkpointInterval;
+        this.checkpointPeriodSeconds = checkpointPeriodSeconds;
+        this.checkpoints = new CheckpointStore(directory);
+        this.background = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "clinic-journal");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Replays every event after the last checkpoint into {@code store}, flushes it, and opens the
+     * journal for appending. Must be called once, before the first {@link #append}.
+     */
+    public synchronized void recover(EventStore store) {
+        if (this.store != null || closed) {
+            throw new IllegalStateException("Clinic journal already recovered");
+        }
+        long start = System.nanoTime();
+        try {
+            Files.createDirectories(directory);
+            Optional<CheckpointStore.Checkpoint> checkpoint = checkpoints.load();
+            checkpointSequence = checkpoint.map(CheckpointStore.Checkpoint::sequence).orElse(0L);
+            long checkpointSegment = checkpoint.map(CheckpointStore.Checkpoint::segment).orElse(0L);
+            int checkpointOffset = checkpoint.map(CheckpointStore.Checkpoint::offset).orElse(0);
+            lastSequence = checkpointSequence;
+            deleteSnapshots();
+            List<Long> segments = listSegments();
+            for (int i = 0; i < segments.size(); i++) {
+                boolean last = i == segments.size() - 1;
+                if (!last && segments.get(i + 1) <= checkpointSequence + 1) {
+                    // every record in this segment is already in the store
+                    continue;
+                }
+                long firstSequence = segments.get(i);
+                JournalSegment segment = JournalSegment.open(segmentPath(firstSequence), firstSequence, segmentSize);
+                segment.recover(checkpointSequence, firstSequence == checkpointSegment ? checkpointOffset : 0,
+                        entry -> {
+                            store.apply(entry.event());
+                            replayedEvents++;
+                        });
+                lastSequence = Math.max(lastSequence, segment.getLastSequence());
+                if (last) {
+                    active = segment;
+                } else {
+                    segment.close();
+                }
+            }
+            if (active == null) {
+                active = JournalSegment.open(segmentPath(lastSequence + 1), lastSequence + 1, segmentSize);
+            }
+            this.store = store;
+            if (replayedEvents > 0) {
+                store.flush();
+                writeCheckpoint(lastSequence, active.getFirstSequence(), active.getPosition());
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to open clinic journal", e);
+        }
+        recoveryMillis = (System.nanoTime() - start) / 1_000_000;
+        background.scheduleWithFixedDelay(this::sync, SYNC_INTERVAL_SECONDS, SYNC_INTERVAL_SECONDS, TimeUnit.SECONDS);
+        if (checkpointPeriodSeconds > 0) {
+            background.scheduleWithFixedDelay(this::checkpointIfBehind, checkpointPeriodSeconds,
+                    checkpointPeriodSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    public synchronized long append(ClinicEvent event) {
+        if (store == null || closed) {
+            throw new IllegalStateException(closed ? "Clinic journal is closed" : "Clinic journal not recovered");
+        }
+        long sequence = lastSequence + 1;
+        long timestamp = System.currentTimeMillis();
+        scratch.reset();
+        EventCodec.encode(event, scratch);
+        try {
+            if (!active.append(sequence, timestamp, scratch)) {
+                if (active.isEmpty()) {
+                    throw new IllegalArgumentException("Event does not fit in a journal segment");
+                }
+                roll(sequence);
+                active.append(sequence, timestamp, scratch);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to append to clinic journal", e);
+        }
+        lastSequence = sequence;
+        if (sequence - checkpointSequence >= checkpointInterval && !checkpointRunning) {
+            checkpointRunning = true;
+            background.execute(this::checkpointInBackground);
+        }
+        return sequence;
+    }
+
+    public synchronized long lastSequence() {
+        return lastSequence;
+    }
+
+    public synchronized long checkpointSequence() {
+        return checkpointSequence;
+    }
+
+    /**
+     * How long {@link #recover} took, including the store flush.
+     */
+    public synchronized long getRecoveryMillis() {
+        return recoveryMillis;
+    }
+
+    public synchronized long getReplayedEvents() {
+        return replayedEvents;
+    }
+
+    /**
+     * Flushes the store and records that it holds every event appended so far.
+     */
+    public void checkpoint() throws IOException {
+        long sequence;
+        long segment;
+        int offset;
+        synchronized (this) {
+            if (store == null || closed || lastSequence == checkpointSequence) {
+                return;
+            }
+            sequence = lastSequence;
+            segment = active.getFirstSequence();
+            offset = active.getPosition();
+        }
+        // each event's change was queued before the event was appended, so this flush covers them all
+        store.flush();
+        writeCheckpoint(sequence, segment, offset);
+    }
+
+    private void writeCheckpoint(long sequence, long segment, int offset) throws IOException {
+        checkpoints.write(sequence, segment, offset);
+        synchronized (this) {
+            checkpointSequence = Math.max(checkpointSequence, sequence);
+        }
+        for (long firstSequence : listSegments()) {
+            if (firstSequence < segment) {
+                Files.deleteIfExists(segmentPath(firstSequence));
+            }
+        }
+    }
+
+    // bounds the tail by time, for when events arrive too slowly to reach the interval
+    private void checkpointIfBehind() {
+        synchronized (this) {
+            if (closed || lastSequence == checkpointSequence || checkpointRunning) {
+                return;
+            }
+            checkpointRunning = true;
+        }
+        checkpointInBackground();
+    }
+
+    private void checkpointInBackground() {
+        try {
+            checkpoint();
+        } catch (IOException | RuntimeException e) {
+            // retried once another interval of events has been appended
+        } finally {
+            synchronized (this) {
+                checkpointRunning = false;
+            }
+        }
+    }
+
+    private void sync() {
+        JournalSegment segment;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            segment = active;
+        }
+        // outside the monitor, so appends on the FX thread never wait for the disk
+        segment.force();
+    }
+
+    private void roll(long firstSequence) throws IOException {
+        active.force();
+        active.close();
+        active = JournalSegment.open(segmentPath(firstSequence), firstSequence, segmentSize);
+    }
+
+    private List<Long> listSegments() throws IOException {
+        List<Long> firstSequences = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.map(file -> file.getFileName().toString())
+                    .filter(name -> name.startsWith("segment-") && name.endsWith(".log"))
+                    .forEach(name -> firstSequences.add(Long.parseLong(name.substring(8, name.length() - 4))));
+        }
+        firstSequences.sort(null);
+        return firstSequences;
+    }
+
+    // full-state snapshots, written before checkpoints replaced them
+    private void deleteSnapshots() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String name = file.getFileName().toString();
+                if (name.startsWith("snapshot-") && name.endsWith(".bin")) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    private Path segmentPath(long firstSequence) {
+        return directory.resolve(String.format("segment-%020d.log", firstSequence));
+    }
+
+    @Override
+    public void close() {
+        background.shutdown();
+        try {
+            background.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            checkpoint();
+        } catch (IOException | RuntimeException e) {
+            // the journal itself is intact; the next start replays a longer tail
+        }
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (active == null) {
+                return;
+            }
+            active.force();
+            try {
+                active.close();
+            } catch (IOException e) {
+                throw new IllegalStateException("Unable to close clinic journal", e);
+            }
+        }
+    }
+}
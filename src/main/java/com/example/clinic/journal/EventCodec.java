@@ -0,0 +1,185 @@
+package com.example.clinic.journal;
+
+import com.example.clinic.journal.ClinicEvent.AppointmentCancelled;
+import com.example.clinic.journal.ClinicEvent.AppointmentScheduled;
+import com.example.clinic.journal.ClinicEvent.AppointmentUpdated;
+import com.example.clinic.journal.ClinicEvent.InventoryItemAdded;
+import com.example.clinic.journal.ClinicEvent.InventoryItemAdjusted;
+import com.example.clinic.journal.ClinicEvent.InventoryItemRemoved;
+import com.example.clinic.journal.ClinicEvent.PatientAdmitted;
+import com.example.clinic.journal.ClinicEvent.PatientDischarged;
+import com.example.clinic.journal.ClinicEvent.PatientRoomChanged;
+import com.example.clinic.journal.ClinicEvent.PatientStatusChanged;
+import com.example.clinic.journal.ClinicEvent.PatientUpdated;
+import com.example.clinic.model.Appointment;
+import com.example.clinic.model.InventoryItem;
+import com.example.clinic.model.PatientRecord;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Binary encoding of journal events. Type codes are part of the on-disk
+ * format and must never be renumbered.
+ */
+final class EventCodec {
+    private static final byte PATIENT_ADMITTED = 1;
+    private static final byte PATIENT_UPDATED = 2;
+    private static final byte PATIENT_ROOM_CHANGED = 3;
+    private static final byte PATIENT_STATUS_CHANGED = 4;
+    private static final byte PATIENT_DISCHARGED = 5;
+    private static final byte APPOINTMENT_SCHEDULED = 6;
+    private static final byte APPOINTMENT_UPDATED = 7;
+    private static final byte APPOINTMENT_CANCELLED = 8;
+    private static final byte INVENTORY_ITEM_ADDED = 9;
+    private static final byte INVENTORY_ITEM_ADJUSTED = 10;
+    private static final byte INVENTORY_ITEM_REMOVED = 11;
+    // Appointments written since durations were added; 6 and 7 are read with the default duration.
+    private static final byte APPOINTMENT_SCHEDULED_TIMED = 12;
+    private static final byte APPOINTMENT_UPDATED_TIMED = 13;
+    // Items written since reorder levels were added; 9 and 10 are read with the default level.
+    private static final byte INVENTORY_ITEM_ADDED_LEVELLED = 14;
+    private static final byte INVENTORY_ITEM_ADJUSTED_LEVELLED = 15;
+
+    private EventCodec() {
+        // Utility class
+    }
+
+    static void encode(ClinicEvent event, ByteSink out) {
+        switch (event) {
+            case PatientAdmitted e -> {
+                out.putByte(PATIENT_ADMITTED);
+                writePatient(e.patient(), out);
+            }
+            case PatientUpdated e -> {
+                out.putByte(PATIENT_UPDATED);
+                writePatient(e.patient(), out);
+            }
+            case PatientRoomChanged e -> {
+                out.putByte(PATIENT_ROOM_CHANGED);
+                out.putString(e.patientId());
+                out.putString(e.room());
+            }
+            case PatientStatusChanged e -> {
+                out.putByte(PATIENT_STATUS_CHANGED);
+                out.putString(e.patientId());
+                out.putString(e.status());
+            }
+            case PatientDischarged e -> {
+                out.putByte(PATIENT_DISCHARGED);
+                out.putString(e.patientId());
+            }
+            case AppointmentScheduled e -> {
+                out.putByte(APPOINTMENT_SCHEDULED_TIMED);
+                writeAppointment(e.appointment(), out);
+            }
+            case AppointmentUpdated e -> {
+                out.putByte(APPOINTMENT_UPDATED_TIMED);
+                writeAppointment(e.appointment(), out);
+            }
+            case AppointmentCancelled e -> {
+                out.putByte(APPOINTMENT_CANCELLED);
+                out.putString(e.appointmentId());
+            }
+            case InventoryItemAdded e -> {
+                out.putByte(INVENTORY_ITEM_ADDED_LEVELLED);
+                writeItem(e.item(), out);
+            }
+            case InventoryItemAdjusted e -> {
+                out.putByte(INVENTORY_ITEM_ADJUSTED_LEVELLED);
+                writeItem(e.item(), out);
+            }
+            case InventoryItemRemoved e -> {
+                out.putByte(INVENTORY_ITEM_REMOVED);
+                out.putString(e.itemId());
+            }
+        }
+    }
+
+    static ClinicEvent decode(ByteBuffer in) {
+        byte type = in.get();
+        return switch (type) {
+            case PATIENT_ADMITTED -> new PatientAdmitted(readPatient(in));
+            case PATIENT_UPDATED -> new PatientUpdated(readPatient(in));
+            case PATIENT_ROOM_CHANGED -> new PatientRoomChanged(readString(in), readString(in));
+            case PATIENT_STATUS_CHANGED -> new PatientStatusChanged(readString(in), readString(in));
+            case PATIENT_DISCHARGED -> new PatientDischarged(readString(in));
+            case APPOINTMENT_SCHEDULED -> new AppointmentScheduled(readAppointment(in, false));
+            case APPOINTMENT_UPDATED -> new AppointmentUpdated(readAppointment(in, false));
+            case APPOINTMENT_SCHEDULED_TIMED -> new AppointmentScheduled(readAppointment(in, true));
+            case APPOINTMENT_UPDATED_TIMED -> new AppointmentUpdated(readAppointment(in, true));
+            case APPOINTMENT_CANCELLED -> new AppointmentCancelled(readString(in));
+            case INVENTORY_ITEM_ADDED -> new InventoryItemAdded(readItem(in, false));
+            case INVENTORY_ITEM_ADJUSTED -> new InventoryItemAdjusted(readItem(in, false));
+            case INVENTORY_ITEM_ADDED_LEVELLED -> new InventoryItemAdded(readItem(in, true));
+            case INVENTORY_ITEM_ADJUSTED_LEVELLED -> new InventoryItemAdjusted(readItem(in, true));
+            case INVENTORY_ITEM_REMOVED -> new InventoryItemRemoved(readString(in));
+            default -> throw new IllegalStateException("Unknown journal event type " + type);
+        };
+    }
+
+    private static void writePatient(PatientRecord patient, ByteSink out) {
+        out.putString(patient.getId());
+        out.putString(patient.getName());
+        out.putString(patient.getStatus());
+        out.putString(patient.getRoom());
+    }
+
+    private static PatientRecord readPatient(ByteBuffer in) {
+        return new PatientRecord(readString(in), readString(in), readString(in), readString(in));
+    }
+
+    private static void writeAppointment(Appointment appointment, ByteSink out) {
+        out.putString(appointment.getId());
+        out.putString(appointment.getPatientName());
+        out.putString(appointment.getClinician());
+        LocalDateTime scheduledAt = appointment.getScheduledAt();
+        out.putLong(scheduledAt.toEpochSecond(ZoneOffset.UTC));
+        out.putInt(scheduledAt.getNano());
+        out.putString(appointment.getNotes());
+        out.putInt(appointment.getDurationMinutes());
+    }
+
+    private static Appointment readAppointment(ByteBuffer in, boolean timed) {
+        String id = readString(in);
+        String patientName = readString(in);
+        String clinician = readString(in);
+        long epochSecond = in.getLong();
+        int nano = in.getInt();
+        String notes = readString(in);
+        int duration = timed ? in.getInt() : Appointment.DEFAULT_DURATION_MINUTES;
+        return new Appointment(id, patientName, clinician, LocalDateTime.ofEpochSecond(epochSecond, nano, ZoneOffset.UTC),
+                duration, notes);
+    }
+
+    private static void writeItem(InventoryItem item, ByteSink out) {
+        out.putString(item.getId());
+        out.putString(item.getName());
+        out.putInt(item.getQuantity());
+        out.putLong(Double.doubleToLongBits(item.getPrice()));
+        out.putString(item.getStatus());
+        out.putInt(item.getReorderLevel());
+    }
+
+    private static InventoryItem readItem(ByteBuffer in, boolean levelled) {
+        String id = readString(in);
+        String name = readString(in);
+        int quantity = in.getInt();
+        double price = Double.longBitsToDouble(in.getLong());
+        String status = readString(in);
+        int reorderLevel = levelled ? in.getInt() : InventoryItem.DEFAULT_REORDER_LEVEL;
+        return new InventoryItem(id, name, quantity, price, status, reorderLevel);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.clinic.journal;
+
+/**
+ * Where journaled events are made durable. {@link ClinicJournal#recover} replays into it, and each
+ * checkpoint flushes it first, so everything queued before the checkpoint is on disk.
+ */
+public interface EventStore {
+    void apply(ClinicEvent event);
+
+    /**
+     * Blocks until every change queued so far, including those from {@link #apply}, is durable.
+     */
+    void flush();
+}
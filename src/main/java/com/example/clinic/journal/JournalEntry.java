@@ -0,0 +1,4 @@
+package com.example.clinic.journal;
+
+public record JournalEntry(long sequence, long timestamp, ClinicEvent event) {
+}
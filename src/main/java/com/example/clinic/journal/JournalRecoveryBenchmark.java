@@ -0,0 +1,122 @@
+package com.example.clinic.journal;
+
+import com.example.clinic.data.ClinicDatabase;
+import com.example.clinic.data.ClinicEventStore;
+import com.example.clinic.data.ConnectionPool;
+import com.example.clinic.data.StorageProfile;
+import com.example.clinic.model.PatientRecord;
+import com.example.clinic.stats.ClinicStatistics;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Writes patient admissions, status changes and room changes to a scratch clinic.db through its
+ * write-behind queues, journaling each one, then reopens both and reports how long
+ * {@link ClinicJournal#recover} takes. The journal is either closed cleanly, or abandoned with the
+ * last checkpoint one default interval or the whole run behind and the writes after it dropped,
+ * as after a crash. Run with
+ * {@code java -cp target/classes com.example.clinic.journal.JournalRecoveryBenchmark 1000000 50000}
+ * for a million events over fifty thousand patients.
+ */
+public final class JournalRecoveryBenchmark {
+    private JournalRecoveryBenchmark() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        int events = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int patients = args.length > 1 ? Integer.parseInt(args[1]) : 50_000;
+        for (int round = 0; round < 2; round++) {
+            // the first round warms up the JIT; only the second is representative
+            run("clean close", events, patients, 0);
+            run("crash, one interval", events, patients, ClinicJournal.DEFAULT_CHECKPOINT_INTERVAL);
+            run("crash, no checkpoint", events, patients, events);
+        }
+    }
+
+    private static void run(String label, int events, int patients, int tail) throws IOException {
+        Path directory = Files.createTempDirectory("journal-benchmark");
+        try {
+            ClinicDatabase database = open(directory);
+            // checkpoints are taken by hand here, so the background ones never start
+            ClinicJournal journal = new ClinicJournal(directory, ClinicJournal.DEFAULT_SEGMENT_SIZE, Integer.MAX_VALUE, 0);
+            journal.recover(new ClinicEventStore(database));
+            PatientRecord[] records = new PatientRecord[patients];
+            for (int i = 0; i < events; i++) {
+                if (i == events - tail) {
+                    journal.checkpoint();
+                }
+                // after a crash, writes still queued behind the checkpoint never reach the database
+                boolean lost = i >= events - tail;
+                int p = i % patients;
+                PatientRecord current = records[p];
+                if (current == null) {
+                    records[p] = new PatientRecord(String.format("PAT-%06d", p), "Patient " + p, "Admitted", "Room 100");
+                    if (!lost) {
+                        database.patientWrites().save(records[p]);
+                    }
+                    journal.append(new ClinicEvent.PatientAdmitted(records[p]));
+                } else if (i % 2 == 0) {
+                    String status = "Status " + i;
+                    records[p] = new PatientRecord(current.getId(), current.getName(), status, current.getRoom());
+                    if (!lost) {
+                        database.patientWrites().save(records[p]);
+                    }
+                    journal.append(new ClinicEvent.PatientStatusChanged(current.getId(), status));
+                } else {
+                    String room = "Room " + (100 + i % 400);
+                    records[p] = new PatientRecord(current.getId(), current.getName(), current.getStatus(), room);
+                    if (!lost) {
+                        database.patientWrites().save(records[p]);
+                    }
+                    journal.append(new ClinicEvent.PatientRoomChanged(current.getId(), room));
+                }
+            }
+            if (tail == 0) {
+                journal.close();
+            }
+            // an abandoned journal is left open, with its tail past the checkpoint
+            database.close();
+
+            long start = System.nanoTime();
+            try (ClinicDatabase reopened = open(directory);
+                 ClinicJournal recovered = new ClinicJournal(directory, ClinicJournal.DEFAULT_SEGMENT_SIZE,
+                         ClinicJournal.DEFAULT_CHECKPOINT_INTERVAL)) {
+                recovered.recover(new ClinicEventStore(reopened));
+                double millis = (System.nanoTime() - start) / 1e6;
+                System.out.printf("%-22s %,10d events %,10d replayed %,10.1f ms restart, %,d patients differ%n",
+                        label, events, recovered.getReplayedEvents(), millis, mismatches(reopened, records));
+            }
+        } finally {
+            try (var files = Files.list(directory)) {
+                for (Path file : (Iterable<Path>) files::iterator) {
+                    Files.deleteIfExists(file);
+                }
+            }
+            Files.deleteIfExists(directory);
+        }
+    }
+
+    // PatientRecord.equals compares ids only, so each field the journal carries is checked by hand
+    private static int mismatches(ClinicDatabase database, PatientRecord[] expected) {
+        int differ = 0;
+        for (PatientRecord record : expected) {
+            if (record == null) {
+                continue;
+            }
+            PatientRecord actual = database.patients().findById(record.getId()).orElse(null);
+            if (actual == null || !record.getName().equals(actual.getName())
+                    || !record.getStatus().equals(actual.getStatus()) || !record.getRoom().equals(actual.getRoom())
+                    || !ClinicStatistics.wardOf(record).equals(ClinicStatistics.wardOf(actual))) {
+                differ++;
+            }
+        }
+        return differ;
+    }
+
+    private static ClinicDatabase open(Path directory) {
+        return new ClinicDatabase(directory.resolve("clinic.db"), ConnectionPool.DEFAULT_MAX_CONNECTIONS,
+                StorageProfile.fromSystemProperty());
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.clinic.journal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * One fixed-size, memory-mapped journal file. Records are laid out as
+ * {@code [length][crc32][sequence][timestamp][payload]}; the length is written last, and the
+ * zero-filled remainder of the file marks the end, so a record is either fully visible or not at
+ * all. A record whose checksum does not match is treated as a torn write and ends the segment.
+ */
+final class JournalSegment implements Closeable {
+    static final int HEADER_SIZE = 4 + 4 + 8 + 8;
+
+    private final long firstSequence;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final ByteBuffer checksumView;
+    private final CRC32 crc = new CRC32();
+    private int position;
+    private long lastSequence;
+
+    private JournalSegment(long firstSequence, FileChannel channel, MappedByteBuffer buffer) {
+        this.firstSequence = firstSequence;
+        this.channel = channel;
+        this.buffer = buffer;
+        this.checksumView = buffer.duplicate();
+        this.lastSequence = firstSequence - 1;
+    }
+
+    static JournalSegment open(Path path, long firstSequence, int size) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            long mappedSize = Math.max(size, channel.size());
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, mappedSize);
+            return new JournalSegment(firstSequence, channel, buffer);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    long getFirstSequence() {
+        return firstSequence;
+    }
+
+    int getPosition() {
+        return position;
+    }
+
+    long getLastSequence() {
+        return lastSequence;
+    }
+
+    /**
+     * Reads every intact record, hands those after {@code afterSequence} to the consumer and
+     * leaves the segment positioned for appending behind the last one. Records already covered by
+     * a checkpoint were complete before that checkpoint was written, so only their sequence numbers
+     * are checked, not their checksums. When the checkpoint recorded where in this segment it was
+     * taken, scanning starts there.
+     */
+    void recover(long afterSequence, int startOffset, Consumer<JournalEntry> consumer) {
+        int offset = 0;
+        if (startOffset > 0 && startOffset + HEADER_SIZE <= buffer.capacity()
+                && (buffer.getInt(startOffset) == 0 || buffer.getLong(startOffset + 8) == afterSequence + 1)) {
+            offset = startOffset;
+            lastSequence = afterSequence;
+        }
+        while (true) {
+            long expected = lastSequence + 1;
+            int length = recordLength(offset, expected <= afterSequence);
+            if (length < 0) {
+                break;
+            }
+            long sequence = buffer.getLong(offset + 8);
+            if (sequence != expected) {
+                break;
+            }
+            if (sequence > afterSequence) {
+                long timestamp = buffer.getLong(offset + 16);
+                consumer.accept(new JournalEntry(sequence, timestamp,
+                        EventCodec.decode(buffer.slice(offset + HEADER_SIZE, length))));
+            }
+            lastSequence = sequence;
+            offset += HEADER_SIZE + length;
+        }
+        position = offset;
+        if (position + 4 <= buffer.capacity() && buffer.getInt(position) != 0) {
+            // Torn tail from a crash mid-append: clear it so it can never be mistaken for a record.
+            for (int i = position; i < buffer.capacity(); i++) {
+                buffer.put(i, (byte) 0);
+            }
+        }
+    }
+
+    boolean append(long sequence, long timestamp, ByteSink payload) {
+        int length = payload.size();
+        if (position + HEADER_SIZE + length + 4 > buffer.capacity()) {
+            return false;
+        }
+        buffer.putLong(position + 8, sequence);
+        buffer.putLong(position + 16, timestamp);
+        buffer.put(position + HEADER_SIZE, payload.array(), 0, length);
+        buffer.putInt(position + 4, checksum(position, length));
+        buffer.putInt(position, length);
+        position += HEADER_SIZE + length;
+        lastSequence = sequence;
+        return true;
+    }
+
+    boolean isEmpty() {
+        return position == 0;
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    private int recordLength(int offset, boolean trusted) {
+        if (offset + HEADER_SIZE > buffer.capacity()) {
+            return -1;
+        }
+        int length = buffer.getInt(offset);
+        if (length <= 0 || offset + HEADER_SIZE + length > buffer.capacity()) {
+            return -1;
+        }
+        if (!trusted && checksum(offset, length) != buffer.getInt(offset + 4)) {
+            return -1;
+        }
+        return length;
+    }
+
+    private int checksum(int offset, int length) {
+        checksumView.limit(offset + HEADER_SIZE + length).position(offset + 8);
+        crc.reset();
+        crc.update(checksumView);
+        return (int) crc.getValue();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
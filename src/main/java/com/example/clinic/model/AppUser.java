@@ -1,66 +1,95 @@
 package com.example.clinic.model;
 
-import java.nio.charset.StandardCharsets;
-import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
-import java.security.spec.InvalidKeySpecException;
+import java.util.Arrays;
 import java.util.Base64;
-import java.util.Objects;
 import java.util.UUID;
-import javax.crypto.SecretKeyFactory;
-import javax.crypto.spec.PBEKeySpec;
 
 public final class AppUser {
     private static final SecureRandom RANDOM = new SecureRandom();
-    private static final int ITERATIONS = 65_536;
-    private static final int KEY_LENGTH = 256;
 
     private final UUID id;
     private final String username;
     private final String role;
     private final String passwordHash;
     private final byte[] salt;
+    private final PasswordScheme scheme;
+    private final byte[] hashBytes;
 
-    private AppUser(UUID id, String username, String role, String passwordHash, byte[] salt) {
+    private AppUser(UUID id, String username, String role, String passwordHash, byte[] salt, PasswordScheme scheme) {
         this.id = id;
         this.username = username;
         this.role = role;
         this.passwordHash = passwordHash;
         this.salt = salt.clone();
+        this.scheme = scheme;
+        this.hashBytes = decodeHash(passwordHash);
     }
 
     public static AppUser withPassword(String username, String role, String plainPassword) {
+        return withPassword(username, role, plainPassword, PasswordScheme.current());
+    }
+
+    public static AppUser withPassword(String username, String role, String plainPassword, PasswordScheme scheme) {
         byte[] salt = new byte[16];
         RANDOM.nextBytes(salt);
-        String hash = hashPassword(plainPassword, salt);
-        return new AppUser(UUID.randomUUID(), username, role, hash, salt);
+        String hash = hashPassword(plainPassword, salt, scheme);
+        return new AppUser(UUID.randomUUID(), username, role, hash, salt, scheme);
     }
 
     public static AppUser fromStorage(UUID id, String username, String role, String passwordHash, byte[] salt) {
-        return new AppUser(id, username, role, passwordHash, salt);
+        return fromStorage(id, username, role, passwordHash, salt, PasswordScheme.LEGACY);
+    }
+
+    public static AppUser fromStorage(UUID id, String username, String role, String passwordHash, byte[] salt,
+                                      PasswordScheme scheme) {
+        return new AppUser(id, username, role, passwordHash, salt, scheme);
     }
 
     public AppUser withNewPassword(String plainPassword) {
         byte[] newSalt = new byte[16];
         RANDOM.nextBytes(newSalt);
-        String newHash = hashPassword(plainPassword, newSalt);
-        return new AppUser(id, username, role, newHash, newSalt);
+        PasswordScheme newScheme = PasswordScheme.current();
+        String newHash = hashPassword(plainPassword, newSalt, newScheme);
+        return new AppUser(id, username, role, newHash, newSalt, newScheme);
     }
 
-    private static String hashPassword(String password, byte[] salt) {
+    public boolean needsRehash() {
+        return !scheme.equals(PasswordScheme.current());
+    }
+
+    private static String hashPassword(String password, byte[] salt, PasswordScheme scheme) {
+        char[] chars = password.toCharArray();
+        byte[] derived = null;
         try {
-            PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, ITERATIONS, KEY_LENGTH);
-            SecretKeyFactory skf = SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256");
-            byte[] encoded = skf.generateSecret(spec).getEncoded();
-            return Base64.getEncoder().encodeToString(encoded);
-        } catch (NoSuchAlgorithmException | InvalidKeySpecException e) {
-            throw new IllegalStateException("Unable to hash password", e);
+            derived = scheme.derive(chars, salt);
+            return Base64.getEncoder().encodeToString(derived);
+        } finally {
+            Arrays.fill(chars, '\0');
+            if (derived != null) {
+                Arrays.fill(derived, (byte) 0);
+            }
+        }
+    }
+
+    private static byte[] decodeHash(String passwordHash) {
+        try {
+            return Base64.getDecoder().decode(passwordHash);
+        } catch (IllegalArgumentException e) {
+            return null;
         }
     }
 
     public boolean matches(String candidate) {
-        String candidateHash = hashPassword(candidate, salt);
-        return Objects.equals(passwordHash, candidateHash);
+        if (hashBytes == null || candidate == null) {
+            return false;
+        }
+        char[] chars = candidate.toCharArray();
+        try {
+            return scheme.verify(chars, salt, hashBytes);
+        } finally {
+            Arrays.fill(chars, '\0');
+        }
     }
 
     public UUID getId() {
@@ -82,4 +111,8 @@ public final class AppUser {
     public byte[] getSalt() {
         return salt.clone();
     }
+
+    public PasswordScheme getScheme() {
+        return scheme;
+    }
 }
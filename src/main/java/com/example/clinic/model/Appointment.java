@@ -4,17 +4,29 @@ import java.time.LocalDateTime;
 import java.util.Objects;
 
 public final class Appointment {
+    public static final int DEFAULT_DURATION_MINUTES = 30;
+
     private final String id;
     private final String patientName;
     private final String clinician;
     private final LocalDateTime scheduledAt;
+    private final int durationMinutes;
     private final String notes;
 
     public Appointment(String id, String patientName, String clinician, LocalDateTime scheduledAt, String notes) {
+        this(id, patientName, clinician, scheduledAt, DEFAULT_DURATION_MINUTES, notes);
+    }
+
+    public Appointment(String id, String patientName, String clinician, LocalDateTime scheduledAt, int durationMinutes,
+                       String notes) {
+        if (durationMinutes < 1) {
+            throw new IllegalArgumentException("Appointment duration must be at least one minute");
+        }
         this.id = id;
         this.patientName = patientName;
         this.clinician = clinician;
         this.scheduledAt = scheduledAt;
+        this.durationMinutes = durationMinutes;
         this.notes = notes;
     }
 
@@ -34,6 +46,14 @@ public final class Appointment {
         return scheduledAt;
     }
 
+    public int getDurationMinutes() {
+        return durationMinutes;
+    }
+
+    public LocalDateTime getEndsAt() {
+        return scheduledAt.plusMinutes(durationMinutes);
+    }
+
     public String getNotes() {
         return notes;
     }
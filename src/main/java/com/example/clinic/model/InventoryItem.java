@@ -1,18 +1,31 @@
 package com.example.clinic.model;
 
+import java.util.Objects;
+
 public final class InventoryItem {
+    public static final int DEFAULT_REORDER_LEVEL = 100;
+
     private final String id;
     private final String name;
     private final int quantity;
     private final double price;
     private final String status;
+    private final int reorderLevel;
 
     public InventoryItem(String id, String name, int quantity, double price, String status) {
+        this(id, name, quantity, price, status, DEFAULT_REORDER_LEVEL);
+    }
+
+    public InventoryItem(String id, String name, int quantity, double price, String status, int reorderLevel) {
+        if (reorderLevel < 0) {
+            throw new IllegalArgumentException("Reorder level cannot be negative");
+        }
         this.id = id;
         this.name = name;
         this.quantity = quantity;
         this.price = price;
         this.status = status;
+        this.reorderLevel = reorderLevel;
     }
 
     public String getId() {
@@ -34,4 +47,28 @@ public final class InventoryItem {
     public String getStatus() {
         return status;
     }
+
+    public int getReorderLevel() {
+        return reorderLevel;
+    }
+
+    /**
+     * Whether stock has fallen to the reorder level, the point at which it should be reordered.
+     */
+    public boolean isAtOrBelowReorderLevel() {
+        return quantity <= reorderLevel;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof InventoryItem)) return false;
+        InventoryItem that = (InventoryItem) o;
+        return Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
 }
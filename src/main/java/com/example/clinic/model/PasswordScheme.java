@@ -0,0 +1,94 @@
+package com.example.clinic.model;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.spec.InvalidKeySpecException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+
+/**
+ * The parameters that produced a stored password hash. Stored next to the hash so the cost can
+ * be raised without invalidating existing accounts; users on an older scheme are re-hashed the
+ * next time they log in.
+ */
+public record PasswordScheme(String algorithm, int iterations, int keyLength) {
+    public static final String PBKDF2_SHA256 = "PBKDF2WithHmacSHA256";
+    public static final String ITERATIONS_PROPERTY = "clinic.password.iterations";
+    public static final PasswordScheme LEGACY = new PasswordScheme(PBKDF2_SHA256, 65_536, 256);
+
+    private static final ThreadLocal<Map<String, SecretKeyFactory>> FACTORIES = ThreadLocal.withInitial(HashMap::new);
+    private static volatile PasswordScheme current = fromSystemProperty();
+
+    public PasswordScheme {
+        if (iterations < 1 || keyLength < 8 || keyLength % 8 != 0) {
+            throw new IllegalArgumentException("Invalid password scheme " + algorithm + ":" + iterations + ":" + keyLength);
+        }
+    }
+
+    public static PasswordScheme current() {
+        return current;
+    }
+
+    public static void configure(PasswordScheme scheme) {
+        current = scheme;
+    }
+
+    public static PasswordScheme withIterations(int iterations) {
+        return new PasswordScheme(PBKDF2_SHA256, iterations, LEGACY.keyLength());
+    }
+
+    public static PasswordScheme parse(String value) {
+        String[] parts = value.split(":");
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("Invalid password scheme " + value);
+        }
+        return new PasswordScheme(parts[0], Integer.parseInt(parts[1]), Integer.parseInt(parts[2]));
+    }
+
+    private static PasswordScheme fromSystemProperty() {
+        String value = System.getProperty(ITERATIONS_PROPERTY);
+        if (value == null || value.isBlank()) {
+            return LEGACY;
+        }
+        return withIterations(Integer.parseInt(value.trim()));
+    }
+
+    byte[] derive(char[] password, byte[] salt) {
+        PBEKeySpec spec = new PBEKeySpec(password, salt, iterations, keyLength);
+        try {
+            return factory().generateSecret(spec).getEncoded();
+        } catch (InvalidKeySpecException e) {
+            throw new IllegalStateException("Unable to hash password", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+
+    boolean verify(char[] password, byte[] salt, byte[] expected) {
+        byte[] derived = derive(password, salt);
+        try {
+            return MessageDigest.isEqual(expected, derived);
+        } finally {
+            Arrays.fill(derived, (byte) 0);
+        }
+    }
+
+    // looking the provider up on every call is slow, so each thread keeps the factories it has used
+    private SecretKeyFactory factory() {
+        return FACTORIES.get().computeIfAbsent(algorithm, name -> {
+            try {
+                return SecretKeyFactory.getInstance(name);
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("Unable to hash password", e);
+            }
+        });
+    }
+
+    @Override
+    public String toString() {
+        return algorithm + ":" + iterations + ":" + keyLength;
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.clinic.model;
+
+import com.sun.management.ThreadMXBean;
+
+import java.lang.management.ManagementFactory;
+import java.security.GeneralSecurityException;
+import java.util.Base64;
+import java.util.Objects;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+
+/**
+ * Times {@link AppUser#matches} against the verify it replaced, which looked the factory up on
+ * every call and compared Base64 strings, and reports nanoseconds and bytes allocated per verify.
+ * Run with
+ * {@code java -cp target/classes com.example.clinic.model.PasswordVerifyBenchmark 65536 50}.
+ */
+public final class PasswordVerifyBenchmark {
+    private PasswordVerifyBenchmark() {
+    }
+
+    public static void main(String[] args) throws GeneralSecurityException {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : PasswordScheme.LEGACY.iterations();
+        int verifies = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+        PasswordScheme scheme = PasswordScheme.withIterations(iterations);
+        AppUser user = AppUser.withPassword("BENCHMARK", "None", "benchmark-password", scheme);
+        byte[] salt = user.getSalt();
+        ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        for (int round = 0; round < 2; round++) {
+            // the first round warms up the JIT; only the second is representative
+            long bytes = threads.getCurrentThreadAllocatedBytes();
+            long start = System.nanoTime();
+            for (int i = 0; i < verifies; i++) {
+                if (!lookupPerCall("benchmark-password", salt, scheme, user.getPasswordHash())) {
+                    throw new IllegalStateException("Lookup-per-call verify rejected the password");
+                }
+            }
+            report("factory per call", verifies, System.nanoTime() - start,
+                    threads.getCurrentThreadAllocatedBytes() - bytes);
+
+            bytes = threads.getCurrentThreadAllocatedBytes();
+            start = System.nanoTime();
+            for (int i = 0; i < verifies; i++) {
+                if (!user.matches("benchmark-password")) {
+                    throw new IllegalStateException("AppUser.matches rejected the password");
+                }
+            }
+            report("cached factory", verifies, System.nanoTime() - start,
+                    threads.getCurrentThreadAllocatedBytes() - bytes);
+        }
+    }
+
+    private static boolean lookupPerCall(String password, byte[] salt, PasswordScheme scheme, String storedHash)
+            throws GeneralSecurityException {
+        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, scheme.iterations(), scheme.keyLength());
+        byte[] derived = SecretKeyFactory.getInstance(scheme.algorithm()).generateSecret(spec).getEncoded();
+        return Objects.equals(Base64.getEncoder().encodeToString(derived), storedHash);
+    }
+
+    private static void report(String label, int verifies, long nanos, long bytes) {
+        System.out.printf("%-18s %,8d verifies %10.2f ms/verify %,12d bytes/verify%n", label, verifies,
+                nanos / 1e6 / verifies, bytes / verifies);
+    }
+}
@@ -1,16 +1,24 @@
 package com.example.clinic.model;
 
+import java.util.Objects;
+
 public final class PatientRecord {
+    private final String id;
     private final String name;
     private final String status;
     private final String room;
 
-    public PatientRecord(String name, String status, String room) {
+    public PatientRecord(String id, String name, String status, String room) {
+        this.id = id;
         this.name = name;
         this.status = status;
         this.room = room;
     }
 
+    public String getId() {
+        return id;
+    }
+
     public String getName() {
         return name;
     }
@@ -22,4 +30,17 @@ public final class PatientRecord {
     public String getRoom() {
         return room;
     }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof PatientRecord)) return false;
+        PatientRecord that = (PatientRecord) o;
+        return Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
 }
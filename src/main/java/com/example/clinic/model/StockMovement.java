@@ -0,0 +1,72 @@
+package com.example.clinic.model;
+
+import java.util.Objects;
+
+/**
+ * One ledger line for an inventory item. Ids are the item id and a zero-padded per-item sequence,
+ * so sorting by id lists each item's movements together and in order.
+ */
+public final class StockMovement {
+    public enum Kind {
+        RECEIPT,
+        CONSUMPTION,
+        ADJUSTMENT
+    }
+
+    private final String id;
+    private final String itemId;
+    private final long recordedAt;
+    private final Kind kind;
+    private final int delta;
+    private final int balance;
+
+    public StockMovement(String id, String itemId, long recordedAt, Kind kind, int delta, int balance) {
+        this.id = id;
+        this.itemId = itemId;
+        this.recordedAt = recordedAt;
+        this.kind = kind;
+        this.delta = delta;
+        this.balance = balance;
+    }
+
+    public static String idFor(String itemId, int sequence) {
+        return String.format("%s/%010d", itemId, sequence);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getItemId() {
+        return itemId;
+    }
+
+    public long getRecordedAt() {
+        return recordedAt;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public int getDelta() {
+        return delta;
+    }
+
+    public int getBalance() {
+        return balance;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof StockMovement)) return false;
+        StockMovement that = (StockMovement) o;
+        return Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+}
@@ -0,0 +1,219 @@
+package com.example.clinic.schedule;
+
+import com.example.clinic.model.Appointment;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Appointments bucketed by day, and within a day by clinician, each bucket a start-sorted array.
+ * A day, week or month is a sub-map of the day index, so range scans and counts touch only the
+ * buckets in range and paging skips whole days by their counts. Edits move a single appointment
+ * between buckets.
+ */
+public final class AppointmentCalendar {
+    private static final Comparator<Appointment> BY_START = Comparator.comparing(Appointment::getScheduledAt)
+            .thenComparing(Appointment::getId);
+
+    private final NavigableMap<Long, DayBucket> days = new TreeMap<>();
+    private final Map<String, Appointment> byId = new HashMap<>();
+
+    /**
+     * Adds the appointment, moving it if an earlier version with the same id was on another day.
+     */
+    public synchronized void put(Appointment appointment) {
+        remove(appointment.getId());
+        byId.put(appointment.getId(), appointment);
+        days.computeIfAbsent(dayOf(appointment), day -> new DayBucket()).add(appointment);
+    }
+
+    public synchronized boolean remove(String appointmentId) {
+        Appointment existing = byId.remove(appointmentId);
+        if (existing == null) {
+            return false;
+        }
+        long day = dayOf(existing);
+        DayBucket bucket = days.get(day);
+        if (bucket != null && bucket.remove(existing) && bucket.size == 0) {
+            days.remove(day);
+        }
+        return true;
+    }
+
+    public synchronized int size() {
+        return byId.size();
+    }
+
+    /**
+     * Number of appointments from {@code from} up to but excluding {@code until}, for one
+     * clinician or, when {@code clinician} is blank, for everyone.
+     */
+    public synchronized int count(LocalDate from, LocalDate until, String clinician) {
+        String key = key(clinician);
+        int count = 0;
+        for (DayBucket bucket : range(from, until).values()) {
+            count += bucket.count(key);
+        }
+        return count;
+    }
+
+    /**
+     * One page of the appointments in {@code [from, until)}, ordered by start time.
+     */
+    public synchronized List<Appointment> page(LocalDate from, LocalDate until, String clinician, int offset,
+                                               int limit) {
+        String key = key(clinician);
+        List<Appointment> page = new ArrayList<>(Math.min(limit, 256));
+        int skip = offset;
+        for (DayBucket bucket : range(from, until).values()) {
+            if (page.size() >= limit) {
+                break;
+            }
+            int available = bucket.count(key);
+            if (skip >= available) {
+                skip -= available;
+                continue;
+            }
+            List<Appointment> day = bucket.ordered(key);
+            int end = Math.min(day.size(), skip + limit - page.size());
+            page.addAll(day.subList(skip, end));
+            skip = 0;
+        }
+        return page;
+    }
+
+    private NavigableMap<Long, DayBucket> range(LocalDate from, LocalDate until) {
+        long start = from.toEpochDay();
+        long end = until.toEpochDay();
+        return end <= start ? new TreeMap<>() : days.subMap(start, true, end, false);
+    }
+
+    private static long dayOf(Appointment appointment) {
+        return appointment.getScheduledAt().toLocalDate().toEpochDay();
+    }
+
+    private static String key(String clinician) {
+        return clinician == null ? "" : clinician.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static final class DayBucket {
+        private final Map<String, Slots> byClinician = new HashMap<>();
+        private int size;
+        private List<Appointment> merged;
+
+        private void add(Appointment appointment) {
+            byClinician.computeIfAbsent(key(appointment.getClinician()), k -> new Slots()).add(appointment);
+            size++;
+            merged = null;
+        }
+
+        private boolean remove(Appointment appointment) {
+            String key = key(appointment.getClinician());
+            Slots slots = byClinician.get(key);
+            if (slots == null || !slots.remove(appointment)) {
+                return false;
+            }
+            if (slots.size == 0) {
+                byClinician.remove(key);
+            }
+            size--;
+            merged = null;
+            return true;
+        }
+
+        private int count(String clinician) {
+            if (clinician.isEmpty()) {
+                return size;
+            }
+            Slots slots = byClinician.get(clinician);
+            return slots == null ? 0 : slots.size;
+        }
+
+        private List<Appointment> ordered(String clinician) {
+            if (!clinician.isEmpty()) {
+                Slots slots = byClinician.get(clinician);
+                return slots == null ? List.of() : slots.asList();
+            }
+            if (merged == null) {
+                // kept until the day changes, so paging through a busy day sorts it once
+                List<Appointment> all = new ArrayList<>(size);
+                for (Slots slots : byClinician.values()) {
+                    all.addAll(slots.asList());
+                }
+                all.sort(BY_START);
+                merged = all;
+            }
+            return merged;
+        }
+    }
+
+    /**
+     * One clinician's appointments on one day, kept sorted by start so inserts and removals are a
+     * binary search and an array shift.
+     */
+    private static final class Slots {
+        private long[] starts = new long[4];
+        private Appointment[] items = new Appointment[4];
+        private int size;
+
+        private void add(Appointment appointment) {
+            if (size == items.length) {
+                starts = Arrays.copyOf(starts, size * 2);
+                items = Arrays.copyOf(items, size * 2);
+            }
+            int index = -search(appointment) - 1;
+            System.arraycopy(starts, index, starts, index + 1, size - index);
+            System.arraycopy(items, index, items, index + 1, size - index);
+            starts[index] = seconds(appointment);
+            items[index] = appointment;
+            size++;
+        }
+
+        private boolean remove(Appointment appointment) {
+            int index = search(appointment);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(starts, index + 1, starts, index, size - index - 1);
+            System.arraycopy(items, index + 1, items, index, size - index - 1);
+            items[--size] = null;
+            return true;
+        }
+
+        private int search(Appointment appointment) {
+            long start = seconds(appointment);
+            int low = 0;
+            int high = size - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int order = starts[mid] != start ? Long.compare(starts[mid], start)
+                        : items[mid].getId().compareTo(appointment.getId());
+                if (order < 0) {
+                    low = mid + 1;
+                } else if (order > 0) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(low + 1);
+        }
+
+        private List<Appointment> asList() {
+            return Arrays.asList(items).subList(0, size);
+        }
+
+        private static long seconds(Appointment appointment) {
+            return appointment.getScheduledAt().toEpochSecond(ZoneOffset.UTC);
+        }
+    }
+}
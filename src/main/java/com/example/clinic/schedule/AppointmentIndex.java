@@ -0,0 +1,170 @@
+package com.example.clinic.schedule;
+
+import com.example.clinic.model.Appointment;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * In-memory index of booked time per clinician and per patient, one interval tree each, so
+ * double-booking checks and free-slot searches stay O(log n + k) however many appointments the
+ * clinic holds. Appointments occupy {@code [scheduledAt, scheduledAt + duration)}; names are
+ * matched case-insensitively.
+ */
+public final class AppointmentIndex {
+    private final Map<String, Booking> bookings = new HashMap<>();
+    private final Map<String, IntervalTree> byClinician = new HashMap<>();
+    private final Map<String, IntervalTree> byPatient = new HashMap<>();
+
+    /**
+     * Adds the appointment, replacing any earlier booking with the same id.
+     */
+    public synchronized void put(Appointment appointment) {
+        remove(appointment.getId());
+        Booking booking = new Booking(appointment.getId(), appointment.getClinician(), appointment.getPatientName(),
+                appointment.getScheduledAt(), appointment.getEndsAt());
+        long start = seconds(booking.start());
+        long end = seconds(booking.end());
+        bookings.put(booking.appointmentId(), booking);
+        byClinician.computeIfAbsent(key(booking.clinician()), k -> new IntervalTree()).insert(start, end, booking);
+        byPatient.computeIfAbsent(key(booking.patientName()), k -> new IntervalTree()).insert(start, end, booking);
+    }
+
+    public synchronized boolean remove(String appointmentId) {
+        Booking booking = bookings.remove(appointmentId);
+        if (booking == null) {
+            return false;
+        }
+        long start = seconds(booking.start());
+        removeFrom(byClinician, key(booking.clinician()), start, appointmentId);
+        removeFrom(byPatient, key(booking.patientName()), start, appointmentId);
+        return true;
+    }
+
+    public synchronized int size() {
+        return bookings.size();
+    }
+
+    public synchronized List<Booking> clinicianBookings(String clinician, LocalDateTime from, LocalDateTime to) {
+        return overlapping(byClinician.get(key(clinician)), seconds(from), seconds(to), null);
+    }
+
+    public synchronized List<Booking> patientBookings(String patientName, LocalDateTime from, LocalDateTime to) {
+        return overlapping(byPatient.get(key(patientName)), seconds(from), seconds(to), null);
+    }
+
+    /**
+     * Bookings that would overlap the appointment for its clinician or its patient, ignoring the
+     * appointment's own earlier version.
+     */
+    public synchronized List<Booking> conflicts(Appointment appointment) {
+        long start = seconds(appointment.getScheduledAt());
+        long end = seconds(appointment.getEndsAt());
+        List<Booking> conflicts = overlapping(byClinician.get(key(appointment.getClinician())), start, end,
+                appointment.getId());
+        for (Booking booking : overlapping(byPatient.get(key(appointment.getPatientName())), start, end,
+                appointment.getId())) {
+            if (!conflicts.contains(booking)) {
+                conflicts.add(booking);
+            }
+        }
+        return conflicts;
+    }
+
+    /**
+     * Gaps of at least {@code minimum} in the clinician's bookings between {@code from} and
+     * {@code to}.
+     */
+    public synchronized List<TimeSlot> freeSlots(String clinician, LocalDateTime from, LocalDateTime to,
+                                                 Duration minimum) {
+        long rangeEnd = seconds(to);
+        long minimumSeconds = minimum.toSeconds();
+        List<TimeSlot> slots = new ArrayList<>();
+        long[] cursor = {seconds(from)};
+        IntervalTree tree = byClinician.get(key(clinician));
+        if (tree != null) {
+            tree.overlapping(cursor[0], rangeEnd, (start, end, booking) -> {
+                if (start - cursor[0] >= minimumSeconds) {
+                    slots.add(new TimeSlot(time(cursor[0]), time(start)));
+                }
+                cursor[0] = Math.max(cursor[0], end);
+            });
+        }
+        if (rangeEnd - cursor[0] >= minimumSeconds) {
+            slots.add(new TimeSlot(time(cursor[0]), to));
+        }
+        return slots;
+    }
+
+    /**
+     * Earliest start at or after {@code from}, and before {@code from + horizon}, at which both the
+     * appointment's clinician and patient are free for its whole duration.
+     */
+    public synchronized Optional<LocalDateTime> nextAvailable(Appointment appointment, LocalDateTime from,
+                                                              Duration horizon) {
+        long length = appointment.getDurationMinutes() * 60L;
+        long candidate = seconds(from);
+        long limit = candidate + horizon.toSeconds();
+        IntervalTree clinicianTree = byClinician.get(key(appointment.getClinician()));
+        IntervalTree patientTree = byPatient.get(key(appointment.getPatientName()));
+        while (candidate < limit) {
+            long latestEnd = Math.max(latestEnd(clinicianTree, candidate, length, appointment.getId()),
+                    latestEnd(patientTree, candidate, length, appointment.getId()));
+            if (latestEnd <= candidate) {
+                return Optional.of(time(candidate));
+            }
+            candidate = latestEnd;
+        }
+        return Optional.empty();
+    }
+
+    private static long latestEnd(IntervalTree tree, long start, long length, String excludedId) {
+        long[] latest = {start};
+        if (tree != null) {
+            tree.overlapping(start, start + length, (s, end, booking) -> {
+                if (!booking.appointmentId().equals(excludedId)) {
+                    latest[0] = Math.max(latest[0], end);
+                }
+            });
+        }
+        return latest[0];
+    }
+
+    private static List<Booking> overlapping(IntervalTree tree, long from, long to, String excludedId) {
+        List<Booking> found = new ArrayList<>();
+        if (tree != null) {
+            tree.overlapping(from, to, (start, end, booking) -> {
+                if (!booking.appointmentId().equals(excludedId)) {
+                    found.add(booking);
+                }
+            });
+        }
+        return found;
+    }
+
+    private static void removeFrom(Map<String, IntervalTree> trees, String key, long start, String appointmentId) {
+        IntervalTree tree = trees.get(key);
+        if (tree != null && tree.remove(start, appointmentId) && tree.size() == 0) {
+            trees.remove(key);
+        }
+    }
+
+    private static String key(String name) {
+        return name == null ? "" : name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static long seconds(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private static LocalDateTime time(long seconds) {
+        return LocalDateTime.ofEpochSecond(seconds, 0, ZoneOffset.UTC);
+    }
+}
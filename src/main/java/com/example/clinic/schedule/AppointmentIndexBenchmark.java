@@ -0,0 +1,87 @@
+package com.example.clinic.schedule;
+
+import com.example.clinic.model.Appointment;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Random;
+
+/**
+ * Measures the appointment index at clinic scale: builds it from synthetic appointments and times
+ * conflict checks, free-slot searches and edits. Run with
+ * {@code java -cp target/classes com.example.clinic.schedule.AppointmentIndexBenchmark 1000000}.
+ */
+public final class AppointmentIndexBenchmark {
+    private static final int CLINICIANS = 500;
+    private static final int PATIENTS = 200_000;
+    private static final int DAYS = 365;
+    private static final int QUERIES = 200_000;
+    private static final LocalDateTime EPOCH = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    private AppointmentIndexBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        Random random = new Random(42);
+        Appointment[] appointments = new Appointment[count];
+        for (int i = 0; i < count; i++) {
+            appointments[i] = randomAppointment("APT-" + i, random);
+        }
+
+        AppointmentIndex index = new AppointmentIndex();
+        long start = System.nanoTime();
+        for (Appointment appointment : appointments) {
+            index.put(appointment);
+        }
+        report("put (build)", count, System.nanoTime() - start);
+
+        for (int round = 0; round < 2; round++) {
+            // the first round warms up the JIT; only the second is representative
+            Appointment[] probes = new Appointment[QUERIES];
+            for (int i = 0; i < QUERIES; i++) {
+                probes[i] = randomAppointment("PROBE", random);
+            }
+            long found = 0;
+            start = System.nanoTime();
+            for (Appointment probe : probes) {
+                found += index.conflicts(probe).size();
+            }
+            report("conflicts", QUERIES, System.nanoTime() - start);
+
+            long slots = 0;
+            start = System.nanoTime();
+            for (Appointment probe : probes) {
+                LocalDateTime day = probe.getScheduledAt().withHour(8).withMinute(0);
+                slots += index.freeSlots(probe.getClinician(), day, day.plusHours(10), Duration.ofMinutes(30)).size();
+            }
+            report("freeSlots (10h window)", QUERIES, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            for (int i = 0; i < QUERIES; i++) {
+                int slot = random.nextInt(count);
+                Appointment moved = new Appointment(appointments[slot].getId(), probes[i].getPatientName(),
+                        probes[i].getClinician(), probes[i].getScheduledAt(), probes[i].getDurationMinutes(), "");
+                index.put(moved);
+                appointments[slot] = moved;
+            }
+            report("put (move existing)", QUERIES, System.nanoTime() - start);
+            System.out.printf("  (%d conflicts, %d free slots found)%n", found, slots);
+        }
+        System.out.println("Indexed appointments: " + index.size());
+    }
+
+    private static Appointment randomAppointment(String id, Random random) {
+        LocalDateTime at = EPOCH.plusDays(random.nextInt(DAYS)).plusMinutes(5L * random.nextInt(24 * 12));
+        return new Appointment(id, "Patient " + random.nextInt(PATIENTS), clinician(random), at,
+                15 * (1 + random.nextInt(4)), "");
+    }
+
+    private static String clinician(Random random) {
+        return "Dr. " + random.nextInt(CLINICIANS);
+    }
+
+    private static void report(String operation, int operations, long nanos) {
+        System.out.printf("%-24s %,12d ops %10.1f ns/op%n", operation, operations, (double) nanos / operations);
+    }
+}
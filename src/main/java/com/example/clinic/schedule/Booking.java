@@ -0,0 +1,11 @@
+package com.example.clinic.schedule;
+
+import java.time.LocalDateTime;
+
+/**
+ * The slice of an appointment the scheduling index needs: who, and the half-open interval
+ * {@code [start, end)}.
+ */
+public record Booking(String appointmentId, String clinician, String patientName, LocalDateTime start,
+                      LocalDateTime end) {
+}
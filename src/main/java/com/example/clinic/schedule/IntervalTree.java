@@ -0,0 +1,166 @@
+package com.example.clinic.schedule;
+
+/**
+ * Treap of half-open intervals ordered by start (ties broken by appointment id), where every
+ * node also carries the largest end in its subtree. Overlap queries skip any subtree whose
+ * largest end is before the query start, and stop descending right once starts pass the query
+ * end, so a query costs O(log n + k) for k results.
+ */
+final class IntervalTree {
+    private Node root;
+    private int size;
+    private int seed = 0x2545F491;
+
+    int size() {
+        return size;
+    }
+
+    void insert(long start, long end, Booking booking) {
+        root = insert(root, new Node(start, end, booking, nextPriority()));
+        size++;
+    }
+
+    boolean remove(long start, String appointmentId) {
+        int before = size;
+        root = remove(root, start, appointmentId);
+        return size < before;
+    }
+
+    /**
+     * Visits, in start order, every interval overlapping {@code [from, to)}.
+     */
+    void overlapping(long from, long to, Visitor visitor) {
+        overlapping(root, from, to, visitor);
+    }
+
+    private static void overlapping(Node node, long from, long to, Visitor visitor) {
+        while (node != null && node.maxEnd > from) {
+            overlapping(node.left, from, to, visitor);
+            if (node.start >= to) {
+                return;
+            }
+            if (node.end > from) {
+                visitor.visit(node.start, node.end, node.booking);
+            }
+            node = node.right;
+        }
+    }
+
+    private static Node insert(Node node, Node added) {
+        if (node == null) {
+            return added;
+        }
+        if (compare(added.start, added.booking.appointmentId(), node) < 0) {
+            node.left = insert(node.left, added);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, added);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        node.update();
+        return node;
+    }
+
+    private Node remove(Node node, long start, String appointmentId) {
+        if (node == null) {
+            return null;
+        }
+        int order = compare(start, appointmentId, node);
+        if (order < 0) {
+            node.left = remove(node.left, start, appointmentId);
+        } else if (order > 0) {
+            node.right = remove(node.right, start, appointmentId);
+        } else {
+            size--;
+            return merge(node.left, node.right);
+        }
+        node.update();
+        return node;
+    }
+
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            left.update();
+            return left;
+        }
+        right.left = merge(left, right.left);
+        right.update();
+        return right;
+    }
+
+    private static int compare(long start, String appointmentId, Node node) {
+        int order = Long.compare(start, node.start);
+        return order != 0 ? order : appointmentId.compareTo(node.booking.appointmentId());
+    }
+
+    private static Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        node.update();
+        pivot.update();
+        return pivot;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        node.update();
+        pivot.update();
+        return pivot;
+    }
+
+    private int nextPriority() {
+        // xorshift32: cheap, and good enough to keep the treap balanced in expectation
+        seed ^= seed << 13;
+        seed ^= seed >>> 17;
+        seed ^= seed << 5;
+        return seed;
+    }
+
+    @FunctionalInterface
+    interface Visitor {
+        void visit(long start, long end, Booking booking);
+    }
+
+    private static final class Node {
+        private final long start;
+        private final long end;
+        private final Booking booking;
+        private final int priority;
+        private long maxEnd;
+        private Node left;
+        private Node right;
+
+        private Node(long start, long end, Booking booking, int priority) {
+            this.start = start;
+            this.end = end;
+            this.booking = booking;
+            this.priority = priority;
+            this.maxEnd = end;
+        }
+
+        private void update() {
+            long max = end;
+            if (left != null && left.maxEnd > max) {
+                max = left.maxEnd;
+            }
+            if (right != null && right.maxEnd > max) {
+                max = right.maxEnd;
+            }
+            maxEnd = max;
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.clinic.schedule;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+public record TimeSlot(LocalDateTime start, LocalDateTime end) {
+    public Duration length() {
+        return Duration.between(start, end);
+    }
+}
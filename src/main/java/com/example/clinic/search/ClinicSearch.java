@@ -0,0 +1,31 @@
+package com.example.clinic.search;
+
+import com.example.clinic.model.Appointment;
+import com.example.clinic.model.InventoryItem;
+import com.example.clinic.model.PatientRecord;
+
+import java.util.List;
+
+/**
+ * The type-ahead indexes behind the dashboard's search boxes, one per table.
+ */
+public final class ClinicSearch {
+    private final SearchIndex<PatientRecord> patients = new SearchIndex<>(PatientRecord::getId,
+            List.of(PatientRecord::getName, PatientRecord::getRoom, PatientRecord::getStatus));
+    private final SearchIndex<Appointment> appointments = new SearchIndex<>(Appointment::getId,
+            List.of(Appointment::getPatientName, Appointment::getClinician, Appointment::getNotes));
+    private final SearchIndex<InventoryItem> inventory = new SearchIndex<>(InventoryItem::getId,
+            List.of(InventoryItem::getId, InventoryItem::getName));
+
+    public SearchIndex<PatientRecord> patients() {
+        return patients;
+    }
+
+    public SearchIndex<Appointment> appointments() {
+        return appointments;
+    }
+
+    public SearchIndex<InventoryItem> inventory() {
+        return inventory;
+    }
+}
@@ -0,0 +1,333 @@
+package com.example.clinic.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+/**
+ * Trigram inverted index over a few text fields of each row. Words are indexed with two leading
+ * pad characters, so a one- or two-letter query matches word prefixes and a longer query matches
+ * anywhere in a word; candidates from the rarest trigram are confirmed against the row's text.
+ * When nothing matches exactly, rows sharing at least half of the query's trigrams are returned
+ * instead, best first, which tolerates a typo. Replaced and removed rows are tombstoned; once they
+ * outnumber the live ones, a background thread rebuilds the index from the live rows and swaps it
+ * in, replaying the changes made meanwhile, so puts and removes never wait for a rebuild.
+ */
+public final class SearchIndex<T> {
+    private static final int COMPACT_THRESHOLD = 1_024;
+    private static final long WORD_START = (' ' << 16) | ' ';
+    private static final int REPLAY_UNDER_LOCK = 256;
+    private static final int MAX_REPLAY_ROUNDS = 8;
+    private static final ExecutorService COMPACTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "search-compaction");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Function<T, String> idOf;
+    private final List<Function<T, String>> fields;
+    private Generation<T> current = new Generation<>();
+    // latest row per id (null once removed) since a rebuild copied the live rows; null when idle
+    private Map<String, T> changedDuringCompaction;
+    private int[] scores = new int[0];
+
+    public SearchIndex(Function<T, String> idOf, List<Function<T, String>> fields) {
+        this.idOf = idOf;
+        this.fields = List.copyOf(fields);
+    }
+
+    /**
+     * Indexes the row, replacing any earlier version with the same id.
+     */
+    public synchronized void put(T row) {
+        String id = idOf.apply(row);
+        current.remove(id);
+        current.add(id, row, textOf(row));
+        if (changedDuringCompaction != null) {
+            changedDuringCompaction.put(id, row);
+        }
+        compactIfNeeded();
+    }
+
+    public synchronized boolean remove(String id) {
+        if (!current.remove(id)) {
+            return false;
+        }
+        if (changedDuringCompaction != null) {
+            changedDuringCompaction.put(id, null);
+        }
+        compactIfNeeded();
+        return true;
+    }
+
+    /**
+     * The indexed version of the row with this id, or null.
+     */
+    public synchronized T get(String id) {
+        Integer doc = current.docsById.get(id);
+        return doc == null ? null : current.docs.get(doc);
+    }
+
+    public synchronized int size() {
+        return current.live;
+    }
+
+    /**
+     * Rows matching every word of the query, in indexing order, or the closest fuzzy matches when
+     * none match exactly.
+     */
+    public synchronized List<T> search(String query, int limit) {
+        String normalized = normalize(query);
+        if (normalized.isBlank() || limit < 1) {
+            return List.of();
+        }
+        String[] terms = normalized.trim().split(" ");
+        List<T> results = exactMatches(terms, limit);
+        if (results.isEmpty() && normalized.length() > 4) {
+            results = fuzzyMatches(normalized, limit);
+        }
+        return results;
+    }
+
+    private List<T> exactMatches(String[] terms, int limit) {
+        Postings rarest = null;
+        for (String term : terms) {
+            for (long gram : grams(term.length() < 3 ? " " + term : term, term.length() < 3)) {
+                Postings candidate = current.postings.get(gram);
+                if (candidate == null) {
+                    return List.of();
+                }
+                if (rarest == null || candidate.size < rarest.size) {
+                    rarest = candidate;
+                }
+            }
+        }
+        List<T> results = new ArrayList<>();
+        for (int i = 0; i < rarest.size && results.size() < limit; i++) {
+            int doc = rarest.docs[i];
+            String text = current.texts.get(doc);
+            if (text != null && containsAll(text, terms)) {
+                results.add(current.docs.get(doc));
+            }
+        }
+        return results;
+    }
+
+    private List<T> fuzzyMatches(String normalized, int limit) {
+        // The leading "  x" gram of each word is shared by too many rows to say anything.
+        long[] queryGrams = Arrays.stream(grams(normalized, true)).filter(gram -> (gram >>> 16) != WORD_START)
+                .toArray();
+        if (scores.length < current.docs.size()) {
+            scores = new int[current.docs.size()];
+        }
+        Postings touched = new Postings();
+        for (long gram : queryGrams) {
+            Postings hits = current.postings.get(gram);
+            if (hits == null) {
+                continue;
+            }
+            for (int i = 0; i < hits.size; i++) {
+                int doc = hits.docs[i];
+                if (scores[doc]++ == 0) {
+                    touched.add(doc);
+                }
+            }
+        }
+        int required = Math.max(2, (queryGrams.length + 1) / 2);
+        // scores are bounded by the number of query grams, so bucket by score instead of sorting
+        Postings[] byScore = new Postings[queryGrams.length + 1];
+        for (int i = 0; i < touched.size; i++) {
+            int doc = touched.docs[i];
+            int score = scores[doc];
+            scores[doc] = 0;
+            if (score >= required && current.texts.get(doc) != null) {
+                if (byScore[score] == null) {
+                    byScore[score] = new Postings();
+                }
+                byScore[score].add(doc);
+            }
+        }
+        List<T> results = new ArrayList<>();
+        for (int score = queryGrams.length; score >= required && results.size() < limit; score--) {
+            Postings bucket = byScore[score];
+            for (int i = 0; bucket != null && i < bucket.size && results.size() < limit; i++) {
+                results.add(current.docs.get(bucket.docs[i]));
+            }
+        }
+        return results;
+    }
+
+    private static boolean containsAll(String text, String[] terms) {
+        for (String term : terms) {
+            if (!text.contains(term.length() < 3 ? " " + term : term)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void compactIfNeeded() {
+        if (changedDuringCompaction != null
+                || current.docs.size() - current.live <= Math.max(COMPACT_THRESHOLD, current.live)) {
+            return;
+        }
+        List<T> rows = new ArrayList<>(current.live);
+        for (T row : current.docs) {
+            if (row != null) {
+                rows.add(row);
+            }
+        }
+        changedDuringCompaction = new LinkedHashMap<>();
+        COMPACTOR.execute(() -> {
+            Generation<T> rebuilt = new Generation<>();
+            boolean built = false;
+            try {
+                for (T row : rows) {
+                    rebuilt.add(idOf.apply(row), row, textOf(row));
+                }
+                built = true;
+            } finally {
+                install(built ? rebuilt : null);
+            }
+        });
+    }
+
+    /**
+     * Swaps in a rebuilt generation once the changes made while it was built are applied to it,
+     * or, when the rebuild failed, keeps the current one and lets the next change try again.
+     * Changes are replayed outside the lock in rounds until few enough remain to apply in one go.
+     */
+    private void install(Generation<T> rebuilt) {
+        for (int round = 0; ; round++) {
+            Map<String, T> changed;
+            synchronized (this) {
+                changed = changedDuringCompaction;
+                if (rebuilt == null) {
+                    changedDuringCompaction = null;
+                    return;
+                }
+                if (changed.size() <= REPLAY_UNDER_LOCK || round == MAX_REPLAY_ROUNDS) {
+                    replay(rebuilt, changed);
+                    changedDuringCompaction = null;
+                    current = rebuilt;
+                    scores = new int[0];
+                    return;
+                }
+                changedDuringCompaction = new LinkedHashMap<>();
+            }
+            replay(rebuilt, changed);
+        }
+    }
+
+    private void replay(Generation<T> rebuilt, Map<String, T> changed) {
+        changed.forEach((id, row) -> {
+            rebuilt.remove(id);
+            if (row != null) {
+                rebuilt.add(id, row, textOf(row));
+            }
+        });
+    }
+
+    private String textOf(T row) {
+        StringBuilder joined = new StringBuilder();
+        for (Function<T, String> field : fields) {
+            String value = field.apply(row);
+            if (value != null) {
+                joined.append(' ').append(value);
+            }
+        }
+        return normalize(joined);
+    }
+
+    /**
+     * Lower-cases and keeps letters and digits, collapsing everything else to single spaces, with
+     * one leading space so word starts can be matched as {@code " " + prefix}.
+     */
+    private static String normalize(CharSequence value) {
+        StringBuilder out = new StringBuilder(value.length() + 1).append(' ');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                out.append(Character.toLowerCase(c));
+            } else if (out.charAt(out.length() - 1) != ' ') {
+                out.append(' ');
+            }
+        }
+        return out.toString();
+    }
+
+    /**
+     * Trigrams of the text; with {@code padded}, every word is first prefixed by two spaces.
+     */
+    private static long[] grams(String text, boolean padded) {
+        long[] grams = new long[text.length() * 2];
+        int count = 0;
+        for (String word : text.trim().split(" ")) {
+            String source = padded ? "  " + word.trim() : word;
+            for (int i = 0; i + 3 <= source.length(); i++) {
+                grams[count++] = ((long) source.charAt(i) << 32) | ((long) source.charAt(i + 1) << 16)
+                        | source.charAt(i + 2);
+            }
+        }
+        return Arrays.stream(grams, 0, count).distinct().toArray();
+    }
+
+    /**
+     * The rows and postings of one build of the index. Document numbers only ever grow, and
+     * removed rows stay behind as null until the next rebuild.
+     */
+    private static final class Generation<T> {
+        private final Map<String, Integer> docsById = new HashMap<>();
+        private final List<T> docs = new ArrayList<>();
+        private final List<String> texts = new ArrayList<>();
+        private final Map<Long, Postings> postings = new HashMap<>();
+        private int live;
+
+        private void add(String id, T row, String text) {
+            int doc = docs.size();
+            docs.add(row);
+            texts.add(text);
+            docsById.put(id, doc);
+            live++;
+            for (long gram : grams(text, true)) {
+                postings.computeIfAbsent(gram, key -> new Postings()).add(doc);
+            }
+        }
+
+        private boolean remove(String id) {
+            Integer doc = docsById.remove(id);
+            if (doc == null) {
+                return false;
+            }
+            docs.set(doc, null);
+            texts.set(doc, null);
+            live--;
+            return true;
+        }
+    }
+
+    /**
+     * Ascending document numbers for one trigram; rows only ever get new, larger numbers, so
+     * adding is an append.
+     */
+    private static final class Postings {
+        private int[] docs = new int[4];
+        private int size;
+
+        private void add(int doc) {
+            if (size > 0 && docs[size - 1] == doc) {
+                return;
+            }
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+            }
+            docs[size++] = doc;
+        }
+    }
+}
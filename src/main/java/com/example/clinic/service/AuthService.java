@@ -6,14 +6,21 @@ import com.example.clinic.model.AppUser;
 import java.util.Optional;
 
 public class AuthService {
-    private final UserRepository repository;
+    private final AuthenticationEngine engine;
 
-    public AuthService(UserRepository repository) {
-        this.repository = repository;
+    public AuthService(UserRepository repository, PasswordHashingService hasher) {
+        this(new AuthenticationEngine(repository, hasher));
+    }
+
+    public AuthService(AuthenticationEngine engine) {
+        this.engine = engine;
     }
 
     public Optional<AppUser> authenticate(String username, String password) {
-        return repository.findByUsername(username)
-                .filter(user -> user.matches(password));
+        return engine.authenticate(username, password);
+    }
+
+    public boolean isThrottled(String username) {
+        return engine.isThrottled(username);
     }
 }
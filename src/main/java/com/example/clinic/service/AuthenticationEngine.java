@@ -0,0 +1,109 @@
+package com.example.clinic.service;
+
+import com.example.clinic.data.UserRepository;
+import com.example.clinic.model.AppUser;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Keeps credential lookups and password checks off the hot path for repeated logins. Known
+ * users are cached with a TTL, unknown names are remembered briefly so they skip the database,
+ * and every username gets a token bucket so a brute-force burst stops costing PBKDF2 work once
+ * its tokens are spent. Buckets are kept until they could have refilled, however many other names
+ * are tried in between, so a locked account cannot be freed by cycling usernames: once
+ * {@code maxTrackedNames} buckets are live, a name without one is refused until some expire,
+ * rather than evicting a bucket to make room. A successful
+ * login on an outdated {@code PasswordScheme} is re-hashed in the background with the current cost,
+ * and stored only if the password was not changed while that ran.
+ */
+public final class AuthenticationEngine {
+    private static final System.Logger LOG = System.getLogger(AuthenticationEngine.class.getName());
+
+    private final UserRepository repository;
+    private final PasswordHashingService hasher;
+    private final Settings settings;
+    private final ExpiringCache<String, AppUser> knownUsers;
+    private final ExpiringCache<String, Boolean> unknownNames;
+    private final ExpiringCache<String, TokenBucket> attempts;
+
+    public AuthenticationEngine(UserRepository repository, PasswordHashingService hasher) {
+        this(repository, hasher, Settings.defaults());
+    }
+
+    public AuthenticationEngine(UserRepository repository, PasswordHashingService hasher, Settings settings) {
+        this.repository = repository;
+        this.hasher = hasher;
+        this.settings = settings;
+        this.knownUsers = new ExpiringCache<>(settings.maxCachedUsers(), settings.userTtl().toNanos());
+        this.unknownNames = new ExpiringCache<>(settings.maxUnknownNames(), settings.unknownTtl().toNanos());
+        long refillNanos = (long) (settings.burstAttempts() / settings.attemptsPerSecond() * 1_000_000_000d);
+        // a bucket that has gone refillNanos without an attempt is full again, so dropping it is harmless
+        this.attempts = new ExpiringCache<>(settings.maxTrackedNames(), refillNanos);
+        repository.addChangeListener(this::invalidate);
+    }
+
+    public Optional<AppUser> authenticate(String username, String password) {
+        long now = System.nanoTime();
+        TokenBucket bucket = attempts.computeIfRoom(username, now,
+                () -> new TokenBucket(settings.burstAttempts(), settings.attemptsPerSecond(), now));
+        if (bucket == null || !bucket.tryAcquire(now)) {
+            return Optional.empty();
+        }
+        Optional<AppUser> user = lookup(username, now);
+        if (user.isPresent() && user.get().matches(password)) {
+            bucket.reset(System.nanoTime());
+            if (user.get().needsRehash()) {
+                rehash(user.get(), password);
+            }
+            return user;
+        }
+        return Optional.empty();
+    }
+
+    public boolean isThrottled(String username) {
+        long now = System.nanoTime();
+        TokenBucket bucket = attempts.get(username, now);
+        return bucket != null ? bucket.isEmpty(now) : attempts.isFull(now);
+    }
+
+    public void invalidate(String username) {
+        knownUsers.invalidate(username);
+        unknownNames.invalidate(username);
+    }
+
+    private void rehash(AppUser verified, String password) {
+        hasher.withNewPassword(verified, password)
+                .thenAccept(rehashed -> repository.replacePasswordHash(rehashed, verified.getPasswordHash()))
+                .exceptionally(failure -> {
+                    // the old hash still verifies, so the next login tries again
+                    LOG.log(System.Logger.Level.WARNING, "Unable to re-hash password for " + verified.getUsername(),
+                            failure);
+                    return null;
+                });
+    }
+
+    private Optional<AppUser> lookup(String username, long now) {
+        AppUser cached = knownUsers.get(username, now);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        if (unknownNames.get(username, now) != null) {
+            return Optional.empty();
+        }
+        Optional<AppUser> loaded = repository.findByUsername(username);
+        if (loaded.isPresent()) {
+            knownUsers.put(username, loaded.get(), now);
+        } else {
+            unknownNames.put(username, Boolean.TRUE, now);
+        }
+        return loaded;
+    }
+
+    public record Settings(int maxCachedUsers, Duration userTtl, int maxUnknownNames, Duration unknownTtl,
+                           int burstAttempts, double attemptsPerSecond, int maxTrackedNames) {
+        public static Settings defaults() {
+            return new Settings(1_024, Duration.ofMinutes(10), 4_096, Duration.ofSeconds(30), 5, 0.2, 65_536);
+        }
+    }
+}
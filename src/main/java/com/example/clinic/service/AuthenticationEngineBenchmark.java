@@ -0,0 +1,105 @@
+package com.example.clinic.service;
+
+import com.example.clinic.data.UserRepository;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Calls {@link AuthenticationEngine#authenticate} from several threads against a scratch user
+ * database and reports attempts per second for correct passwords, wrong passwords and unknown
+ * usernames, and checks that an account locked out just before the unknown-name run is still
+ * locked once that run has cycled through many distinct usernames. Run with
+ * {@code java -cp target/classes com.example.clinic.service.AuthenticationEngineBenchmark 8 2}
+ * for eight threads over two seconds per run.
+ */
+public final class AuthenticationEngineBenchmark {
+    private AuthenticationEngineBenchmark() {
+    }
+
+    private static final int USERS = 50;
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        double seconds = args.length > 1 ? Double.parseDouble(args[1]) : 2;
+        Path directory = Files.createTempDirectory("auth-benchmark");
+        try (UserRepository repository = new UserRepository(directory.resolve("users.db"), threads);
+             PasswordHashingService hasher = new PasswordHashingService()) {
+            List<PasswordHashingService.NewUser> users = new ArrayList<>(USERS);
+            for (int i = 0; i < USERS; i++) {
+                users.add(new PasswordHashingService.NewUser("USER" + i, "Nurse", "Password" + i));
+            }
+            repository.saveAll(hasher.withPasswords(users).join());
+            AuthenticationEngine engine = new AuthenticationEngine(repository, hasher);
+            String locked = "USER0";
+            AtomicLong unknownNames = new AtomicLong();
+            for (int round = 0; round < 2; round++) {
+                // the first round warms up the JIT; only the second is representative
+                run("correct password", threads, seconds, () -> {
+                    int user = 1 + ThreadLocalRandom.current().nextInt(USERS - 1);
+                    return engine.authenticate("USER" + user, "Password" + user).isPresent();
+                });
+                run("wrong password", threads, seconds, () -> {
+                    int user = 1 + ThreadLocalRandom.current().nextInt(USERS - 1);
+                    return engine.authenticate("USER" + user, "wrong").isPresent();
+                });
+                while (!engine.isThrottled(locked)) {
+                    engine.authenticate(locked, "wrong");
+                }
+                long before = unknownNames.get();
+                run("unknown username", threads, seconds,
+                        () -> engine.authenticate("NOBODY" + unknownNames.incrementAndGet(), "wrong").isPresent());
+                System.out.printf("  %s still locked after %,d distinct unknown usernames: %b%n", locked,
+                        unknownNames.get() - before, engine.isThrottled(locked));
+            }
+        } finally {
+            try (var files = Files.list(directory)) {
+                for (Path file : (Iterable<Path>) files::iterator) {
+                    Files.deleteIfExists(file);
+                }
+            }
+            Files.deleteIfExists(directory);
+        }
+    }
+
+    private static void run(String label, int threads, double seconds, Attempt attempt) throws InterruptedException {
+        LongAdder attempts = new LongAdder();
+        LongAdder succeeded = new LongAdder();
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(() -> {
+                while (running.get()) {
+                    if (attempt.run()) {
+                        succeeded.increment();
+                    }
+                    attempts.increment();
+                }
+            });
+        }
+        long start = System.nanoTime();
+        for (Thread worker : workers) {
+            worker.start();
+        }
+        Thread.sleep((long) (seconds * 1_000));
+        running.set(false);
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        double elapsed = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%-18s %d threads %,12.0f attempts/s %,12d succeeded%n", label, threads,
+                attempts.sum() / elapsed, succeeded.sum());
+    }
+
+    @FunctionalInterface
+    private interface Attempt {
+        boolean run();
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.clinic.service;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * An access-ordered map whose entries expire {@code ttlNanos} after they were last written.
+ * Expired entries are dropped as they are read and, from the least recently used end, whenever
+ * one is written; past {@code maxEntries} the least recently used entry is evicted as well.
+ */
+final class ExpiringCache<K, V> {
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final LinkedHashMap<K, Entry<V>> entries;
+
+    ExpiringCache(int maxEntries, long ttlNanos) {
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttlNanos;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    synchronized V get(K key, long now) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (now - entry.expiresAt > 0) {
+            entries.remove(key);
+            return null;
+        }
+        return entry.value;
+    }
+
+    /**
+     * Returns the cached value, creating it if needed, and slides its expiry forward.
+     */
+    synchronized V computeIfAbsent(K key, long now, Supplier<V> loader) {
+        V value = get(key, now);
+        if (value == null) {
+            value = loader.get();
+        }
+        entries.put(key, new Entry<>(value, now + ttlNanos));
+        purgeExpired(now);
+        return value;
+    }
+
+    /**
+     * Like {@link #computeIfAbsent}, but never evicts a live entry to make room: when the key is
+     * absent and every slot holds an entry that has not expired, nothing is stored and null is
+     * returned.
+     */
+    synchronized V computeIfRoom(K key, long now, Supplier<V> loader) {
+        V value = get(key, now);
+        if (value == null) {
+            purgeExpired(now);
+            if (entries.size() >= maxEntries) {
+                return null;
+            }
+            value = loader.get();
+        }
+        entries.put(key, new Entry<>(value, now + ttlNanos));
+        return value;
+    }
+
+    synchronized boolean isFull(long now) {
+        purgeExpired(now);
+        return entries.size() >= maxEntries;
+    }
+
+    synchronized void put(K key, V value, long now) {
+        entries.put(key, new Entry<>(value, now + ttlNanos));
+        purgeExpired(now);
+    }
+
+    synchronized void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    private void purgeExpired(long now) {
+        Iterator<Entry<V>> eldest = entries.values().iterator();
+        while (eldest.hasNext() && now - eldest.next().expiresAt > 0) {
+            eldest.remove();
+        }
+    }
+
+    private record Entry<V>(V value, long expiresAt) {
+    }
+}
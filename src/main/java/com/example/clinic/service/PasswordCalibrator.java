@@ -0,0 +1,46 @@
+package com.example.clinic.service;
+
+import com.example.clinic.model.AppUser;
+import com.example.clinic.model.PasswordScheme;
+
+import java.time.Duration;
+
+/**
+ * Picks a PBKDF2 iteration count whose verify time on this machine is close to a target.
+ * Run with {@code java -cp target/classes com.example.clinic.service.PasswordCalibrator 250}
+ * and pass the printed value as {@code -Dclinic.password.iterations}.
+ */
+public final class PasswordCalibrator {
+    private static final int PROBE_ITERATIONS = 20_000;
+    private static final int MIN_ITERATIONS = 10_000;
+    private static final int WARMUP_ROUNDS = 40;
+    private static final int ROUNDS = 10;
+
+    private PasswordCalibrator() {
+    }
+
+    public static int calibrate(Duration target) {
+        AppUser probe = AppUser.withPassword("CALIBRATION", "None", "calibration-password",
+                PasswordScheme.withIterations(PROBE_ITERATIONS));
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            probe.matches("calibration-password");
+        }
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < ROUNDS; i++) {
+            long start = System.nanoTime();
+            probe.matches("calibration-password");
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        double perIteration = (double) best / PROBE_ITERATIONS;
+        long iterations = Math.round(target.toNanos() / perIteration / 1_000) * 1_000;
+        return (int) Math.max(MIN_ITERATIONS, Math.min(Integer.MAX_VALUE, iterations));
+    }
+
+    public static void main(String[] args) {
+        long targetMillis = args.length > 0 ? Long.parseLong(args[0]) : 250;
+        int iterations = calibrate(Duration.ofMillis(targetMillis));
+        System.out.println("Target verify latency: " + targetMillis + " ms");
+        System.out.println("Recommended iterations: " + iterations);
+        System.out.println("Start the app with -D" + PasswordScheme.ITERATIONS_PROPERTY + "=" + iterations);
+    }
+}
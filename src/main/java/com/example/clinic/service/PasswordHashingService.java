@@ -0,0 +1,124 @@
+package com.example.clinic.service;
+
+import com.example.clinic.model.AppUser;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs the PBKDF2 work behind {@link AppUser#withPassword} and {@link AppUser#withNewPassword}
+ * on a bounded pool. Every method returns at once with a future, whatever thread calls it, so no
+ * hash ever runs on the JavaFX thread. {@link #withPasswords} is the way in for bulk producers:
+ * it blocks its caller while half the queue is taken by earlier bulk work, which throttles them
+ * and leaves the rest of the queue free for single hashes. Work that still finds the queue full,
+ * or arrives after {@link #close}, fails its future with {@link RejectedExecutionException}
+ * rather than being run by the caller or dropped.
+ */
+public final class PasswordHashingService implements AutoCloseable {
+    private static final int DEFAULT_QUEUE_CAPACITY = 256;
+
+    private final ThreadPoolExecutor executor;
+    private final Semaphore bulkPermits;
+
+    public PasswordHashingService() {
+        this(Math.max(1, Runtime.getRuntime().availableProcessors() - 1), DEFAULT_QUEUE_CAPACITY);
+    }
+
+    public PasswordHashingService(int threads, int queueCapacity) {
+        if (queueCapacity < 2) {
+            throw new IllegalArgumentException("Hashing queue needs room for at least two tasks");
+        }
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (runnable, pool) -> ((HashTask<?>) runnable).reject(pool.isShutdown()
+                        ? "Password hashing has been shut down" : "Password hashing queue is full"));
+        executor.allowCoreThreadTimeOut(true);
+        this.bulkPermits = new Semaphore(queueCapacity / 2);
+    }
+
+    public int getParallelism() {
+        return executor.getMaximumPoolSize();
+    }
+
+    public CompletableFuture<AppUser> withPassword(String username, String role, String plainPassword) {
+        return submit(() -> AppUser.withPassword(username, role, plainPassword));
+    }
+
+    public CompletableFuture<AppUser> withNewPassword(AppUser user, String plainPassword) {
+        return submit(() -> user.withNewPassword(plainPassword));
+    }
+
+    /**
+     * Hashes a batch, in order. Blocks while the earlier bulk work still holds half the queue, so
+     * call it off the JavaFX thread for anything larger than a handful of users.
+     */
+    public CompletableFuture<List<AppUser>> withPasswords(List<NewUser> newUsers) {
+        List<CompletableFuture<AppUser>> futures = new ArrayList<>(newUsers.size());
+        for (NewUser newUser : newUsers) {
+            try {
+                bulkPermits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                futures.add(CompletableFuture.failedFuture(e));
+                break;
+            }
+            CompletableFuture<AppUser> future = withPassword(newUser.username(), newUser.role(), newUser.password());
+            future.whenComplete((user, failure) -> bulkPermits.release());
+            futures.add(future);
+        }
+        return CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+                .thenApply(ignored -> futures.stream().map(CompletableFuture::join).toList());
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> work) {
+        HashTask<T> task = new HashTask<>(work);
+        executor.execute(task);
+        return task.future;
+    }
+
+    @Override
+    public void close() {
+        for (Runnable queued : executor.shutdownNow()) {
+            ((HashTask<?>) queued).reject("Password hashing has been shut down");
+        }
+    }
+
+    public record NewUser(String username, String role, String password) {
+    }
+
+    private static final class HashTask<T> implements Runnable {
+        private final Supplier<T> work;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+
+        HashTask(Supplier<T> work) {
+            this.work = work;
+        }
+
+        @Override
+        public void run() {
+            try {
+                future.complete(work.get());
+            } catch (Throwable failure) {
+                future.completeExceptionally(failure);
+            }
+        }
+
+        void reject(String reason) {
+            future.completeExceptionally(new RejectedExecutionException(reason));
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.clinic.stats;
+
+import com.example.clinic.model.InventoryItem;
+import com.example.clinic.model.PatientRecord;
+import javafx.beans.property.ReadOnlyIntegerProperty;
+import javafx.beans.property.ReadOnlyIntegerWrapper;
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.collections.ObservableMap;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Dashboard aggregates kept current by applying each change as a delta, so a mutation costs O(1)
+ * and nothing is ever recounted. Seeded once from the full tables at startup; the paged lists the
+ * tables show are too partial to derive totals from. Staff counts follow the user list, which is
+ * always loaded whole. Not thread-safe: update it on the JavaFX thread the cards are bound on.
+ */
+public final class ClinicStatistics {
+    private static final String UNASSIGNED = "Unassigned";
+
+    // the (status, ward) each patient is counted under, one shared instance per pair
+    private final Map<String, Counted> patients = new HashMap<>();
+    private final Map<Counted, Counted> counted = new HashMap<>();
+    private final Map<String, Boolean> lowById = new HashMap<>();
+    private final ReadOnlyIntegerWrapper activePatients = new ReadOnlyIntegerWrapper();
+    private final ReadOnlyIntegerWrapper lowStock = new ReadOnlyIntegerWrapper();
+    private final ReadOnlyIntegerWrapper staff = new ReadOnlyIntegerWrapper();
+    private final ObservableMap<String, Integer> byStatus = FXCollections.observableMap(new TreeMap<>());
+    private final ObservableMap<String, Integer> byWard = FXCollections.observableMap(new TreeMap<>());
+    private final ListChangeListener<Object> staffListener = change -> {
+        while (change.next()) {
+            staff.set(staff.get() + change.getAddedSize() - change.getRemovedSize());
+        }
+    };
+
+    /**
+     * Records a new or changed patient, replacing whatever was counted for the same id.
+     */
+    public void putPatient(PatientRecord patient) {
+        Counted key = counted.computeIfAbsent(new Counted(statusOf(patient), wardOf(patient)), k -> k);
+        Counted previous = patients.put(patient.getId(), key);
+        if (previous == key) {
+            return;
+        }
+        if (previous != null) {
+            uncount(previous);
+        } else {
+            activePatients.set(activePatients.get() + 1);
+        }
+        increment(byStatus, key.status(), 1);
+        increment(byWard, key.ward(), 1);
+    }
+
+    public void removePatient(String id) {
+        Counted previous = patients.remove(id);
+        if (previous != null) {
+            uncount(previous);
+            activePatients.set(activePatients.get() - 1);
+        }
+    }
+
+    public void putItem(InventoryItem item) {
+        boolean low = item.isAtOrBelowReorderLevel();
+        Boolean previous = lowById.put(item.getId(), low);
+        int delta = (low ? 1 : 0) - (Boolean.TRUE.equals(previous) ? 1 : 0);
+        if (delta != 0) {
+            lowStock.set(lowStock.get() + delta);
+        }
+    }
+
+    public void removeItem(String id) {
+        if (Boolean.TRUE.equals(lowById.remove(id))) {
+            lowStock.set(lowStock.get() - 1);
+        }
+    }
+
+    /**
+     * Follows the size of a fully loaded staff list from now on.
+     */
+    public void trackStaff(ObservableList<?> users) {
+        staff.set(users.size());
+        users.addListener(staffListener);
+    }
+
+    public ReadOnlyIntegerProperty activePatientsProperty() {
+        return activePatients.getReadOnlyProperty();
+    }
+
+    /**
+     * Items whose quantity is at or below their own reorder level.
+     */
+    public ReadOnlyIntegerProperty lowStockProperty() {
+        return lowStock.getReadOnlyProperty();
+    }
+
+    public ReadOnlyIntegerProperty staffProperty() {
+        return staff.getReadOnlyProperty();
+    }
+
+    /**
+     * Patients per status category, the part of the status before " - " (e.g. "Critical").
+     */
+    public ObservableMap<String, Integer> getByStatus() {
+        return FXCollections.unmodifiableObservableMap(byStatus);
+    }
+
+    /**
+     * Patients per ward, the hundreds of the room number ("Room 204" is Ward 2, "Room 12" Ward 0).
+     */
+    public ObservableMap<String, Integer> getByWard() {
+        return FXCollections.unmodifiableObservableMap(byWard);
+    }
+
+    private void uncount(Counted previous) {
+        increment(byStatus, previous.status(), -1);
+        increment(byWard, previous.ward(), -1);
+    }
+
+    private static void increment(ObservableMap<String, Integer> counts, String key, int delta) {
+        int updated = counts.getOrDefault(key, 0) + delta;
+        if (updated == 0) {
+            counts.remove(key);
+        } else {
+            counts.put(key, updated);
+        }
+    }
+
+    private static String statusOf(PatientRecord patient) {
+        String status = patient.getStatus() == null ? "" : patient.getStatus().trim();
+        int separator = status.indexOf(" - ");
+        String category = separator >= 0 ? status.substring(0, separator).trim() : status;
+        return category.isEmpty() ? UNASSIGNED : category;
+    }
+
+    /**
+     * The ward a patient is counted under, from the hundreds of their room number.
+     */
+    public static String wardOf(PatientRecord patient) {
+        String room = patient.getRoom() == null ? "" : patient.getRoom();
+        int start = 0;
+        while (start < room.length() && !Character.isDigit(room.charAt(start))) {
+            start++;
+        }
+        int end = start;
+        while (end < room.length() && end - start < 9 && Character.isDigit(room.charAt(end))) {
+            end++;
+        }
+        return start == end ? UNASSIGNED : "Ward " + Integer.parseInt(room.substring(start, end)) / 100;
+    }
+
+    private record Counted(String status, String ward) {
+    }
+}
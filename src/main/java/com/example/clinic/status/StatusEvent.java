@@ -0,0 +1,27 @@
+package com.example.clinic.status;
+
+/**
+ * One line of the status feed. {@code sequence} numbers events in the order they were recorded
+ * and {@code recordedAt} never goes backwards between consecutive events.
+ */
+public record StatusEvent(long sequence, long recordedAt, Type type, String message) {
+    public enum Type {
+        PATIENT("Patient"),
+        STATUS("Status change"),
+        APPOINTMENT("Appointment"),
+        INVENTORY("Inventory"),
+        STAFF("Staff"),
+        REPORT("Report"),
+        NOTICE("Notice");
+
+        private final String label;
+
+        Type(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+    }
+}
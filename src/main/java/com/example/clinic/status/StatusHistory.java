@@ -0,0 +1,311 @@
+package com.example.clinic.status;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Every status event ever posted, on disk, for scrolling back past what the live feed holds.
+ * Events go to segment files: a log of message text, and an index of fixed-width entries holding
+ * each event's time, type and text position. Because entries are fixed-width and times never
+ * decrease, a time range is found by binary search and a type filter scans only index entries,
+ * reading text just for the events returned. Once a segment passes {@code segmentBytes} a new one
+ * is started, and the oldest is deleted when there are more than {@code maxSegments}. Writes are
+ * left to the OS to flush; on open, index entries whose text did not reach the log are dropped.
+ * If a write fails, the failure is logged and later events are still numbered and returned but no
+ * longer written, so the live feed keeps working without its history on disk.
+ */
+public final class StatusHistory implements AutoCloseable {
+    private static final System.Logger LOG = System.getLogger(StatusHistory.class.getName());
+    public static final long DEFAULT_SEGMENT_BYTES = 16L * 1024 * 1024;
+    public static final int DEFAULT_MAX_SEGMENTS = 8;
+    // recorded_at (8), text offset (8), text length (4), type (1)
+    private static final int ENTRY_BYTES = 21;
+    private static final int SCAN_ENTRIES = 512;
+
+    private final Path directory;
+    private final long segmentBytes;
+    private final int maxSegments;
+    private final List<Segment> segments = new ArrayList<>();
+    private final ByteBuffer entry = ByteBuffer.allocate(ENTRY_BYTES);
+    private long nextSequence = 1;
+    private long lastRecordedAt;
+    private boolean failed;
+    private boolean closed;
+
+    public StatusHistory() {
+        this(Paths.get("storage", "status"), DEFAULT_SEGMENT_BYTES, DEFAULT_MAX_SEGMENTS);
+    }
+
+    public StatusHistory(Path directory, long segmentBytes, int maxSegments) {
+        if (segmentBytes < 4096 || maxSegments < 1) {
+            throw new IllegalArgumentException("Invalid status history sizing");
+        }
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.maxSegments = maxSegments;
+        try {
+            Files.createDirectories(directory);
+            for (long firstSequence : listSegments()) {
+                Segment segment = Segment.open(directory, firstSequence);
+                segment.recover();
+                segments.add(segment);
+            }
+            if (!segments.isEmpty()) {
+                Segment last = segments.get(segments.size() - 1);
+                nextSequence = last.firstSequence + last.count;
+                if (last.count > 0) {
+                    lastRecordedAt = last.recordedAt(last.count - 1);
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to open status history", e);
+        }
+    }
+
+    /**
+     * Records a new event, timestamped now, or at the previous event's time if the clock went back.
+     * An event that cannot be written is still returned, for the live feed to show.
+     */
+    public synchronized StatusEvent append(StatusEvent.Type type, String message) {
+        if (closed) {
+            throw new IllegalStateException("Status history is closed");
+        }
+        StatusEvent event = new StatusEvent(nextSequence, Math.max(lastRecordedAt, System.currentTimeMillis()),
+                type, message);
+        if (!failed) {
+            write(event);
+        }
+        nextSequence++;
+        lastRecordedAt = event.recordedAt();
+        return event;
+    }
+
+    /**
+     * Up to {@code limit} events recorded in {@code [fromMillis, toMillis]} with one of
+     * {@code types}, newest first, taken from before {@code beforeSequence}. Pass
+     * {@link Long#MAX_VALUE} for the newest page, then the last returned sequence for each older
+     * one.
+     */
+    public synchronized List<StatusEvent> page(Set<StatusEvent.Type> types, long fromMillis, long toMillis,
+                                               long beforeSequence, int limit) {
+        List<StatusEvent> events = new ArrayList<>(Math.min(limit, SCAN_ENTRIES));
+        if (closed || types.isEmpty() || limit < 1) {
+            return events;
+        }
+        ByteBuffer chunk = ByteBuffer.allocate(SCAN_ENTRIES * ENTRY_BYTES);
+        try {
+            for (int s = segments.size() - 1; s >= 0; s--) {
+                Segment segment = segments.get(s);
+                if (segment.firstSequence >= beforeSequence) {
+                    continue;
+                }
+                long end = Math.min(segment.count, beforeSequence - segment.firstSequence);
+                end = Math.min(end, segment.countAtOrBefore(toMillis, end));
+                while (end > 0) {
+                    long start = Math.max(0, end - SCAN_ENTRIES);
+                    chunk.clear().limit((int) (end - start) * ENTRY_BYTES);
+                    readFully(segment.index, chunk, start * ENTRY_BYTES);
+                    for (long i = end - 1; i >= start; i--) {
+                        int at = (int) (i - start) * ENTRY_BYTES;
+                        long recordedAt = chunk.getLong(at);
+                        if (recordedAt < fromMillis) {
+                            // older segments hold only older events
+                            return events;
+                        }
+                        StatusEvent.Type type = StatusEvent.Type.values()[chunk.get(at + 20)];
+                        if (types.contains(type)) {
+                            String message = segment.text(chunk.getLong(at + 8), chunk.getInt(at + 16));
+                            events.add(new StatusEvent(segment.firstSequence + i, recordedAt, type, message));
+                            if (events.size() == limit) {
+                                return events;
+                            }
+                        }
+                    }
+                    end = start;
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to read status history", e);
+        }
+        return events;
+    }
+
+    public synchronized long size() {
+        long size = 0;
+        for (Segment segment : segments) {
+            size += segment.count;
+        }
+        return size;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        for (Segment segment : segments) {
+            segment.close();
+        }
+    }
+
+    private void write(StatusEvent event) {
+        byte[] text = event.message().getBytes(StandardCharsets.UTF_8);
+        try {
+            Segment active = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+            if (active == null || (active.count > 0 && active.logSize + text.length > segmentBytes)) {
+                active = roll();
+            }
+            // text before index entry, so an entry on disk always has its text
+            writeFully(active.log, ByteBuffer.wrap(text), active.logSize);
+            entry.clear();
+            entry.putLong(event.recordedAt()).putLong(active.logSize).putInt(text.length)
+                    .put((byte) event.type().ordinal()).flip();
+            writeFully(active.index, entry, active.count * ENTRY_BYTES);
+            active.logSize += text.length;
+            active.count++;
+        } catch (IOException e) {
+            // a half-written entry is dropped on the next open, as after a crash
+            failed = true;
+            LOG.log(System.Logger.Level.WARNING,
+                    "Unable to append to status history, keeping new events in memory only", e);
+        }
+    }
+
+    private Segment roll() throws IOException {
+        Segment segment = Segment.open(directory, nextSequence);
+        segments.add(segment);
+        while (segments.size() > maxSegments) {
+            Segment oldest = segments.remove(0);
+            oldest.close();
+            Files.deleteIfExists(oldest.logPath);
+            Files.deleteIfExists(oldest.indexPath);
+        }
+        return segment;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                throw new IOException("Status history ends early");
+            }
+            position += read;
+        }
+    }
+
+    private List<Long> listSegments() throws IOException {
+        List<Long> firstSequences = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.map(file -> file.getFileName().toString())
+                    .filter(name -> name.startsWith("status-") && name.endsWith(".idx"))
+                    .forEach(name -> firstSequences.add(Long.parseLong(name.substring(7, name.length() - 4))));
+        }
+        firstSequences.sort(null);
+        return firstSequences;
+    }
+
+    private static final class Segment {
+        private final long firstSequence;
+        private final Path logPath;
+        private final Path indexPath;
+        private final FileChannel log;
+        private final FileChannel index;
+        private final ByteBuffer time = ByteBuffer.allocate(Long.BYTES);
+        private long count;
+        private long logSize;
+
+        private Segment(long firstSequence, Path logPath, Path indexPath) throws IOException {
+            this.firstSequence = firstSequence;
+            this.logPath = logPath;
+            this.indexPath = indexPath;
+            this.log = FileChannel.open(logPath, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            this.index = FileChannel.open(indexPath, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+        }
+
+        static Segment open(Path directory, long firstSequence) throws IOException {
+            String name = String.format("status-%020d", firstSequence);
+            return new Segment(firstSequence, directory.resolve(name + ".log"), directory.resolve(name + ".idx"));
+        }
+
+        /**
+         * Drops a partly written last entry, and entries whose text is missing from the log.
+         */
+        void recover() throws IOException {
+            count = index.size() / ENTRY_BYTES;
+            ByteBuffer last = ByteBuffer.allocate(ENTRY_BYTES);
+            while (count > 0) {
+                last.clear();
+                readFully(index, last, (count - 1) * ENTRY_BYTES);
+                long end = last.getLong(8) + last.getInt(16);
+                int type = last.get(20);
+                if (end <= log.size() && type >= 0 && type < StatusEvent.Type.values().length) {
+                    logSize = end;
+                    break;
+                }
+                count--;
+            }
+            if (count == 0) {
+                logSize = 0;
+            }
+            index.truncate(count * ENTRY_BYTES);
+            log.truncate(logSize);
+        }
+
+        long recordedAt(long entry) throws IOException {
+            time.clear();
+            readFully(index, time, entry * ENTRY_BYTES);
+            return time.getLong(0);
+        }
+
+        /**
+         * How many of the first {@code end} entries were recorded at or before {@code millis}.
+         */
+        long countAtOrBefore(long millis, long end) throws IOException {
+            long low = 0;
+            long high = end;
+            while (low < high) {
+                long mid = (low + high) >>> 1;
+                if (recordedAt(mid) <= millis) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        String text(long offset, int length) throws IOException {
+            ByteBuffer text = ByteBuffer.allocate(length);
+            readFully(log, text, offset);
+            return new String(text.array(), StandardCharsets.UTF_8);
+        }
+
+        void close() {
+            try {
+                log.close();
+                index.close();
+            } catch (IOException e) {
+                // nothing is buffered, so there is nothing left to lose
+            }
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.clinic.status;
+
+import javafx.collections.ObservableListBase;
+
+/**
+ * The most recent status events, newest first, in a fixed array used as a ring. Pushing an event
+ * overwrites the oldest slot once the ring is full and is reported to listeners as one change,
+ * so nothing is shifted or reallocated however long the feed runs. Not thread-safe: push on the
+ * JavaFX thread that its list views observe.
+ */
+public final class StatusRing extends ObservableListBase<StatusEvent> {
+    private final StatusEvent[] slots;
+    private int newest = -1;
+    private int size;
+
+    public StatusRing(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.slots = new StatusEvent[capacity];
+    }
+
+    public void push(StatusEvent event) {
+        beginChange();
+        if (size == slots.length) {
+            nextRemove(size - 1, get(size - 1));
+            size--;
+        }
+        newest = (newest + 1) % slots.length;
+        slots[newest] = event;
+        size++;
+        nextAdd(0, 1);
+        endChange();
+    }
+
+    public int capacity() {
+        return slots.length;
+    }
+
+    @Override
+    public StatusEvent get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return slots[Math.floorMod(newest - index, slots.length)];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+}
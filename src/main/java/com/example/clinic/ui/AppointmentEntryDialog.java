@@ -22,6 +22,7 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 public final class AppointmentEntryDialog {
@@ -30,7 +31,13 @@ public final class AppointmentEntryDialog {
     private AppointmentEntryDialog() {
     }
 
-    public static Optional<Appointment> request(Window owner, Appointment existing, Supplier<String> idSupplier, String defaultClinician) {
+    /**
+     * Shows the form; {@code conflictCheck} returns a message when the appointment would double-book
+     * its clinician or patient, and the dialog then stays open so the time can be changed.
+     */
+    public static Optional<Appointment> request(Window owner, Appointment existing, Supplier<String> idSupplier,
+                                                String defaultClinician,
+                                                Function<Appointment, Optional<String>> conflictCheck) {
         Stage dialog = new Stage();
         dialog.initOwner(owner);
         dialog.initModality(Modality.APPLICATION_MODAL);
@@ -64,6 +71,11 @@ public final class AppointmentEntryDialog {
         timeField.setPromptText("2024-06-30 14:30");
         timeField.getStyleClass().add("input-field");
 
+        Label durationLabel = new Label("Duration (minutes)");
+        durationLabel.getStyleClass().add("muted-label");
+        TextField durationField = new TextField(String.valueOf(Appointment.DEFAULT_DURATION_MINUTES));
+        durationField.getStyleClass().add("input-field");
+
         Label notesLabel = new Label("Notes");
         notesLabel.getStyleClass().add("muted-label");
         TextArea notesField = new TextArea();
@@ -75,9 +87,16 @@ public final class AppointmentEntryDialog {
             patientField.setText(existing.getPatientName());
             clinicianField.setText(existing.getClinician());
             timeField.setText(existing.getScheduledAt().format(FORMATTER));
+            durationField.setText(String.valueOf(existing.getDurationMinutes()));
             notesField.setText(existing.getNotes());
         }
 
+        Label conflictLabel = new Label();
+        conflictLabel.getStyleClass().add("status-warning");
+        conflictLabel.setWrapText(true);
+        conflictLabel.setManaged(false);
+        conflictLabel.setVisible(false);
+
         Button cancel = new Button("Cancel");
         cancel.setOnAction(e -> dialog.close());
         cancel.getStyleClass().add("ghost-button");
@@ -96,12 +115,22 @@ public final class AppointmentEntryDialog {
             if (patient.isEmpty() || clinician.isEmpty() || timeInput.isEmpty()) {
                 return;
             }
+            Appointment appointment;
             try {
                 LocalDateTime scheduled = LocalDateTime.parse(timeInput, FORMATTER);
-                result.set(new Appointment(idField.getText(), patient, clinician, scheduled, notes));
-                dialog.close();
+                int duration = Integer.parseInt(durationField.getText().trim());
+                appointment = new Appointment(idField.getText(), patient, clinician, scheduled, duration, notes);
             } catch (Exception ex) {
                 // keep dialog open on parse errors
+                return;
+            }
+            Optional<String> conflict = conflictCheck.apply(appointment);
+            conflictLabel.setText(conflict.orElse(""));
+            conflictLabel.setManaged(conflict.isPresent());
+            conflictLabel.setVisible(conflict.isPresent());
+            if (conflict.isEmpty()) {
+                result.set(appointment);
+                dialog.close();
             }
         });
 
@@ -118,8 +147,11 @@ public final class AppointmentEntryDialog {
                 clinicianField,
                 timeLabel,
                 timeField,
+                durationLabel,
+                durationField,
                 notesLabel,
-                notesField
+                notesField,
+                conflictLabel
         );
 
         VBox root = new VBox(14, header, form, actions);
@@ -128,7 +160,7 @@ public final class AppointmentEntryDialog {
         root.getStyleClass().add("dialog-root");
         VBox.setVgrow(form, Priority.ALWAYS);
 
-        Scene scene = new Scene(root, 440, 520);
+        Scene scene = new Scene(root, 440, 600);
         applyStyles(scene);
         dialog.setScene(scene);
         dialog.showAndWait();
@@ -1,20 +1,50 @@
 package com.example.clinic.ui;
 
+import com.example.clinic.data.ClinicDatabase;
+import com.example.clinic.data.PageQuery;
 import com.example.clinic.data.UserRepository;
+import com.example.clinic.data.WriteBehindQueue;
+import com.example.clinic.feed.FeedPipeline;
+import com.example.clinic.feed.StatusFeed;
+import com.example.clinic.feed.StatusUpdate;
+import com.example.clinic.inventory.InventoryLedger;
+import com.example.clinic.inventory.ReorderEngine;
+import com.example.clinic.inventory.ReorderSuggestion;
+import com.example.clinic.journal.ClinicEvent;
+import com.example.clinic.journal.ClinicJournal;
 import com.example.clinic.model.AppUser;
 import com.example.clinic.model.InventoryItem;
 import com.example.clinic.model.PatientRecord;
+import com.example.clinic.model.StockMovement;
 import com.example.clinic.model.Appointment;
+import com.example.clinic.schedule.AppointmentCalendar;
+import com.example.clinic.schedule.AppointmentIndex;
+import com.example.clinic.schedule.Booking;
+import com.example.clinic.search.ClinicSearch;
+import com.example.clinic.search.SearchIndex;
+import com.example.clinic.stats.ClinicStatistics;
+import com.example.clinic.status.StatusEvent;
+import com.example.clinic.status.StatusHistory;
+import com.example.clinic.status.StatusRing;
+import com.example.clinic.service.PasswordHashingService;
 import com.example.clinic.settings.SettingsStore;
 import com.example.clinic.ui.PatientEntryDialog;
 import com.example.clinic.ui.InventoryEntryDialog;
 import com.example.clinic.ui.AppointmentEntryDialog;
 import com.example.clinic.util.CsvExporter;
+import com.example.clinic.util.CsvImporter;
+import com.example.clinic.ui.ExportJobScheduler.ExportJob;
+import com.sun.management.ThreadMXBean;
 import javafx.animation.KeyFrame;
 import javafx.animation.FadeTransition;
 import javafx.animation.Timeline;
+import javafx.application.Platform;
+import javafx.beans.binding.Bindings;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.beans.value.ObservableValue;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.collections.ObservableMap;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Node;
@@ -22,13 +52,15 @@ import javafx.scene.Scene;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
 import javafx.scene.control.ButtonType;
+import javafx.scene.control.ComboBox;
 import javafx.scene.control.Label;
 import javafx.scene.control.ListCell;
 import javafx.scene.control.ListView;
+import javafx.scene.control.ProgressBar;
 import javafx.scene.control.TableCell;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
-import javafx.scene.control.cell.PropertyValueFactory;
+import javafx.scene.control.TextField;
 import javafx.scene.control.ScrollPane;
 import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.HBox;
@@ -40,82 +72,167 @@ import javafx.scene.paint.Color;
 import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
 import javafx.scene.text.Text;
+import javafx.stage.FileChooser;
 import javafx.stage.Stage;
-import javafx.util.Duration;
+import javafx.util.Callback;
 
-import java.io.IOException;
+import java.io.File;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
 import java.nio.file.Path;
-import java.time.LocalTime;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 public class DashboardView {
+    private static final System.Logger LOG = System.getLogger(DashboardView.class.getName());
+    private static final int PAGE_SIZE = 200;
+    private static final int CACHED_PAGES = 12;
+    private static final String ALL_STATUSES = "All statuses";
+    private static final int STATUS_FEED_CAPACITY = 50;
+    private static final int HISTORY_PAGE_SIZE = 100;
+    private static final String ALL_TYPES = "All types";
+    private static final Map<String, Duration> HISTORY_RANGES = new LinkedHashMap<>();
+
+    static {
+        HISTORY_RANGES.put("Last hour", Duration.ofHours(1));
+        HISTORY_RANGES.put("Last 24 hours", Duration.ofDays(1));
+        HISTORY_RANGES.put("Last 7 days", Duration.ofDays(7));
+        HISTORY_RANGES.put("All time", null);
+    }
+    private static final boolean NAV_TIMING = Boolean.getBoolean("clinic.ui.navTiming");
+
     private final UserRepository repository;
+    private final ClinicDatabase clinic;
+    private final ClinicJournal journal;
+    private final AppointmentIndex appointmentIndex;
+    private final AppointmentCalendar calendar;
+    private final ClinicSearch search;
+    private final ClinicStatistics statistics;
+    private final ReorderEngine reorderEngine;
+    private final InventoryLedger ledger;
+    private final StatusHistory statusHistory;
+    private final PasswordHashingService hashingService;
     private final SettingsStore settingsStore;
     private final Runnable logoutAction;
     private final ObservableList<AppUser> users = FXCollections.observableArrayList();
-    private final ObservableList<PatientRecord> patients = FXCollections.observableArrayList();
-    private final ObservableList<InventoryItem> inventoryItems = FXCollections.observableArrayList();
-    private final ObservableList<Appointment> appointments = FXCollections.observableArrayList();
-    private final ObservableList<String> statusMessages = FXCollections.observableArrayList();
+    private final ExecutorService pageLoader = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "table-page-loader");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final PagedTableSource<PatientRecord> patients;
+    private final PagedTableSource<InventoryItem> inventoryItems;
+    private final PagedTableSource<Appointment> appointments;
+    private final StatusRing statusEvents = new StatusRing(STATUS_FEED_CAPACITY);
+    private final ObservableList<StatusEvent> historyEvents = FXCollections.observableArrayList();
+    private final ObservableList<Appointment> calendarAppointments = FXCollections.observableArrayList();
+    private final ObservableList<String> reorderQueue = FXCollections.observableArrayList();
 
     private final Text activePatientsValue = new Text();
     private final Text lowInventoryValue = new Text();
     private final Text staffOnDutyValue = new Text();
+    private final Label patientBreakdown = new Label();
+    private final Label writeQueueStatus = new Label();
+    private final Label calendarSummary = new Label();
+    private LocalDate calendarDate = LocalDate.now();
+    private String calendarSpan = "Week";
+    private String calendarClinician = "";
+    private String historyType = ALL_TYPES;
+    private String historyRange = "Last 24 hours";
 
     private final StackPane mainArea = new StackPane();
+    private final ViewRegistry views = new ViewRegistry(2);
+    private final VBox overviewLeft = new VBox(14);
+    private final VBox overviewRight = new VBox(14);
     private Button activeNavButton;
     private AppUser loggedIn;
     private Stage primaryStage;
     private TableView<PatientRecord> patientTable;
     private TableView<InventoryItem> inventoryTable;
     private TableView<Appointment> appointmentTable;
+    private TextField patientSearchField;
+    private TextField appointmentSearchField;
+    private TextField inventorySearchField;
     private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm:ss");
     private static final DateTimeFormatter APPT_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
-    private final Random random = new Random();
     private final Timeline realtimeTimeline = createRealtimeTimeline();
-
-    public DashboardView(UserRepository repository, SettingsStore settingsStore, Runnable logoutAction) {
+    private final ExportJobScheduler exportScheduler = new ExportJobScheduler(2);
+    private final FeedPipeline feedPipeline = FeedPipeline.fromSystemProperties();
+    private StatusFeed statusFeed;
+    private final UpdateCoalescer<String, StatusUpdate> statusUpdates = new UpdateCoalescer<>(
+            "patient-status-coalescer", StatusUpdate::patientId, this::applyStatusUpdates, Platform::runLater);
+
+    public DashboardView(UserRepository repository, ClinicDatabase clinic, ClinicJournal journal,
+                         AppointmentIndex appointmentIndex, AppointmentCalendar calendar, ClinicSearch search,
+                         ClinicStatistics statistics, ReorderEngine reorderEngine, InventoryLedger ledger,
+                         StatusHistory statusHistory, PasswordHashingService hashingService,
+                         SettingsStore settingsStore, Runnable logoutAction) {
         this.repository = repository;
+        this.clinic = clinic;
+        this.journal = journal;
+        this.appointmentIndex = appointmentIndex;
+        this.calendar = calendar;
+        this.search = search;
+        this.statistics = statistics;
+        this.reorderEngine = reorderEngine;
+        this.ledger = ledger;
+        this.statusHistory = statusHistory;
+        this.hashingService = hashingService;
         this.settingsStore = settingsStore;
         this.logoutAction = logoutAction;
+        this.patients = new PagedTableSource<>(clinic.patients(), PatientRecord::getId, PageQuery.orderedBy("name"),
+                PAGE_SIZE, CACHED_PAGES, pageLoader);
+        this.inventoryItems = new PagedTableSource<>(clinic.inventory(), InventoryItem::getId,
+                PageQuery.orderedBy("name"), PAGE_SIZE, CACHED_PAGES, pageLoader);
+        this.appointments = new PagedTableSource<>(clinic.appointments(), Appointment::getId,
+                PageQuery.orderedBy("scheduled_at"), PAGE_SIZE, CACHED_PAGES, pageLoader);
         initializeSampleData();
+        registerViews();
+        bindStats();
+        reorderEngine.setListener(this::announceReorder);
+        refreshReorderQueue();
     }
 
     private void initializeSampleData() {
-        patients.setAll(
-                new PatientRecord("Mara Vega", "Stable - Monitoring", "Room 112"),
-                new PatientRecord("Hector Liao", "Critical - Ventilated", "Room 204"),
-                new PatientRecord("Priya Sen", "Recovery - Physical", "Room 305"),
-                new PatientRecord("Elena Brooks", "Observation - Neonatal", "Room 118"),
-                new PatientRecord("Ravi Patel", "Pre-op - Clearing", "Room 402")
-        );
-
-        inventoryItems.setAll(
-                new InventoryItem("INV-420115", "Surgical Masks", 320, 0.35, "Healthy"),
-                new InventoryItem("INV-420116", "Intravenous Sets", 78, 4.80, "Reorder soon"),
-                new InventoryItem("INV-420117", "Standard Syringes", 610, 0.85, "Healthy"),
-                new InventoryItem("INV-420118", "Isolation Gowns", 42, 6.25, "Critical"),
-                new InventoryItem("INV-420119", "Defibrillator Pads", 6, 12.00, "Critical")
-        );
-
-        appointments.setAll(
-                new Appointment("APT-301100", "Mara Vega", "Dr. Carter", LocalDateTime.now().plusHours(3), "Post-op check"),
-                new Appointment("APT-301101", "Hector Liao", "Nurse Samuels", LocalDateTime.now().plusHours(6), "Ventilator check"),
-                new Appointment("APT-301102", "Priya Sen", "Dr. Ortega", LocalDateTime.now().plusDays(1), "Therapy consult")
-        );
-
-        statusMessages.setAll(
-                "Emergency wing stabilized: 4 beds cleared",
-                "Night shift prepping ICU for new admit",
-                "Pharmacy flagged 8 meds for audit",
-                "Inventory alerts synced with CSV exports",
-                "Telemetry: Vitals stream stable across wards",
-                "Staff rota refreshed at 21:00"
-        );
+        // the feed reopens where the last session left it; only a new history gets the samples
+        List<StatusEvent> recent = statusHistory.page(EnumSet.allOf(StatusEvent.Type.class), 0, Long.MAX_VALUE,
+                Long.MAX_VALUE, statusEvents.capacity());
+        for (int i = recent.size() - 1; i >= 0; i--) {
+            statusEvents.push(recent.get(i));
+        }
+        if (recent.isEmpty()) {
+            for (String notice : List.of(
+                    "Staff rota refreshed at 21:00",
+                    "Telemetry: Vitals stream stable across wards",
+                    "Inventory alerts synced with CSV exports",
+                    "Pharmacy flagged 8 meds for audit",
+                    "Night shift prepping ICU for new admit",
+                    "Emergency wing stabilized: 4 beds cleared")) {
+                postStatus(StatusEvent.Type.NOTICE, notice);
+            }
+        }
     }
 
     public void start(Stage stage, AppUser currentUser) {
@@ -162,7 +279,15 @@ public class DashboardView {
         stage.setMaximized(true);
         stage.setResizable(true);
         realtimeTimeline.play();
-        stage.setOnCloseRequest(event -> realtimeTimeline.stop());
+        startStatusFeed();
+        stage.setOnCloseRequest(event -> {
+            realtimeTimeline.stop();
+            exportScheduler.shutdown();
+            statusFeed.close();
+            feedPipeline.close();
+            statusUpdates.shutdown();
+            pageLoader.shutdown();
+        });
         stage.show();
     }
 
@@ -170,12 +295,13 @@ public class DashboardView {
         Button overviewBtn = createNavButton("overview", "Overview");
         Button patientsBtn = createNavButton("patients", "Patients");
         Button appointmentsBtn = createNavButton("appointments", "Appointments");
+        Button calendarBtn = createNavButton("calendar", "Calendar");
         Button inventoryBtn = createNavButton("inventory", "Inventory");
         Button statusBtn = createNavButton("status", "Status");
         Button reportsBtn = createNavButton("reports", "Reports");
         Button settingsBtn = createNavButton("settings", "Settings");
 
-        HBox nav = new HBox(10, overviewBtn, patientsBtn, appointmentsBtn, inventoryBtn, statusBtn, reportsBtn, settingsBtn);
+        HBox nav = new HBox(10, overviewBtn, patientsBtn, appointmentsBtn, calendarBtn, inventoryBtn, statusBtn, reportsBtn, settingsBtn);
         nav.setAlignment(Pos.CENTER_LEFT);
         activateNav(overviewBtn);
         return nav;
@@ -202,21 +328,58 @@ public class DashboardView {
         }
     }
 
+    /**
+     * Sections the dashboard holds fields into (tables, search boxes, live labels) are pinned; the
+     * status feed and reports are cheap to rebuild, so they may be released.
+     */
+    private void registerViews() {
+        views.register("overview", this::buildOverviewView, true);
+        views.register("patients", this::buildPatientsView, true);
+        views.register("appointments", this::buildAppointmentsView, true);
+        views.register("calendar", this::buildCalendarView, true);
+        views.register("inventory", this::buildInventoryView, true);
+        views.register("status", this::buildStatusView, false);
+        views.register("reports", this::buildReportsView, false);
+        views.register("settings", this::buildSettingsView, true);
+    }
+
     private void navigateTo(String id) {
-        Node target = switch (id) {
-            case "patients" -> buildPatientsView();
-            case "appointments" -> buildAppointmentsView();
-            case "inventory" -> buildInventoryView();
-            case "status" -> buildStatusView();
-            case "reports" -> buildReportsView();
-            case "settings" -> buildSettingsView();
-            default -> buildOverviewView();
-        };
+        long started = NAV_TIMING ? System.nanoTime() : 0;
+        long allocated = NAV_TIMING ? allocatedBytes() : 0;
+        int builds = views.builds();
+        String section = views.isRegistered(id) ? id : "overview";
+        boolean reused = views.isBuilt(section);
+        if (section.equals("overview")) {
+            // the overview shows the other sections themselves, so they move in and out of it
+            overviewLeft.getChildren().setAll(views.get("patients"), views.get("appointments"), views.get("status"));
+            overviewRight.getChildren().setAll(views.get("inventory"), views.get("reports"), views.get("settings"));
+        } else {
+            overviewLeft.getChildren().clear();
+            overviewRight.getChildren().clear();
+        }
+        Node target = views.get(section);
+        if (reused && section.equals("calendar")) {
+            showCalendarPage();
+        }
         mainArea.getChildren().setAll(target);
-        FadeTransition fade = new FadeTransition(Duration.millis(250), target);
+        FadeTransition fade = new FadeTransition(javafx.util.Duration.millis(250), target);
         fade.setFromValue(0);
         fade.setToValue(1);
         fade.play();
+        if (NAV_TIMING) {
+            mainArea.applyCss();
+            mainArea.layout();
+            long elapsed = System.nanoTime() - started;
+            long bytes = allocatedBytes() - allocated;
+            int built = views.builds() - builds;
+            LOG.log(System.Logger.Level.INFO, () -> String.format(
+                    "navigate %-12s %7.2f ms %,10d bytes allocated, %d sections built", section, elapsed / 1e6, bytes,
+                    built));
+        }
+    }
+
+    private static long allocatedBytes() {
+        return ((ThreadMXBean) ManagementFactory.getThreadMXBean()).getCurrentThreadAllocatedBytes();
     }
 
     private RoundedPane buildHeroSection() {
@@ -243,6 +406,10 @@ public class DashboardView {
         exportUsers.getStyleClass().add("secondary-button");
         exportUsers.setOnAction(e -> exportUsers());
 
+        Button importUsers = new Button("Import Users");
+        importUsers.getStyleClass().add("secondary-button");
+        importUsers.setOnAction(e -> importUsers());
+
         Button clearSettings = new Button("Clear Settings");
         clearSettings.getStyleClass().add("danger-button");
         clearSettings.setOnAction(e -> {
@@ -250,7 +417,7 @@ public class DashboardView {
             info("Settings cleared", "Settings JSON has been reset.");
         });
 
-        actions.getChildren().addAll(addEmployee, exportUsers, clearSettings);
+        actions.getChildren().addAll(addEmployee, importUsers, exportUsers, clearSettings);
 
         Region spacer = new Region();
         HBox.setHgrow(spacer, Priority.ALWAYS);
@@ -275,7 +442,30 @@ public class DashboardView {
                 createStatCard("Low Inventory", lowInventoryValue, "#f3ba4d"),
                 createStatCard("Staff On Duty", staffOnDutyValue, "#5865f2")
         );
-        return row;
+        return new VBox(8, row, patientBreakdown);
+    }
+
+    private void bindStats() {
+        patientBreakdown.getStyleClass().add("muted-text");
+        statistics.trackStaff(users);
+        activePatientsValue.textProperty().bind(statistics.activePatientsProperty().asString());
+        lowInventoryValue.textProperty().bind(statistics.lowStockProperty().asString("%d critical items"));
+        staffOnDutyValue.textProperty().bind(statistics.staffProperty().asString());
+        ObservableMap<String, Integer> byStatus = statistics.getByStatus();
+        ObservableMap<String, Integer> byWard = statistics.getByWard();
+        patientBreakdown.textProperty().bind(Bindings.createStringBinding(
+                () -> "By status: " + formatCounts(byStatus) + "    By ward: " + formatCounts(byWard),
+                byStatus, byWard));
+    }
+
+    private static String formatCounts(Map<String, Integer> counts) {
+        if (counts.isEmpty()) {
+            return "none";
+        }
+        StringBuilder text = new StringBuilder();
+        counts.forEach((key, count) -> text.append(text.length() > 0 ? ", " : "").append(key).append(' ')
+                .append(count));
+        return text.toString();
     }
 
     private Node buildOverviewView() {
@@ -288,23 +478,11 @@ public class DashboardView {
     }
 
     private Node buildContentGrid() {
-        VBox leftColumn = new VBox(14,
-                buildPatientsView(),
-                buildAppointmentsView(),
-                buildStatusView()
-        );
-
-        VBox rightColumn = new VBox(14,
-                buildInventoryView(),
-                buildReportsView(),
-                buildSettingsView()
-        );
-
-        HBox grid = new HBox(14, leftColumn, rightColumn);
-        HBox.setHgrow(leftColumn, Priority.ALWAYS);
-        HBox.setHgrow(rightColumn, Priority.SOMETIMES);
-        leftColumn.setPrefWidth(720);
-        rightColumn.setPrefWidth(420);
+        HBox grid = new HBox(14, overviewLeft, overviewRight);
+        HBox.setHgrow(overviewLeft, Priority.ALWAYS);
+        HBox.setHgrow(overviewRight, Priority.SOMETIMES);
+        overviewLeft.setPrefWidth(720);
+        overviewRight.setPrefWidth(420);
         return grid;
     }
 
@@ -338,14 +516,22 @@ public class DashboardView {
         heading.setFont(Font.font("Segoe UI", FontWeight.BOLD, 20));
         heading.getStyleClass().add("section-heading");
 
-        VBox layout = new VBox(12, heading, patientTable, actions);
+        patientSearchField = createSearchField("Search name, room or status", patientTable, patients,
+                search.patients());
+        ComboBox<String> statusFilter = createStatusFilter(patients,
+                () -> new TreeSet<>(statistics.getByStatus().keySet()));
+        HBox filters = new HBox(10, patientSearchField, statusFilter);
+        HBox.setHgrow(patientSearchField, Priority.ALWAYS);
+
+        VBox layout = new VBox(12, heading, filters, patientTable, actions);
         layout.setAlignment(Pos.TOP_LEFT);
         VBox.setVgrow(patientTable, Priority.ALWAYS);
         return createSectionCard(layout);
     }
 
     private Node buildAppointmentsView() {
-        appointmentTable = createAppointmentTable();
+        appointmentTable = createAppointmentTable(appointments);
+        sortOnServer(appointmentTable, appointments);
 
         Button addButton = new Button("New Appointment");
         addButton.getStyleClass().add("primary-button");
@@ -366,7 +552,10 @@ public class DashboardView {
         heading.setFont(Font.font("Segoe UI", FontWeight.BOLD, 20));
         heading.getStyleClass().add("section-heading");
 
-        VBox layout = new VBox(12, heading, appointmentTable, actions);
+        appointmentSearchField = createSearchField("Search patient, clinician or notes", appointmentTable,
+                appointments, search.appointments());
+
+        VBox layout = new VBox(12, heading, appointmentSearchField, appointmentTable, actions);
         layout.setAlignment(Pos.TOP_LEFT);
         VBox.setVgrow(appointmentTable, Priority.ALWAYS);
         return createSectionCard(layout);
@@ -391,15 +580,159 @@ public class DashboardView {
         deleteButton.getStyleClass().add("danger-button");
         deleteButton.setOnAction(e -> removeInventoryItem());
 
-        HBox actions = new HBox(10, addButton, editButton, deleteButton);
+        Button movementButton = new Button("Record Movement");
+        movementButton.getStyleClass().add("secondary-button");
+        movementButton.setOnAction(e -> recordStockMovement());
+
+        HBox actions = new HBox(10, addButton, editButton, movementButton, deleteButton);
         actions.setAlignment(Pos.CENTER_LEFT);
 
-        VBox view = new VBox(12, heading, inventoryTable, actions);
+        inventorySearchField = createSearchField("Search item ID or name", inventoryTable, inventoryItems,
+                search.inventory());
+        ComboBox<String> statusFilter = createStatusFilter(inventoryItems, () -> InventoryEntryDialog.STATUSES);
+        HBox filters = new HBox(10, inventorySearchField, statusFilter);
+        HBox.setHgrow(inventorySearchField, Priority.ALWAYS);
+
+        Label reorderHeading = new Label("Reorder queue (fewest days of cover first)");
+        reorderHeading.getStyleClass().add("muted-label");
+        ListView<String> reorderList = new ListView<>(reorderQueue);
+        reorderList.setPrefHeight(120);
+        reorderList.setPlaceholder(new Label("Nothing to reorder"));
+
+        VBox view = new VBox(12, heading, filters, inventoryTable, actions, reorderHeading, reorderList);
         view.setAlignment(Pos.TOP_LEFT);
         VBox.setVgrow(inventoryTable, Priority.ALWAYS);
         return createSectionCard(view);
     }
 
+    private Node buildCalendarView() {
+        Text heading = new Text("Calendar");
+        heading.setFont(Font.font("Segoe UI", FontWeight.BOLD, 20));
+        heading.getStyleClass().add("section-heading");
+
+        ComboBox<String> spanBox = new ComboBox<>(FXCollections.observableArrayList("Day", "Week", "Month"));
+        spanBox.setValue(calendarSpan);
+        spanBox.setOnAction(e -> {
+            calendarSpan = spanBox.getValue();
+            showCalendarPage();
+        });
+
+        TextField clinicianField = new TextField(calendarClinician);
+        clinicianField.setPromptText("All clinicians");
+        clinicianField.getStyleClass().add("input-field");
+        clinicianField.setOnAction(e -> {
+            calendarClinician = clinicianField.getText().trim();
+            showCalendarPage();
+        });
+
+        Button previous = new Button("Previous");
+        previous.getStyleClass().add("ghost-button");
+        previous.setOnAction(e -> shiftCalendar(-1));
+
+        Button today = new Button("Today");
+        today.getStyleClass().add("secondary-button");
+        today.setOnAction(e -> {
+            calendarDate = LocalDate.now();
+            showCalendarPage();
+        });
+
+        Button next = new Button("Next");
+        next.getStyleClass().add("ghost-button");
+        next.setOnAction(e -> shiftCalendar(1));
+
+        Button moreButton = new Button("Load More");
+        moreButton.getStyleClass().add("ghost-button");
+        moreButton.setOnAction(e -> {
+            LocalDate[] range = calendarRange();
+            List<Appointment> page = calendar.page(range[0], range[1], calendarClinician,
+                    calendarAppointments.size(), PAGE_SIZE);
+            calendarAppointments.addAll(page);
+            updateCalendarSummary(range);
+            if (page.size() < PAGE_SIZE) {
+                info("All loaded", "Showing all " + calendarAppointments.size() + " appointments.");
+            }
+        });
+
+        HBox controls = new HBox(10, spanBox, previous, today, next, clinicianField);
+        controls.setAlignment(Pos.CENTER_LEFT);
+
+        calendarSummary.getStyleClass().add("muted-text");
+        TableView<Appointment> table = createAppointmentTable(calendarAppointments);
+        showCalendarPage();
+
+        VBox layout = new VBox(12, heading, controls, calendarSummary, table, moreButton);
+        layout.setAlignment(Pos.TOP_LEFT);
+        VBox.setVgrow(table, Priority.ALWAYS);
+        return createSectionCard(layout);
+    }
+
+    private void shiftCalendar(int direction) {
+        calendarDate = switch (calendarSpan) {
+            case "Day" -> calendarDate.plusDays(direction);
+            case "Month" -> calendarDate.plusMonths(direction);
+            default -> calendarDate.plusWeeks(direction);
+        };
+        showCalendarPage();
+    }
+
+    private LocalDate[] calendarRange() {
+        return switch (calendarSpan) {
+            case "Day" -> new LocalDate[]{calendarDate, calendarDate.plusDays(1)};
+            case "Month" -> {
+                LocalDate first = calendarDate.withDayOfMonth(1);
+                yield new LocalDate[]{first, first.plusMonths(1)};
+            }
+            default -> {
+                LocalDate monday = calendarDate.with(DayOfWeek.MONDAY);
+                yield new LocalDate[]{monday, monday.plusWeeks(1)};
+            }
+        };
+    }
+
+    private void showCalendarPage() {
+        LocalDate[] range = calendarRange();
+        calendarAppointments.setAll(calendar.page(range[0], range[1], calendarClinician, 0, PAGE_SIZE));
+        updateCalendarSummary(range);
+    }
+
+    private void updateCalendarSummary(LocalDate[] range) {
+        int total = calendar.count(range[0], range[1], calendarClinician);
+        String who = calendarClinician.isEmpty() ? "all clinicians" : calendarClinician;
+        calendarSummary.setText(range[0] + " to " + range[1].minusDays(1) + " for " + who + ": showing "
+                + calendarAppointments.size() + " of " + total + " appointments");
+    }
+
+    /**
+     * A type-ahead box over every record, not just the loaded pages; clearing it shows the pages
+     * again.
+     */
+    private <T> TextField createSearchField(String prompt, TableView<T> table, ObservableList<T> loaded,
+                                            SearchIndex<T> index) {
+        TextField field = new TextField();
+        field.setPromptText(prompt);
+        field.getStyleClass().add("input-field");
+        field.textProperty().addListener((obs, old, text) -> applySearch(field, table, loaded, index));
+        return field;
+    }
+
+    private <T> void applySearch(TextField field, TableView<T> table, ObservableList<T> loaded, SearchIndex<T> index) {
+        if (field == null || table == null) {
+            return;
+        }
+        String query = field.getText().trim();
+        if (query.isEmpty()) {
+            table.setItems(loaded);
+        } else {
+            table.setItems(FXCollections.observableArrayList(index.search(query, PAGE_SIZE)));
+        }
+    }
+
+    private void refreshSearchResults() {
+        applySearch(patientSearchField, patientTable, patients, search.patients());
+        applySearch(appointmentSearchField, appointmentTable, appointments, search.appointments());
+        applySearch(inventorySearchField, inventoryTable, inventoryItems, search.inventory());
+    }
+
     private Node buildStatusView() {
         Text heading = new Text("Live Status Feed");
         heading.setFont(Font.font("Segoe UI", FontWeight.BOLD, 20));
@@ -409,7 +742,7 @@ public class DashboardView {
         exportStatus.getStyleClass().add("secondary-button");
         exportStatus.setOnAction(e -> exportStatusSnapshot());
 
-        VBox view = new VBox(12, heading, buildStatusList(), exportStatus);
+        VBox view = new VBox(12, heading, buildStatusList(), exportStatus, buildStatusHistory());
         view.setAlignment(Pos.TOP_LEFT);
         return createSectionCard(view);
     }
@@ -427,18 +760,108 @@ public class DashboardView {
         generateButton.getStyleClass().add("primary-button");
         generateButton.setOnAction(e -> generateReports());
 
-        VBox view = new VBox(10, heading, label, generateButton);
+        Button ledgerButton = new Button("Export Stock Ledger");
+        ledgerButton.getStyleClass().add("secondary-button");
+        ledgerButton.setOnAction(e -> exportStockLedger());
+
+        HBox actions = new HBox(10, generateButton, ledgerButton);
+        actions.setAlignment(Pos.CENTER_LEFT);
+
+        VBox view = new VBox(10, heading, label, actions, buildExportJobList());
         view.setAlignment(Pos.TOP_LEFT);
         return createSectionCard(view);
     }
 
+    private ListView<ExportJob> buildExportJobList() {
+        ListView<ExportJob> jobList = new ListView<>(exportScheduler.getJobs());
+        jobList.setPrefHeight(120);
+        jobList.setPlaceholder(new Label("No exports running"));
+        jobList.setCellFactory(listView -> new ListCell<>() {
+            private final Label name = new Label();
+            private final ProgressBar progress = new ProgressBar();
+            private final Label rows = new Label();
+            private final Button cancel = new Button("Cancel");
+            private final HBox layout = new HBox(10, name, progress, rows, cancel);
+
+            {
+                layout.setAlignment(Pos.CENTER_LEFT);
+                progress.setPrefWidth(140);
+                rows.getStyleClass().add("muted-text");
+                cancel.getStyleClass().add("ghost-button");
+            }
+
+            @Override
+            protected void updateItem(ExportJob job, boolean empty) {
+                super.updateItem(job, empty);
+                progress.progressProperty().unbind();
+                rows.textProperty().unbind();
+                if (empty || job == null) {
+                    setGraphic(null);
+                    return;
+                }
+                name.setText(job.getName());
+                progress.progressProperty().bind(job.progressProperty());
+                rows.textProperty().bind(job.messageProperty());
+                cancel.setOnAction(e -> job.cancel());
+                setGraphic(layout);
+            }
+        });
+        return jobList;
+    }
+
     private void generateReports() {
-        try {
-            Path patientsPath = CsvExporter.exportPatients(patients);
-            Path usersPath = CsvExporter.exportUsers(repository.findAll());
-            info("Reports generated", "Patients: " + patientsPath.toAbsolutePath() + "\nUsers: " + usersPath.toAbsolutePath());
-        } catch (IOException e) {
-            error("Reports failed", "Unable to generate reports: " + e.getMessage());
+        CompletableFuture<Path> patientsExport = submitPatientExport("Patients report").completion();
+        CompletableFuture<Path> usersExport = submitUserExport("Users report").completion();
+        patientsExport.thenCombine(usersExport, (patientsPath, usersPath) ->
+                        "Patients: " + patientsPath.toAbsolutePath() + "\nUsers: " + usersPath.toAbsolutePath())
+                .whenComplete((summary, failure) -> {
+                    if (failure != null) {
+                        exportFailed("Reports failed", "Unable to generate reports: ", failure);
+                    } else {
+                        info("Reports generated", summary);
+                    }
+                });
+    }
+
+    private ExportJob submitPatientExport(String name) {
+        // counted on the export thread after the flush, like the stock ledger
+        return exportScheduler.submit(name, -1,
+                progress -> {
+                    clinic.patientWrites().flush();
+                    progress.rowsExpected(clinic.patients().count());
+                    return CsvExporter.exportPatients(clinic.patients().iterateAll(), progress);
+                });
+    }
+
+    private void exportStockLedger() {
+        // counted on the export thread after the flush, so the FX thread never waits on the table
+        exportScheduler.submit("Stock ledger", -1,
+                        progress -> {
+                            clinic.movementWrites().flush();
+                            progress.rowsExpected(clinic.movements().count());
+                            return CsvExporter.exportLedger(clinic.movements().iterateAll(), progress);
+                        })
+                .completion()
+                .whenComplete((exported, failure) -> {
+                    if (failure != null) {
+                        exportFailed("Export failed", "Unable to write stock ledger: ", failure);
+                    } else {
+                        info("Export completed", "Stock ledger saved to " + exported.toAbsolutePath());
+                    }
+                });
+    }
+
+    private ExportJob submitUserExport(String name) {
+        return exportScheduler.submit(name, users.size(),
+                progress -> CsvExporter.exportUsers(repository.findAll().iterator(), progress));
+    }
+
+    private void exportFailed(String title, String prefix, Throwable failure) {
+        Throwable cause = failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+        if (cause instanceof CancellationException) {
+            info("Export cancelled", cause.getMessage());
+        } else {
+            error(title, prefix + rootMessage(cause));
         }
     }
 
@@ -462,7 +885,10 @@ public class DashboardView {
         logoutButton.getStyleClass().add("secondary-button");
         logoutButton.setOnAction(e -> logout());
 
-        VBox view = new VBox(12, heading, clearSettingsButton, resetPasswordButton, logoutButton);
+        writeQueueStatus.getStyleClass().add("muted-text");
+        refreshWriteQueueStatus();
+
+        VBox view = new VBox(12, heading, clearSettingsButton, resetPasswordButton, logoutButton, writeQueueStatus);
         view.setAlignment(Pos.TOP_LEFT);
         return createSectionCard(view);
     }
@@ -472,35 +898,43 @@ public class DashboardView {
         table.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
 
         TableColumn<PatientRecord, String> nameColumn = new TableColumn<>("Patient");
-        nameColumn.setCellValueFactory(new PropertyValueFactory<>("name"));
+        nameColumn.setCellValueFactory(cellValue(PatientRecord::getName));
+        nameColumn.setUserData("name");
 
         TableColumn<PatientRecord, String> statusColumn = new TableColumn<>("Status");
-        statusColumn.setCellValueFactory(new PropertyValueFactory<>("status"));
+        statusColumn.setCellValueFactory(cellValue(PatientRecord::getStatus));
+        statusColumn.setUserData("status");
 
         TableColumn<PatientRecord, String> roomColumn = new TableColumn<>("Room");
-        roomColumn.setCellValueFactory(new PropertyValueFactory<>("room"));
+        roomColumn.setCellValueFactory(cellValue(PatientRecord::getRoom));
+        roomColumn.setUserData("room");
 
         table.getColumns().addAll(nameColumn, statusColumn, roomColumn);
         table.setPlaceholder(new Label("No patient records yet"));
         table.setPrefHeight(280);
+        sortOnServer(table, patients);
         return table;
     }
 
-    private TableView<Appointment> createAppointmentTable() {
-        TableView<Appointment> table = new TableView<>(appointments);
+    private TableView<Appointment> createAppointmentTable(ObservableList<Appointment> items) {
+        TableView<Appointment> table = new TableView<>(items);
         table.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
 
         TableColumn<Appointment, String> idColumn = new TableColumn<>("ID");
-        idColumn.setCellValueFactory(new PropertyValueFactory<>("id"));
+        idColumn.setCellValueFactory(cellValue(Appointment::getId));
+        idColumn.setUserData("id");
 
         TableColumn<Appointment, String> patientColumn = new TableColumn<>("Patient");
-        patientColumn.setCellValueFactory(new PropertyValueFactory<>("patientName"));
+        patientColumn.setCellValueFactory(cellValue(Appointment::getPatientName));
+        patientColumn.setUserData("patient_name");
 
         TableColumn<Appointment, String> clinicianColumn = new TableColumn<>("Clinician");
-        clinicianColumn.setCellValueFactory(new PropertyValueFactory<>("clinician"));
+        clinicianColumn.setCellValueFactory(cellValue(Appointment::getClinician));
+        clinicianColumn.setUserData("clinician");
 
         TableColumn<Appointment, LocalDateTime> timeColumn = new TableColumn<>("Scheduled");
-        timeColumn.setCellValueFactory(new PropertyValueFactory<>("scheduledAt"));
+        timeColumn.setCellValueFactory(cellValue(Appointment::getScheduledAt));
+        timeColumn.setUserData("scheduled_at");
         timeColumn.setCellFactory(col -> new TableCell<>() {
             @Override
             protected void updateItem(LocalDateTime value, boolean empty) {
@@ -509,10 +943,13 @@ public class DashboardView {
             }
         });
 
+        TableColumn<Appointment, Integer> durationColumn = new TableColumn<>("Minutes");
+        durationColumn.setCellValueFactory(cellValue(Appointment::getDurationMinutes));
+
         TableColumn<Appointment, String> notesColumn = new TableColumn<>("Notes");
-        notesColumn.setCellValueFactory(new PropertyValueFactory<>("notes"));
+        notesColumn.setCellValueFactory(cellValue(Appointment::getNotes));
 
-        table.getColumns().addAll(idColumn, patientColumn, clinicianColumn, timeColumn, notesColumn);
+        table.getColumns().addAll(idColumn, patientColumn, clinicianColumn, timeColumn, durationColumn, notesColumn);
         table.setPlaceholder(new Label("No appointments scheduled"));
         table.setPrefHeight(220);
         return table;
@@ -523,16 +960,20 @@ public class DashboardView {
         table.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
 
         TableColumn<InventoryItem, String> idColumn = new TableColumn<>("ID");
-        idColumn.setCellValueFactory(new PropertyValueFactory<>("id"));
+        idColumn.setCellValueFactory(cellValue(InventoryItem::getId));
+        idColumn.setUserData("id");
 
         TableColumn<InventoryItem, String> nameColumn = new TableColumn<>("Item");
-        nameColumn.setCellValueFactory(new PropertyValueFactory<>("name"));
+        nameColumn.setCellValueFactory(cellValue(InventoryItem::getName));
+        nameColumn.setUserData("name");
 
         TableColumn<InventoryItem, Integer> quantityColumn = new TableColumn<>("Qty");
-        quantityColumn.setCellValueFactory(new PropertyValueFactory<>("quantity"));
+        quantityColumn.setCellValueFactory(cellValue(InventoryItem::getQuantity));
+        quantityColumn.setUserData("quantity");
 
         TableColumn<InventoryItem, Double> priceColumn = new TableColumn<>("Price");
-        priceColumn.setCellValueFactory(new PropertyValueFactory<>("price"));
+        priceColumn.setCellValueFactory(cellValue(InventoryItem::getPrice));
+        priceColumn.setUserData("price");
         priceColumn.setCellFactory(col -> new TableCell<>() {
             @Override
             protected void updateItem(Double price, boolean empty) {
@@ -545,27 +986,96 @@ public class DashboardView {
             }
         });
 
+        TableColumn<InventoryItem, Integer> reorderColumn = new TableColumn<>("Reorder At");
+        reorderColumn.setCellValueFactory(cellValue(InventoryItem::getReorderLevel));
+
         TableColumn<InventoryItem, String> statusColumn = new TableColumn<>("Status");
-        statusColumn.setCellValueFactory(new PropertyValueFactory<>("status"));
+        statusColumn.setCellValueFactory(cellValue(InventoryItem::getStatus));
+        statusColumn.setUserData("status");
 
-        table.getColumns().addAll(idColumn, nameColumn, quantityColumn, priceColumn, statusColumn);
+        table.getColumns().addAll(idColumn, nameColumn, quantityColumn, priceColumn, reorderColumn, statusColumn);
         table.setPlaceholder(new Label("No inventory items yet"));
         table.setPrefHeight(220);
+        sortOnServer(table, inventoryItems);
         return table;
     }
 
+    /**
+     * A typed getter in place of a reflective {@code PropertyValueFactory}; a paged table can
+     * briefly hold an empty row, which shows as blank.
+     */
+    private static <S, V> Callback<TableColumn.CellDataFeatures<S, V>, ObservableValue<V>> cellValue(
+            Function<S, V> getter) {
+        return features -> new ReadOnlyObjectWrapper<>(
+                features.getValue() == null ? null : getter.apply(features.getValue()));
+    }
+
+    /**
+     * Sorting a paged table re-queries it in the chosen order. Only columns tagged with a database
+     * column, all indexed, are sortable. Search results are a plain list and still sort in memory.
+     */
+    private static <T> void sortOnServer(TableView<T> table, PagedTableSource<T> source) {
+        for (TableColumn<T, ?> column : table.getColumns()) {
+            column.setSortable(column.getUserData() != null);
+        }
+        PageQuery unsorted = source.getQuery();
+        table.setSortPolicy(view -> {
+            if (view.getItems() != source) {
+                return TableView.DEFAULT_SORT_POLICY.call(view);
+            }
+            PageQuery current = source.getQuery();
+            PageQuery next;
+            if (view.getSortOrder().isEmpty()) {
+                next = current.sortedBy(unsorted.orderBy(), unsorted.descending());
+            } else {
+                TableColumn<T, ?> column = view.getSortOrder().get(0);
+                next = current.sortedBy((String) column.getUserData(),
+                        column.getSortType() == TableColumn.SortType.DESCENDING);
+            }
+            if (!next.equals(current)) {
+                source.setQuery(next);
+            }
+            return true;
+        });
+    }
+
+    /**
+     * Narrows a paged table to rows whose status starts with the chosen value, in the query.
+     */
+    private static <T> ComboBox<String> createStatusFilter(PagedTableSource<T> source,
+                                                           Supplier<Collection<String>> statuses) {
+        ComboBox<String> filter = new ComboBox<>();
+        filter.getItems().add(ALL_STATUSES);
+        filter.getItems().addAll(statuses.get());
+        filter.setValue(ALL_STATUSES);
+        filter.getStyleClass().add("input-field");
+        filter.setOnShowing(e -> {
+            List<String> options = new ArrayList<>();
+            options.add(ALL_STATUSES);
+            options.addAll(statuses.get());
+            filter.getItems().setAll(options);
+        });
+        filter.setOnAction(e -> {
+            String status = filter.getValue();
+            source.setQuery(source.getQuery().filteredBy("status",
+                    status == null || status.equals(ALL_STATUSES) ? null : status));
+        });
+        return filter;
+    }
+
     private void addPatientRecord() {
         if (primaryStage == null) {
             return;
         }
-        Optional<PatientRecord> entry = PatientEntryDialog.request(primaryStage, null);
+        Optional<PatientRecord> entry = PatientEntryDialog.request(primaryStage, null, clinic.patientIds());
         entry.ifPresent(patient -> {
-            patients.add(patient);
-            statusMessages.add(0, "Admitted " + patient.getName() + " to " + patient.getRoom() + ".");
-            if (statusMessages.size() > 12) {
-                statusMessages.remove(statusMessages.size() - 1);
-            }
-            refreshStats();
+            clinic.patientWrites().save(patient);
+            journal.append(new ClinicEvent.PatientAdmitted(patient));
+            search.patients().put(patient);
+            statistics.putPatient(patient);
+            refreshSearchResults();
+            patients.reloadAfter(clinic.patientWrites()::flush);
+            postStatus(StatusEvent.Type.PATIENT, "Admitted " + patient.getName() + " to " + patient.getRoom() + ".");
             info("Patient created", patient.getName() + " has been admitted.");
         });
     }
@@ -579,17 +1089,18 @@ public class DashboardView {
             info("Select patient", "Please choose a patient first.");
             return;
         }
-        Optional<PatientRecord> updated = PatientEntryDialog.request(primaryStage, selected);
+        Optional<PatientRecord> updated = PatientEntryDialog.request(primaryStage, selected, selected::getId);
         if (updated.isEmpty()) {
             return;
         }
         PatientRecord updatedRecord = updated.get();
-        int index = patients.indexOf(selected);
-        if (index >= 0) {
-            patients.set(index, updatedRecord);
-            refreshStats();
-            info("Patient updated", "Record for " + updatedRecord.getName() + " has been updated.");
-        }
+        clinic.patientWrites().save(updatedRecord);
+        journal.append(new ClinicEvent.PatientUpdated(updatedRecord));
+        search.patients().put(updatedRecord);
+        statistics.putPatient(updatedRecord);
+        refreshSearchResults();
+        patients.replace(updatedRecord);
+        info("Patient updated", "Record for " + updatedRecord.getName() + " has been updated.");
     }
 
     private void changePatientRoom() {
@@ -605,16 +1116,14 @@ public class DashboardView {
         if (roomOpt.isEmpty()) {
             return;
         }
-        PatientRecord updated = new PatientRecord(selected.getName(), selected.getStatus(), roomOpt.get().trim());
-        int index = patients.indexOf(selected);
-        if (index >= 0) {
-            patients.set(index, updated);
-        }
-        refreshStats();
-        statusMessages.add(0, updated.getName() + " moved to " + updated.getRoom() + ".");
-        if (statusMessages.size() > 8) {
-            statusMessages.remove(statusMessages.size() - 1);
-        }
+        PatientRecord updated = new PatientRecord(selected.getId(), selected.getName(), selected.getStatus(), roomOpt.get().trim());
+        clinic.patientWrites().save(updated);
+        journal.append(new ClinicEvent.PatientRoomChanged(updated.getId(), updated.getRoom()));
+        search.patients().put(updated);
+        statistics.putPatient(updated);
+        refreshSearchResults();
+        patients.replace(updated);
+        postStatus(StatusEvent.Type.PATIENT, updated.getName() + " moved to " + updated.getRoom() + ".");
         info("Room updated", updated.getName() + " is now in " + updated.getRoom() + ".");
     }
 
@@ -633,12 +1142,13 @@ public class DashboardView {
         confirm.setContentText("Are you sure you want to discharge " + selected.getName() + "?");
         confirm.showAndWait().ifPresent(response -> {
             if (response == ButtonType.OK) {
-                patients.remove(selected);
-                refreshStats();
-                statusMessages.add(0, selected.getName() + " discharged.");
-                if (statusMessages.size() > 8) {
-                    statusMessages.remove(statusMessages.size() - 1);
-                }
+                clinic.patientWrites().delete(selected.getId());
+                journal.append(new ClinicEvent.PatientDischarged(selected.getId()));
+                search.patients().remove(selected.getId());
+                statistics.removePatient(selected.getId());
+                refreshSearchResults();
+                patients.reloadAfter(clinic.patientWrites()::flush);
+                postStatus(StatusEvent.Type.PATIENT, selected.getName() + " discharged.");
             }
         });
     }
@@ -648,13 +1158,18 @@ public class DashboardView {
             info("Restricted", "Only doctors or nurses can create appointments.");
             return;
         }
-        Optional<Appointment> result = AppointmentEntryDialog.request(primaryStage, null, this::generateAppointmentId, loggedIn.getUsername());
+        Optional<Appointment> result = AppointmentEntryDialog.request(primaryStage, null, clinic.appointmentIds(),
+                loggedIn.getUsername(), this::describeConflicts);
         result.ifPresent(appt -> {
-            appointments.add(0, appt);
-            statusMessages.add(0, "Scheduled appointment " + appt.getId() + " for " + appt.getPatientName() + ".");
-            if (statusMessages.size() > 12) {
-                statusMessages.remove(statusMessages.size() - 1);
-            }
+            clinic.appointmentWrites().save(appt);
+            journal.append(new ClinicEvent.AppointmentScheduled(appt));
+            search.appointments().put(appt);
+            refreshSearchResults();
+            appointmentIndex.put(appt);
+            calendar.put(appt);
+            showCalendarPage();
+            appointments.reloadAfter(clinic.appointmentWrites()::flush);
+            postStatus(StatusEvent.Type.APPOINTMENT, "Scheduled appointment " + appt.getId() + " for " + appt.getPatientName() + ".");
             info("Appointment created", "Appointment set for " + appt.getPatientName() + ".");
         });
     }
@@ -669,17 +1184,19 @@ public class DashboardView {
             info("Select appointment", "Choose an appointment first.");
             return;
         }
-        Optional<Appointment> result = AppointmentEntryDialog.request(primaryStage, selected, () -> selected.getId(), loggedIn.getUsername());
+        Optional<Appointment> result = AppointmentEntryDialog.request(primaryStage, selected, () -> selected.getId(),
+                loggedIn.getUsername(), this::describeConflicts);
         result.ifPresent(appt -> {
-            int index = appointments.indexOf(selected);
-            if (index >= 0) {
-                appointments.set(index, appt);
-                statusMessages.add(0, "Updated appointment " + appt.getId() + ".");
-                if (statusMessages.size() > 12) {
-                    statusMessages.remove(statusMessages.size() - 1);
-                }
-                info("Appointment updated", "Appointment " + appt.getId() + " saved.");
-            }
+            clinic.appointmentWrites().save(appt);
+            journal.append(new ClinicEvent.AppointmentUpdated(appt));
+            search.appointments().put(appt);
+            refreshSearchResults();
+            appointmentIndex.put(appt);
+            calendar.put(appt);
+            showCalendarPage();
+            appointments.replace(appt);
+            postStatus(StatusEvent.Type.APPOINTMENT, "Updated appointment " + appt.getId() + ".");
+            info("Appointment updated", "Appointment " + appt.getId() + " saved.");
         });
     }
 
@@ -699,15 +1216,36 @@ public class DashboardView {
         confirm.setContentText("Cancel " + selected.getId() + " for " + selected.getPatientName() + "?");
         confirm.showAndWait().ifPresent(response -> {
             if (response == ButtonType.OK) {
-                appointments.remove(selected);
-                statusMessages.add(0, "Cancelled appointment " + selected.getId() + ".");
-                if (statusMessages.size() > 12) {
-                    statusMessages.remove(statusMessages.size() - 1);
-                }
+                clinic.appointmentWrites().delete(selected.getId());
+                journal.append(new ClinicEvent.AppointmentCancelled(selected.getId()));
+                search.appointments().remove(selected.getId());
+                refreshSearchResults();
+                appointmentIndex.remove(selected.getId());
+                calendar.remove(selected.getId());
+                showCalendarPage();
+                appointments.reloadAfter(clinic.appointmentWrites()::flush);
+                postStatus(StatusEvent.Type.APPOINTMENT, "Cancelled appointment " + selected.getId() + ".");
             }
         });
     }
 
+    private Optional<String> describeConflicts(Appointment appointment) {
+        List<Booking> conflicts = appointmentIndex.conflicts(appointment);
+        if (conflicts.isEmpty()) {
+            return Optional.empty();
+        }
+        Booking first = conflicts.get(0);
+        StringBuilder message = new StringBuilder("Overlaps ").append(first.appointmentId())
+                .append(" (").append(first.patientName()).append(" with ").append(first.clinician())
+                .append(", ").append(first.start().format(APPT_FORMATTER)).append(")");
+        if (conflicts.size() > 1) {
+            message.append(" and ").append(conflicts.size() - 1).append(" more");
+        }
+        appointmentIndex.nextAvailable(appointment, appointment.getScheduledAt(), Duration.ofDays(14))
+                .ifPresent(next -> message.append(". Next free slot: ").append(next.format(APPT_FORMATTER)));
+        return Optional.of(message.append('.').toString());
+    }
+
     private boolean isClinician() {
         if (loggedIn == null) {
             return false;
@@ -716,22 +1254,22 @@ public class DashboardView {
         return role.contains("doctor") || role.contains("nurse");
     }
 
-    private String generateAppointmentId() {
-        return "APT-" + (300000 + random.nextInt(90000));
-    }
-
     private void addInventoryItem() {
         if (primaryStage == null) {
             return;
         }
-        Optional<InventoryItem> entry = InventoryEntryDialog.request(primaryStage, null, this::generateInventoryId);
+        Optional<InventoryItem> entry = InventoryEntryDialog.request(primaryStage, null, clinic.inventoryIds());
         entry.ifPresent(item -> {
-            inventoryItems.add(0, item);
-            refreshStats();
-            statusMessages.add(0, "Added inventory item " + item.getName() + " (" + item.getId() + ").");
-            if (statusMessages.size() > 12) {
-                statusMessages.remove(statusMessages.size() - 1);
-            }
+            clinic.inventoryWrites().save(item);
+            journal.append(new ClinicEvent.InventoryItemAdded(item));
+            saveMovement(ledger.reconcile(item, System.currentTimeMillis()));
+            search.inventory().put(item);
+            statistics.putItem(item);
+            reorderEngine.track(item, System.currentTimeMillis());
+            refreshReorderQueue();
+            refreshSearchResults();
+            inventoryItems.reloadAfter(clinic.inventoryWrites()::flush);
+            postStatus(StatusEvent.Type.INVENTORY, "Added inventory item " + item.getName() + " (" + item.getId() + ").");
             info("Item added", item.getName() + " has been added to inventory.");
         });
     }
@@ -747,16 +1285,20 @@ public class DashboardView {
         }
         Optional<InventoryItem> updated = InventoryEntryDialog.request(primaryStage, selected, () -> selected.getId());
         updated.ifPresent(item -> {
-            int index = inventoryItems.indexOf(selected);
-            if (index >= 0) {
-                inventoryItems.set(index, item);
-                refreshStats();
-                statusMessages.add(0, "Updated " + item.getName() + " (" + item.getId() + ").");
-                if (statusMessages.size() > 12) {
-                    statusMessages.remove(statusMessages.size() - 1);
-                }
-                info("Inventory updated", "Item " + item.getName() + " saved.");
+            clinic.inventoryWrites().save(item);
+            journal.append(new ClinicEvent.InventoryItemAdjusted(item));
+            if (item.getQuantity() != selected.getQuantity()) {
+                saveMovement(ledger.record(item.getId(), StockMovement.Kind.ADJUSTMENT,
+                        item.getQuantity() - selected.getQuantity(), System.currentTimeMillis()));
             }
+            search.inventory().put(item);
+            statistics.putItem(item);
+            reorderEngine.track(item, System.currentTimeMillis());
+            refreshReorderQueue();
+            refreshSearchResults();
+            inventoryItems.replace(item);
+            postStatus(StatusEvent.Type.INVENTORY, "Updated " + item.getName() + " (" + item.getId() + ").");
+            info("Inventory updated", "Item " + item.getName() + " saved.");
         });
     }
 
@@ -775,55 +1317,213 @@ public class DashboardView {
         confirm.setContentText("Remove " + selected.getName() + " from inventory?");
         confirm.showAndWait().ifPresent(response -> {
             if (response == ButtonType.OK) {
-                inventoryItems.remove(selected);
-                refreshStats();
-                statusMessages.add(0, selected.getName() + " removed from inventory.");
-                if (statusMessages.size() > 12) {
-                    statusMessages.remove(statusMessages.size() - 1);
+                clinic.inventoryWrites().delete(selected.getId());
+                journal.append(new ClinicEvent.InventoryItemRemoved(selected.getId()));
+                int remaining = ledger.balance(selected.getId());
+                if (remaining != 0) {
+                    // the ledger outlives the item, so close its balance out
+                    saveMovement(ledger.record(selected.getId(), StockMovement.Kind.ADJUSTMENT, -remaining,
+                            System.currentTimeMillis()));
                 }
+                search.inventory().remove(selected.getId());
+                statistics.removeItem(selected.getId());
+                reorderEngine.untrack(selected.getId());
+                refreshReorderQueue();
+                refreshSearchResults();
+                inventoryItems.reloadAfter(clinic.inventoryWrites()::flush);
+                postStatus(StatusEvent.Type.INVENTORY, selected.getName() + " removed from inventory.");
             }
         });
     }
 
-    private String generateInventoryId() {
-        return "INV-" + (100000 + random.nextInt(900000));
+    private void recordStockMovement() {
+        if (inventoryTable == null) {
+            return;
+        }
+        InventoryItem selected = inventoryTable.getSelectionModel().getSelectedItem();
+        if (selected == null) {
+            info("Select item", "Choose an inventory item to record a movement for.");
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long weekAgo = now - Duration.ofDays(7).toMillis();
+        String usage = String.format("Used %d in the last 7 days (%.1f per day); %d on hand a week ago.",
+                ledger.consumedBetween(selected.getId(), weekAgo, now),
+                ledger.consumptionPerDay(selected.getId(), weekAgo, now),
+                ledger.quantityAt(selected.getId(), weekAgo));
+        StockMovementDialog.request(primaryStage, selected, usage).ifPresent(movement -> {
+            // stock never goes negative; a larger consumption is recorded as what was there
+            int delta = Math.max(movement.delta(), -selected.getQuantity());
+            if (delta == 0) {
+                info("Nothing recorded", selected.getName() + " has no stock to consume.");
+                return;
+            }
+            InventoryItem item = new InventoryItem(selected.getId(), selected.getName(),
+                    selected.getQuantity() + delta, selected.getPrice(), selected.getStatus(),
+                    selected.getReorderLevel());
+            clinic.inventoryWrites().save(item);
+            journal.append(new ClinicEvent.InventoryItemAdjusted(item));
+            saveMovement(ledger.record(item.getId(), movement.kind(), delta, now));
+            search.inventory().put(item);
+            statistics.putItem(item);
+            reorderEngine.record(item.getId(), movement.kind(), delta, now);
+            refreshReorderQueue();
+            refreshSearchResults();
+            inventoryItems.replace(item);
+            postStatus(StatusEvent.Type.INVENTORY, String.format("%s %+d for %s (%s), %d on hand.",
+                    movement.kind().name().charAt(0) + movement.kind().name().substring(1).toLowerCase(),
+                    delta, item.getName(), item.getId(), item.getQuantity()));
+        });
     }
 
-    private void exportPatientRecords() {
-        try {
-            Path exported = CsvExporter.exportPatients(patients);
-            info("Export completed", "Data exported to " + exported.toAbsolutePath());
-        } catch (IOException e) {
-            error("Export failed", "Unable to write patients CSV: " + e.getMessage());
+    private void saveMovement(StockMovement movement) {
+        if (movement != null) {
+            clinic.movementWrites().save(movement);
         }
     }
 
-    private void exportStatusSnapshot() {
-        try {
-            Path exported = CsvExporter.exportStatusSnapshot(patients);
-            statusMessages.add(0, "Status snapshot exported at " + TIME_FORMATTER.format(LocalTime.now()) + ".");
-            if (statusMessages.size() > 12) {
-                statusMessages.remove(statusMessages.size() - 1);
-            }
-            info("Export completed", "Status snapshot saved to " + exported.toAbsolutePath());
-        } catch (IOException e) {
-            error("Export failed", "Unable to write status snapshot: " + e.getMessage());
+    private void refreshReorderQueue() {
+        List<String> lines = new ArrayList<>();
+        for (ReorderSuggestion suggestion : reorderEngine.suggestions(10)) {
+            lines.add(describeReorder(suggestion));
         }
+        reorderQueue.setAll(lines);
+    }
+
+    private void announceReorder(ReorderSuggestion suggestion) {
+        postStatus(StatusEvent.Type.INVENTORY, "Reorder suggested: " + describeReorder(suggestion));
+    }
+
+    private static String describeReorder(ReorderSuggestion suggestion) {
+        String cover = Double.isInfinite(suggestion.daysOfCover()) ? "no recent use"
+                : String.format("%.1f days of cover", suggestion.daysOfCover());
+        return String.format("%s (%s): %d on hand, reorder at %d, %s, order %d", suggestion.name(),
+                suggestion.itemId(), suggestion.onHand(), suggestion.reorderLevel(), cover,
+                suggestion.suggestedQuantity());
     }
 
-    private ListView<String> buildStatusList() {
-        ListView<String> statusList = new ListView<>(statusMessages);
+    private void exportPatientRecords() {
+        submitPatientExport("Patients export").completion().whenComplete((exported, failure) -> {
+            if (failure != null) {
+                exportFailed("Export failed", "Unable to write patients CSV: ", failure);
+            } else {
+                info("Export completed", "Data exported to " + exported.toAbsolutePath());
+            }
+        });
+    }
+
+    private void exportStatusSnapshot() {
+        exportScheduler.submit("Status snapshot", -1,
+                        progress -> {
+                            clinic.patientWrites().flush();
+                            progress.rowsExpected(clinic.patients().count());
+                            return CsvExporter.exportStatusSnapshot(clinic.patients().iterateAll(), progress);
+                        })
+                .completion()
+                .whenComplete((exported, failure) -> {
+                    if (failure != null) {
+                        exportFailed("Export failed", "Unable to write status snapshot: ", failure);
+                        return;
+                    }
+                    postStatus(StatusEvent.Type.REPORT, "Status snapshot exported.");
+                    info("Export completed", "Status snapshot saved to " + exported.toAbsolutePath());
+                });
+    }
+
+    /**
+     * Records the event in the on-disk history and shows it at the top of the live feed.
+     */
+    private void postStatus(StatusEvent.Type type, String message) {
+        statusEvents.push(statusHistory.append(type, message));
+    }
+
+    private ListView<StatusEvent> buildStatusList() {
+        ListView<StatusEvent> statusList = new ListView<>(statusEvents);
         statusList.setPrefHeight(220);
         statusList.setCellFactory(listView -> new ListCell<>() {
             @Override
-            protected void updateItem(String item, boolean empty) {
+            protected void updateItem(StatusEvent item, boolean empty) {
                 super.updateItem(item, empty);
-                setText(empty || item == null ? null : item);
+                setText(empty || item == null ? null : TIME_FORMATTER.format(
+                        LocalDateTime.ofInstant(Instant.ofEpochMilli(item.recordedAt()), ZoneId.systemDefault()))
+                        + " - " + item.message());
             }
         });
         return statusList;
     }
 
+    private Node buildStatusHistory() {
+        Text heading = new Text("History");
+        heading.setFont(Font.font("Segoe UI", FontWeight.BOLD, 16));
+        heading.getStyleClass().add("section-heading");
+
+        Button olderHistory = new Button("Load Older");
+        olderHistory.getStyleClass().add("ghost-button");
+        olderHistory.setOnAction(e -> olderHistory.setDisable(!showHistoryPage(true)));
+
+        ComboBox<String> typeBox = new ComboBox<>();
+        typeBox.getItems().add(ALL_TYPES);
+        for (StatusEvent.Type type : StatusEvent.Type.values()) {
+            typeBox.getItems().add(type.getLabel());
+        }
+        typeBox.setValue(historyType);
+        typeBox.setOnAction(e -> {
+            historyType = typeBox.getValue();
+            olderHistory.setDisable(!showHistoryPage(false));
+        });
+
+        ComboBox<String> rangeBox = new ComboBox<>(FXCollections.observableArrayList(HISTORY_RANGES.keySet()));
+        rangeBox.setValue(historyRange);
+        rangeBox.setOnAction(e -> {
+            historyRange = rangeBox.getValue();
+            olderHistory.setDisable(!showHistoryPage(false));
+        });
+
+        Button refresh = new Button("Refresh");
+        refresh.getStyleClass().add("ghost-button");
+        refresh.setOnAction(e -> olderHistory.setDisable(!showHistoryPage(false)));
+
+        ListView<StatusEvent> historyList = new ListView<>(historyEvents);
+        historyList.setPrefHeight(260);
+        historyList.setCellFactory(listView -> new ListCell<>() {
+            @Override
+            protected void updateItem(StatusEvent item, boolean empty) {
+                super.updateItem(item, empty);
+                setText(empty || item == null ? null : APPT_FORMATTER.format(
+                        LocalDateTime.ofInstant(Instant.ofEpochMilli(item.recordedAt()), ZoneId.systemDefault()))
+                        + "  " + item.type().getLabel() + ": " + item.message());
+            }
+        });
+
+        HBox controls = new HBox(10, typeBox, rangeBox, refresh);
+        controls.setAlignment(Pos.CENTER_LEFT);
+        olderHistory.setDisable(!showHistoryPage(false));
+        return new VBox(10, heading, controls, historyList, olderHistory);
+    }
+
+    /**
+     * Shows the newest matching history page, or with {@code older} appends the page before the
+     * oldest one shown. Returns whether an older page may follow.
+     */
+    private boolean showHistoryPage(boolean older) {
+        Set<StatusEvent.Type> types = EnumSet.allOf(StatusEvent.Type.class);
+        if (!ALL_TYPES.equals(historyType)) {
+            types.removeIf(type -> !type.getLabel().equals(historyType));
+        }
+        Duration range = HISTORY_RANGES.get(historyRange);
+        long from = range == null ? 0 : System.currentTimeMillis() - range.toMillis();
+        long before = older && !historyEvents.isEmpty()
+                ? historyEvents.get(historyEvents.size() - 1).sequence()
+                : Long.MAX_VALUE;
+        List<StatusEvent> page = statusHistory.page(types, from, Long.MAX_VALUE, before, HISTORY_PAGE_SIZE);
+        if (older) {
+            historyEvents.addAll(page);
+        } else {
+            historyEvents.setAll(page);
+        }
+        return page.size() == HISTORY_PAGE_SIZE;
+    }
+
     private RoundedPane createSectionCard(Node content) {
         RoundedPane card = new RoundedPane(20, Color.web("#1c2029"));
         card.getChildren().setAll(content);
@@ -856,39 +1556,81 @@ public class DashboardView {
 
     private void refreshUsers() {
         users.setAll(repository.findAll());
-        refreshStats();
     }
 
     private Timeline createRealtimeTimeline() {
-        Timeline timeline = new Timeline(new KeyFrame(Duration.seconds(5), event -> refreshLiveData()));
+        Timeline timeline = new Timeline(new KeyFrame(javafx.util.Duration.seconds(5), event -> refreshWriteQueueStatus()));
         timeline.setCycleCount(Timeline.INDEFINITE);
         return timeline;
     }
 
-    private void refreshLiveData() {
-        if (patients.isEmpty()) {
-            return;
-        }
-        int index = random.nextInt(patients.size());
-        PatientRecord selected = patients.get(index);
-        List<String> options = List.of("Stable - Monitoring", "Critical - ICU", "Recovery - Therapy", "Observation - Cardio", "Pre-op - Prep");
-        String status = options.get(random.nextInt(options.size()));
-        PatientRecord updated = new PatientRecord(selected.getName(), status, selected.getRoom());
-        patients.set(index, updated);
-        statusMessages.add(0, TIME_FORMATTER.format(LocalTime.now()) + " - " + updated.getName() + " status refreshed.");
-        if (statusMessages.size() > 12) {
-            statusMessages.remove(statusMessages.size() - 1);
-        }
-        refreshStats();
+    private void refreshWriteQueueStatus() {
+        WriteBehindQueue.Metrics patientMetrics = clinic.patientWrites().metrics();
+        WriteBehindQueue.Metrics inventoryMetrics = clinic.inventoryWrites().metrics();
+        WriteBehindQueue.Metrics appointmentMetrics = clinic.appointmentWrites().metrics();
+        WriteBehindQueue.Metrics movementMetrics = clinic.movementWrites().metrics();
+        int depth = patientMetrics.depth() + inventoryMetrics.depth() + appointmentMetrics.depth()
+                + movementMetrics.depth();
+        long failures = patientMetrics.failures() + inventoryMetrics.failures() + appointmentMetrics.failures()
+                + movementMetrics.failures();
+        double maxFlush = Math.max(Math.max(patientMetrics.maxFlushMillis(), movementMetrics.maxFlushMillis()),
+                Math.max(inventoryMetrics.maxFlushMillis(), appointmentMetrics.maxFlushMillis()));
+        UpdateCoalescer.Metrics updates = statusUpdates.metrics();
+        FeedPipeline.Metrics feed = feedPipeline.metrics();
+        writeQueueStatus.setText(String.format(
+                "Pending writes: %d, slowest flush: %.1f ms, failed flushes: %d, status updates: %d in %d batches"
+                        + " (%d dropped, %d waiting)",
+                depth, maxFlush, failures, updates.received(), updates.batches(), feed.dropped(), feed.backlog()));
     }
 
-    private void refreshStats() {
-        activePatientsValue.setText(String.valueOf(patients.size()));
-        long lowStockCount = inventoryItems.stream()
-                .filter(item -> item.getQuantity() < 100)
-                .count();
-        lowInventoryValue.setText(lowStockCount + " critical items");
-        staffOnDutyValue.setText(String.valueOf(users.size()));
+    private void startStatusFeed() {
+        feedPipeline.subscribe(this::receiveStatusUpdate);
+        statusFeed = StatusFeed.fromSystemProperties(() -> {
+            List<String> ids = new ArrayList<>();
+            for (Iterator<PatientRecord> it = clinic.patients().iterateAll(); it.hasNext(); ) {
+                ids.add(it.next().getId());
+            }
+            return ids;
+        });
+        statusFeed.start(feedPipeline::publish);
+    }
+
+    /**
+     * Runs on the feed's delivery thread, and only queues the update: the patient is looked up
+     * when the batch is applied, so the change lands on the latest record.
+     */
+    private void receiveStatusUpdate(StatusUpdate update) {
+        statusUpdates.offer(update);
+    }
+
+    /**
+     * Runs on the FX thread, where every other patient edit is made, so each update starts from
+     * the patient as it stands now. Updates for patients discharged since, or that repeat the
+     * current status, are ignored.
+     */
+    private void applyStatusUpdates(Collection<StatusUpdate> updates) {
+        List<PatientRecord> updated = new ArrayList<>(updates.size());
+        for (StatusUpdate update : updates) {
+            PatientRecord current = search.patients().get(update.patientId());
+            if (current == null || update.status().equals(current.getStatus())) {
+                continue;
+            }
+            PatientRecord patient = new PatientRecord(current.getId(), current.getName(), update.status(),
+                    current.getRoom());
+            clinic.patientWrites().save(patient);
+            journal.append(new ClinicEvent.PatientStatusChanged(patient.getId(), patient.getStatus()));
+            search.patients().put(patient);
+            statistics.putPatient(patient);
+            updated.add(patient);
+        }
+        if (updated.isEmpty()) {
+            return;
+        }
+        patients.replaceAll(updated);
+        String message = updated.size() == 1
+                ? updated.get(0).getName() + " status refreshed."
+                : updated.size() + " patient statuses refreshed.";
+        postStatus(StatusEvent.Type.STATUS, message);
     }
 
     private void addEmployee() {
@@ -904,23 +1646,57 @@ public class DashboardView {
         if (password.isEmpty() || password.get().trim().isEmpty()) {
             return;
         }
-        AppUser newUser = AppUser.withPassword(username.get().trim().toUpperCase(), role.get().trim(), password.get().trim());
-        repository.save(newUser);
-        refreshUsers();
-        statusMessages.add(0, "User " + newUser.getUsername() + " joined the roster.");
-        if (statusMessages.size() > 8) {
-            statusMessages.remove(statusMessages.size() - 1);
-        }
-        info("Employee created", "User " + newUser.getUsername() + " is now part of the team.");
+        hashingService.withPassword(username.get().trim().toUpperCase(), role.get().trim(), password.get().trim())
+                .thenApply(newUser -> {
+                    repository.save(newUser);
+                    return newUser;
+                })
+                .whenComplete((newUser, failure) -> Platform.runLater(() -> {
+                    if (failure != null) {
+                        error("Employee not created", "Unable to save user: " + rootMessage(failure));
+                        return;
+                    }
+                    refreshUsers();
+                    postStatus(StatusEvent.Type.STAFF, "User " + newUser.getUsername() + " joined the roster.");
+                    info("Employee created", "User " + newUser.getUsername() + " is now part of the team.");
+                }));
     }
 
     private void exportUsers() {
-        try {
-            Path exported = CsvExporter.exportUsers(repository.findAll());
-            info("Export completed", "Data exported to " + exported.toAbsolutePath());
-        } catch (IOException e) {
-            error("Export failed", "Unable to write CSV: " + e.getMessage());
+        submitUserExport("Users export").completion().whenComplete((exported, failure) -> {
+            if (failure != null) {
+                exportFailed("Export failed", "Unable to write CSV: ", failure);
+            } else {
+                info("Export completed", "Data exported to " + exported.toAbsolutePath());
+            }
+        });
+    }
+
+    private void importUsers() {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Import Users");
+        chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("CSV files", "*.csv"));
+        File source = chooser.showOpenDialog(primaryStage);
+        if (source == null) {
+            return;
+        }
+        CsvImporter.importUsers(source.toPath(), repository, hashingService).whenComplete((imported, failure) -> Platform.runLater(() -> {
+            if (failure != null) {
+                error("Import failed", "Unable to import users: " + rootMessage(failure));
+                return;
+            }
+            refreshUsers();
+            postStatus(StatusEvent.Type.STAFF, "Imported " + imported + " users from " + source.getName() + ".");
+            info("Import completed", imported + " users imported from " + source.getAbsolutePath());
+        }));
+    }
+
+    private static String rootMessage(Throwable failure) {
+        Throwable cause = failure;
+        while ((cause instanceof CompletionException || cause instanceof UncheckedIOException) && cause.getCause() != null) {
+            cause = cause.getCause();
         }
+        return cause.getMessage();
     }
 
     private void resetPassword() {
@@ -931,17 +1707,29 @@ public class DashboardView {
         if (newPassword.isEmpty() || newPassword.get().trim().isEmpty()) {
             return;
         }
-        loggedIn = loggedIn.withNewPassword(newPassword.get().trim());
-        repository.save(loggedIn);
-        statusMessages.add(0, "Password updated for user " + loggedIn.getUsername() + ".");
-        if (statusMessages.size() > 12) {
-            statusMessages.remove(statusMessages.size() - 1);
-        }
-        info("Password updated", "Password updated for " + loggedIn.getUsername());
+        hashingService.withNewPassword(loggedIn, newPassword.get().trim())
+                .thenApply(updated -> {
+                    repository.save(updated);
+                    return updated;
+                })
+                .whenComplete((updated, failure) -> Platform.runLater(() -> {
+                    if (failure != null) {
+                        error("Password not updated", "Unable to save password: " + rootMessage(failure));
+                        return;
+                    }
+                    loggedIn = updated;
+                    postStatus(StatusEvent.Type.STAFF, "Password updated for user " + updated.getUsername() + ".");
+                    info("Password updated", "Password updated for " + updated.getUsername());
+                }));
     }
 
     private void logout() {
         realtimeTimeline.stop();
+        exportScheduler.shutdown();
+        statusFeed.close();
+        feedPipeline.close();
+        statusUpdates.shutdown();
+        pageLoader.shutdown();
         if (logoutAction != null) {
             logoutAction.run();
         }
@@ -0,0 +1,132 @@
+package com.example.clinic.ui;
+
+import com.example.clinic.util.ExportProgress;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
+
+import java.nio.file.Path;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs CSV exports on a small bounded worker pool so the dashboard stays responsive. Jobs are
+ * listed in {@link #getJobs()} while they run; progress and completion are delivered on the
+ * JavaFX thread by {@link Task}.
+ */
+public final class ExportJobScheduler {
+    private static final int QUEUE_CAPACITY = 16;
+
+    private final ThreadPoolExecutor executor;
+    private final ObservableList<ExportJob> jobs = FXCollections.observableArrayList();
+
+    public ExportJobScheduler(int workers) {
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(QUEUE_CAPACITY),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "export-worker-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    public ObservableList<ExportJob> getJobs() {
+        return jobs;
+    }
+
+    /**
+     * Must be called on the JavaFX thread. {@code expectedRows} may be negative when the row
+     * count is not known up front, which leaves the progress indeterminate until the work reports
+     * it through {@link ExportProgress#rowsExpected}.
+     */
+    public ExportJob submit(String name, long expectedRows, ExportWork work) {
+        ExportJob job = new ExportJob(name, expectedRows, work);
+        jobs.add(job);
+        job.setOnSucceeded(e -> finish(job, job.getValue(), null));
+        job.setOnFailed(e -> finish(job, null, job.getException()));
+        job.setOnCancelled(e -> finish(job, null, new CancellationException(name + " cancelled")));
+        try {
+            executor.execute(job);
+        } catch (RuntimeException e) {
+            finish(job, null, new IllegalStateException("Too many exports are already queued", e));
+        }
+        return job;
+    }
+
+    public void shutdown() {
+        jobs.forEach(ExportJob::cancel);
+        executor.shutdown();
+    }
+
+    private void finish(ExportJob job, Path result, Throwable failure) {
+        jobs.remove(job);
+        if (failure == null) {
+            job.completion.complete(result);
+        } else {
+            job.completion.completeExceptionally(failure);
+        }
+    }
+
+    @FunctionalInterface
+    public interface ExportWork {
+        Path run(ExportProgress progress) throws Exception;
+    }
+
+    public static final class ExportJob extends Task<Path> {
+        private final String name;
+        private final ExportWork work;
+        private volatile long expectedRows;
+        private final CompletableFuture<Path> completion = new CompletableFuture<>();
+
+        private ExportJob(String name, long expectedRows, ExportWork work) {
+            this.name = name;
+            this.expectedRows = expectedRows;
+            this.work = work;
+            updateTitle(name);
+            updateMessage("Queued");
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Completes on the JavaFX thread with the exported file, or exceptionally when the job
+         * fails or is cancelled.
+         */
+        public CompletableFuture<Path> completion() {
+            return completion;
+        }
+
+        @Override
+        protected Path call() throws Exception {
+            updateMessage("Running");
+            return work.run(new ExportProgress() {
+                @Override
+                public void rowsWritten(long rows) {
+                    updateMessage(rows + " rows");
+                    if (expectedRows > 0) {
+                        updateProgress(rows, expectedRows);
+                    }
+                }
+
+                @Override
+                public void rowsExpected(long rows) {
+                    expectedRows = rows;
+                }
+
+                @Override
+                public boolean isCancelled() {
+                    return ExportJob.this.isCancelled();
+                }
+            });
+        }
+    }
+}
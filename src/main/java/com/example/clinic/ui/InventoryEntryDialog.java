@@ -5,6 +5,7 @@ import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
 import javafx.scene.control.Button;
+import javafx.scene.control.ComboBox;
 import javafx.scene.control.Label;
 import javafx.scene.control.TextField;
 import javafx.scene.layout.HBox;
@@ -17,11 +18,14 @@ import javafx.stage.Modality;
 import javafx.stage.Stage;
 import javafx.stage.Window;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
 
 public final class InventoryEntryDialog {
+    static final List<String> STATUSES = List.of("Healthy", "Reorder", "Critical", "Discontinued");
+
     private InventoryEntryDialog() {
     }
 
@@ -59,17 +63,30 @@ public final class InventoryEntryDialog {
         priceField.setPromptText("0.00");
         priceField.getStyleClass().add("input-field");
 
+        Label reorderLabel = new Label("Reorder Level");
+        reorderLabel.getStyleClass().add("muted-label");
+        TextField reorderField = new TextField(String.valueOf(InventoryItem.DEFAULT_REORDER_LEVEL));
+        reorderField.setPromptText("Reorder when stock falls to this");
+        reorderField.getStyleClass().add("input-field");
+
         Label statusLabel = new Label("Status");
         statusLabel.getStyleClass().add("muted-label");
-        TextField statusField = new TextField();
-        statusField.setPromptText("Healthy / Critical / Reorder");
+        ComboBox<String> statusField = new ComboBox<>();
+        statusField.getItems().setAll(STATUSES);
+        statusField.setValue(STATUSES.get(0));
+        statusField.setMaxWidth(Double.MAX_VALUE);
         statusField.getStyleClass().add("input-field");
 
         if (existing != null) {
             nameField.setText(existing.getName());
             quantityField.setText(String.valueOf(existing.getQuantity()));
             priceField.setText(String.format("%.2f", existing.getPrice()));
-            statusField.setText(existing.getStatus());
+            reorderField.setText(String.valueOf(existing.getReorderLevel()));
+            if (existing.getStatus() != null && !statusField.getItems().contains(existing.getStatus())) {
+                // keep free-text statuses recorded before the list existed
+                statusField.getItems().add(existing.getStatus());
+            }
+            statusField.setValue(existing.getStatus());
         }
 
         Button cancel = new Button("Cancel");
@@ -86,16 +103,19 @@ public final class InventoryEntryDialog {
             String name = nameField.getText().trim();
             String quantityInput = quantityField.getText().trim();
             String priceInput = priceField.getText().trim();
-            String status = statusField.getText().trim();
-            if (name.isEmpty() || quantityInput.isEmpty() || priceInput.isEmpty() || status.isEmpty()) {
+            String reorderInput = reorderField.getText().trim();
+            String status = statusField.getValue();
+            if (name.isEmpty() || quantityInput.isEmpty() || priceInput.isEmpty() || reorderInput.isEmpty()
+                    || status == null) {
                 return;
             }
             try {
                 int quantity = Integer.parseInt(quantityInput);
                 double price = Double.parseDouble(priceInput);
-                result.set(new InventoryItem(idField.getText(), name, quantity, price, status));
+                int reorderLevel = Integer.parseInt(reorderInput);
+                result.set(new InventoryItem(idField.getText(), name, quantity, price, status, reorderLevel));
                 dialog.close();
-            } catch (NumberFormatException ex) {
+            } catch (IllegalArgumentException ex) {
                 // keep dialog open on parse errors
             }
         });
@@ -113,6 +133,8 @@ public final class InventoryEntryDialog {
                 quantityField,
                 priceLabel,
                 priceField,
+                reorderLabel,
+                reorderField,
                 statusLabel,
                 statusField
         );
@@ -123,7 +145,7 @@ public final class InventoryEntryDialog {
         root.getStyleClass().add("dialog-root");
         VBox.setVgrow(form, Priority.ALWAYS);
 
-        Scene scene = new Scene(root, 420, 440);
+        Scene scene = new Scene(root, 420, 500);
         applyStyles(scene);
         dialog.setScene(scene);
         dialog.showAndWait();
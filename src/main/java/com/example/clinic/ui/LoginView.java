@@ -157,6 +157,8 @@ public class LoginView {
             AppUser user = authenticated.get();
             settingsStore.persistLastLogin(user);
             onSuccess.accept(stage, user);
+        } else if (authService.isThrottled(username)) {
+            statusLabel.setText("Too many attempts. Wait a moment and try again.");
         } else {
             statusLabel.setText("Invalid credentials.");
         }
@@ -164,7 +166,8 @@ public class LoginView {
 
     private Optional<AppUser> tryLogin(String username, String password) {
         Optional<AppUser> user = authService.authenticate(username, password);
-        if (user.isPresent()) {
+        // a throttled name is refused before the demo accounts are tried, so they are throttled too
+        if (user.isPresent() || authService.isThrottled(username)) {
             return user;
         }
         String lookup = FALLBACK_CREDENTIALS.get(username.toUpperCase());
@@ -0,0 +1,320 @@
+package com.example.clinic.ui;
+
+import com.example.clinic.data.Page;
+import com.example.clinic.data.PageQuery;
+import com.example.clinic.data.PagedRepository;
+import javafx.application.Platform;
+import javafx.collections.ObservableListBase;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+
+/**
+ * A read-only list over a whole table that holds only a few pages of it, for a {@code TableView}
+ * to scroll through. The FX thread never queries the database: a cache miss in {@link #get(int)}
+ * returns null as a placeholder and asks a background thread for the row's page and the one
+ * after it, and the rows are reported as replaced once they arrive. The row count is likewise
+ * read in the background, and the list is empty until it is known. Order and filter are part of
+ * the query rather than applied in memory, and the least recently used page is dropped once more
+ * than {@code cachedPages} are held, so the heap cost does not grow with the table. Once the
+ * loader has been shut down, as on logout, nothing more is loaded.
+ */
+final class PagedTableSource<T> extends ObservableListBase<T> {
+    private static final System.Logger LOG = System.getLogger(PagedTableSource.class.getName());
+
+    private final PagedRepository<T> repository;
+    private final Function<T, String> idOf;
+    private final int pageSize;
+    private final int cachedPages;
+    private final Executor loader;
+    private final LinkedHashMap<Integer, Page<T>> pages = new LinkedHashMap<>(16, 0.75f, true);
+    private final Set<Integer> loading = new HashSet<>();
+    // pages a placeholder was handed out for, to be reported as replaced once loaded
+    private final Set<Integer> awaited = new HashSet<>();
+    // rows the table may still show from before a reload, by page, until the new count arrives
+    private final Map<Integer, List<T>> stale = new HashMap<>();
+    private PageQuery query;
+    private long generation;
+    private int size = -1;
+
+    PagedTableSource(PagedRepository<T> repository, Function<T, String> idOf, PageQuery query, int pageSize,
+                     int cachedPages, Executor loader) {
+        if (pageSize < 1 || cachedPages < 2) {
+            throw new IllegalArgumentException("Invalid page cache sizing");
+        }
+        this.repository = repository;
+        this.idOf = idOf;
+        this.query = query;
+        this.pageSize = pageSize;
+        this.cachedPages = cachedPages;
+        this.loader = loader;
+    }
+
+    PageQuery getQuery() {
+        return query;
+    }
+
+    void setQuery(PageQuery query) {
+        this.query = query;
+        reload();
+    }
+
+    /**
+     * Drops every cached page and counts the rows again, for after rows were added or removed.
+     * Until the new count arrives the list keeps its size and shows rows as they are reloaded;
+     * then only the rows it had loaded are reported as replaced, and the difference in size as
+     * added or removed at the end.
+     */
+    void reload() {
+        synchronized (pages) {
+            pages.forEach((number, page) -> stale.putIfAbsent(number, page.rows()));
+            for (Integer number : awaited) {
+                stale.putIfAbsent(number, Collections.nCopies(pageSize, null));
+            }
+            pages.clear();
+            loading.clear();
+            awaited.clear();
+            generation++;
+        }
+        if (size >= 0) {
+            recount();
+        }
+    }
+
+    /**
+     * Reloads once {@code flush} has returned, running it off the FX thread so a pending
+     * write-behind batch reaches the table before it is queried again.
+     */
+    void reloadAfter(Runnable flush) {
+        execute(() -> {
+            try {
+                flush.run();
+            } finally {
+                Platform.runLater(this::reload);
+            }
+        });
+    }
+
+    /**
+     * Shows a changed row in place if its page is loaded. Its position is not re-sorted until the
+     * next reload.
+     */
+    void replace(T row) {
+        replaceAll(List.of(row));
+    }
+
+    /**
+     * Shows each changed row that is loaded in place, reported to listeners as one change however
+     * many rows it touches.
+     */
+    void replaceAll(Collection<T> rows) {
+        Map<String, T> byId = new HashMap<>();
+        for (T row : rows) {
+            byId.put(idOf.apply(row), row);
+        }
+        List<Integer> changed = new ArrayList<>();
+        List<T> old = new ArrayList<>();
+        synchronized (pages) {
+            for (Map.Entry<Integer, Page<T>> entry : pages.entrySet()) {
+                List<T> loaded = entry.getValue().rows();
+                for (int i = 0; i < loaded.size() && !byId.isEmpty(); i++) {
+                    T row = byId.remove(idOf.apply(loaded.get(i)));
+                    if (row != null) {
+                        old.add(loaded.set(i, row));
+                        changed.add(entry.getKey() * pageSize + i);
+                    }
+                }
+            }
+        }
+        int visible = size();
+        beginChange();
+        for (int i = 0; i < changed.size(); i++) {
+            if (changed.get(i) < visible) {
+                nextSet(changed.get(i), old.get(i));
+            }
+        }
+        endChange();
+    }
+
+    @Override
+    public int size() {
+        if (size < 0) {
+            size = 0;
+            recount();
+        }
+        return size;
+    }
+
+    @Override
+    public T get(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        int number = index / pageSize;
+        Page<T> page;
+        synchronized (pages) {
+            page = pages.get(number);
+            if (page == null) {
+                awaited.add(number);
+            }
+        }
+        if (page == null) {
+            load(number);
+            return null;
+        }
+        load(number + 1);
+        int slot = index - number * pageSize;
+        // rows deleted since the count leave the tail of the last page short
+        return slot < page.rows().size() ? page.rows().get(slot) : null;
+    }
+
+    /**
+     * Searches only the loaded pages; a row that is not loaded is not visible either.
+     */
+    @Override
+    public int indexOf(Object o) {
+        synchronized (pages) {
+            for (Map.Entry<Integer, Page<T>> entry : pages.entrySet()) {
+                int slot = entry.getValue().rows().indexOf(o);
+                if (slot >= 0) {
+                    return entry.getKey() * pageSize + slot;
+                }
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return indexOf(o) >= 0;
+    }
+
+    private void recount() {
+        PageQuery current = query;
+        long expected = generation();
+        execute(() -> {
+            try {
+                int count = (int) repository.count(current);
+                Platform.runLater(() -> resize(count, expected));
+            } catch (RuntimeException e) {
+                LOG.log(System.Logger.Level.WARNING, "Unable to count table rows", e);
+            }
+        });
+    }
+
+    private void resize(int current, long expected) {
+        if (expected != generation()) {
+            return;
+        }
+        int previous = size;
+        int kept = Math.min(previous, current);
+        size = current;
+        beginChange();
+        // only the rows the table was showing are replaced; the rest were never read, and
+        // reporting them would have the table and its selection walk every page
+        stale.forEach((number, rows) -> {
+            for (int slot = 0; slot < rows.size() && number * pageSize + slot < kept; slot++) {
+                nextSet(number * pageSize + slot, rows.get(slot));
+            }
+        });
+        stale.clear();
+        if (current < previous) {
+            nextRemove(current, Collections.<T>nCopies(previous - current, null));
+        } else if (current > previous) {
+            nextAdd(previous, current);
+        }
+        endChange();
+    }
+
+    private void load(int number) {
+        if ((long) number * pageSize >= size()) {
+            return;
+        }
+        PageQuery current = query;
+        long expected;
+        Page<T> previous;
+        synchronized (pages) {
+            if (pages.containsKey(number) || !loading.add(number)) {
+                return;
+            }
+            expected = generation;
+            previous = pages.get(number - 1);
+        }
+        execute(() -> {
+            try {
+                store(number, repository.findPage(current, previous, number * pageSize, pageSize), expected);
+            } catch (RuntimeException e) {
+                // the placeholder stays, and the next time the row is drawn the page is asked for again
+                LOG.log(System.Logger.Level.WARNING, "Unable to load table page " + number, e);
+            } finally {
+                synchronized (pages) {
+                    loading.remove(number);
+                }
+            }
+        });
+    }
+
+    private void execute(Runnable work) {
+        try {
+            loader.execute(work);
+        } catch (RejectedExecutionException e) {
+            // the dashboard has been closed, and nothing is left to show the result
+        }
+    }
+
+    private long generation() {
+        synchronized (pages) {
+            return generation;
+        }
+    }
+
+    private void store(int number, Page<T> page, long expected) {
+        synchronized (pages) {
+            if (expected != generation) {
+                return;
+            }
+            pages.put(number, page);
+            if (pages.size() > cachedPages) {
+                pages.remove(pages.keySet().iterator().next());
+            }
+            if (!awaited.remove(number)) {
+                return;
+            }
+        }
+        Platform.runLater(() -> showLoaded(number, expected));
+    }
+
+    /**
+     * Reports the placeholders of a page that has arrived as replaced by its rows.
+     */
+    private void showLoaded(int number, long expected) {
+        Page<T> page;
+        synchronized (pages) {
+            page = expected == generation ? pages.get(number) : null;
+        }
+        if (page == null) {
+            return;
+        }
+        stale.remove(number);
+        int from = number * pageSize;
+        int to = Math.min(size, from + page.rows().size());
+        if (from >= to) {
+            return;
+        }
+        beginChange();
+        for (int index = from; index < to; index++) {
+            nextSet(index, null);
+        }
+        endChange();
+    }
+}
@@ -19,12 +19,13 @@ import javafx.stage.Window;
 
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 
 public final class PatientEntryDialog {
     private PatientEntryDialog() {
     }
 
-    public static Optional<PatientRecord> request(Window owner, PatientRecord existing) {
+    public static Optional<PatientRecord> request(Window owner, PatientRecord existing, Supplier<String> idSupplier) {
         Stage dialog = new Stage();
         dialog.initOwner(owner);
         dialog.initModality(Modality.APPLICATION_MODAL);
@@ -75,7 +76,7 @@ public final class PatientEntryDialog {
             if (name.isEmpty() || status.isEmpty() || room.isEmpty()) {
                 return;
             }
-            result.set(new PatientRecord(name, status, room));
+            result.set(new PatientRecord(existing == null ? idSupplier.get() : existing.getId(), name, status, room));
             dialog.close();
         });
 
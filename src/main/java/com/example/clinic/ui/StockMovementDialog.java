@@ -0,0 +1,122 @@
+package com.example.clinic.ui;
+
+import com.example.clinic.model.InventoryItem;
+import com.example.clinic.model.StockMovement;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Scene;
+import javafx.scene.control.Button;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.TextField;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.VBox;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+import javafx.scene.text.Text;
+import javafx.stage.Modality;
+import javafx.stage.Stage;
+import javafx.stage.Window;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+public final class StockMovementDialog {
+    private StockMovementDialog() {
+    }
+
+    /**
+     * A movement as entered: receipts and consumptions take positive unit counts, adjustments a
+     * signed correction.
+     */
+    public record Movement(StockMovement.Kind kind, int units) {
+        public int delta() {
+            return kind == StockMovement.Kind.CONSUMPTION ? -units : units;
+        }
+    }
+
+    public static Optional<Movement> request(Window owner, InventoryItem item, String usage) {
+        Stage dialog = new Stage();
+        dialog.initOwner(owner);
+        dialog.initModality(Modality.APPLICATION_MODAL);
+        dialog.setTitle("Record Stock Movement");
+
+        Text header = new Text(dialog.getTitle());
+        header.setFont(Font.font("Segoe UI", FontWeight.BOLD, 20));
+        header.getStyleClass().add("section-heading");
+
+        Label itemLabel = new Label(item.getName() + " (" + item.getId() + "): " + item.getQuantity() + " on hand");
+        itemLabel.getStyleClass().add("muted-label");
+        Label usageLabel = new Label(usage);
+        usageLabel.setWrapText(true);
+        usageLabel.getStyleClass().add("muted-text");
+
+        Label kindLabel = new Label("Movement");
+        kindLabel.getStyleClass().add("muted-label");
+        ComboBox<StockMovement.Kind> kindField = new ComboBox<>();
+        kindField.getItems().setAll(StockMovement.Kind.values());
+        kindField.setValue(StockMovement.Kind.CONSUMPTION);
+        kindField.setMaxWidth(Double.MAX_VALUE);
+        kindField.getStyleClass().add("input-field");
+
+        Label unitsLabel = new Label("Units");
+        unitsLabel.getStyleClass().add("muted-label");
+        TextField unitsField = new TextField();
+        unitsField.setPromptText("Units received or used; signed for adjustments");
+        unitsField.getStyleClass().add("input-field");
+
+        Button cancel = new Button("Cancel");
+        cancel.setOnAction(e -> dialog.close());
+        cancel.getStyleClass().add("ghost-button");
+        cancel.setPrefWidth(110);
+
+        Button submit = new Button("Record");
+        submit.getStyleClass().add("primary-button");
+        submit.setPrefWidth(110);
+
+        AtomicReference<Movement> result = new AtomicReference<>();
+        submit.setOnAction(e -> {
+            StockMovement.Kind kind = kindField.getValue();
+            String unitsInput = unitsField.getText().trim();
+            if (kind == null || unitsInput.isEmpty()) {
+                return;
+            }
+            try {
+                int units = Integer.parseInt(unitsInput);
+                if (units == 0 || (units < 0 && kind != StockMovement.Kind.ADJUSTMENT)) {
+                    return;
+                }
+                result.set(new Movement(kind, units));
+                dialog.close();
+            } catch (IllegalArgumentException ex) {
+                // keep dialog open on parse errors
+            }
+        });
+
+        HBox actions = new HBox(12, cancel, submit);
+        actions.setAlignment(Pos.CENTER_RIGHT);
+        actions.setPadding(new Insets(12, 0, 0, 0));
+
+        VBox form = new VBox(8, itemLabel, usageLabel, kindLabel, kindField, unitsLabel, unitsField);
+
+        VBox root = new VBox(14, header, form, actions);
+        root.setPadding(new Insets(20));
+        root.setSpacing(6);
+        root.getStyleClass().add("dialog-root");
+        VBox.setVgrow(form, Priority.ALWAYS);
+
+        Scene scene = new Scene(root, 420, 340);
+        applyStyles(scene);
+        dialog.setScene(scene);
+        dialog.showAndWait();
+        return Optional.ofNullable(result.get());
+    }
+
+    private static void applyStyles(Scene scene) {
+        var css = StockMovementDialog.class.getResource("/styles/app.css");
+        if (css != null) {
+            scene.getStylesheets().add(css.toExternalForm());
+        }
+    }
+}
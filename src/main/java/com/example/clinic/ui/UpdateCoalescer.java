@@ -0,0 +1,134 @@
+package com.example.clinic.ui;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Collects updates from any thread and hands them to the FX thread in batches, one
+ * {@code runLater} per batch however many updates arrived in between. Updates with the same key
+ * replace each other, so a row changed several times between batches is applied once, with its
+ * latest value. The gap between batches follows how long the last ones took to apply, keeping the
+ * FX thread's share at about {@link #TARGET_LOAD}: a few updates are shown within a frame, and a
+ * flood is shown in larger, less frequent batches instead of queueing behind the screen.
+ */
+final class UpdateCoalescer<K, V> {
+    private static final long MIN_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(16);
+    private static final long MAX_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final double TARGET_LOAD = 0.25;
+
+    private final Function<V, K> keyOf;
+    private final Consumer<Collection<V>> apply;
+    private final Executor fxThread;
+    private final ScheduledExecutorService timer;
+    private final Object lock = new Object();
+    private LinkedHashMap<K, V> pending = new LinkedHashMap<>();
+    private boolean scheduled;
+    private boolean closed;
+    private long lastAppliedNanos;
+    private long intervalNanos = MIN_INTERVAL_NANOS;
+    private long received;
+    private long batches;
+
+    UpdateCoalescer(String name, Function<V, K> keyOf, Consumer<Collection<V>> apply, Executor fxThread) {
+        this.keyOf = keyOf;
+        this.apply = apply;
+        this.fxThread = fxThread;
+        this.lastAppliedNanos = System.nanoTime() - MAX_INTERVAL_NANOS;
+        this.timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Queues {@code update} for the next batch. Safe to call from any thread.
+     */
+    void offer(V update) {
+        long delay;
+        synchronized (lock) {
+            if (closed) {
+                return;
+            }
+            pending.put(keyOf.apply(update), update);
+            received++;
+            if (scheduled) {
+                return;
+            }
+            scheduled = true;
+            delay = lastAppliedNanos + intervalNanos - System.nanoTime();
+        }
+        schedule(delay);
+    }
+
+    /**
+     * Updates offered so far, and the batches they were applied in.
+     */
+    Metrics metrics() {
+        synchronized (lock) {
+            return new Metrics(received, batches, intervalNanos / 1_000_000.0);
+        }
+    }
+
+    void shutdown() {
+        synchronized (lock) {
+            closed = true;
+            pending.clear();
+        }
+        timer.shutdownNow();
+    }
+
+    private void schedule(long delayNanos) {
+        if (delayNanos <= 0) {
+            fxThread.execute(this::drain);
+            return;
+        }
+        try {
+            timer.schedule(() -> fxThread.execute(this::drain), delayNanos, TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            // shut down while the batch was being applied; nothing is shown after that
+        }
+    }
+
+    private void drain() {
+        LinkedHashMap<K, V> batch;
+        synchronized (lock) {
+            batch = pending;
+            pending = new LinkedHashMap<>();
+        }
+        long started = System.nanoTime();
+        try {
+            if (!batch.isEmpty()) {
+                apply.accept(batch.values());
+            }
+        } finally {
+            long finished = System.nanoTime();
+            long delay;
+            boolean again;
+            synchronized (lock) {
+                // averaged with the previous gap so one slow batch does not stall the next ones
+                long wanted = (long) ((finished - started) / TARGET_LOAD);
+                intervalNanos = Math.max(MIN_INTERVAL_NANOS, Math.min(MAX_INTERVAL_NANOS,
+                        (intervalNanos + wanted) / 2));
+                lastAppliedNanos = finished;
+                batches++;
+                again = !pending.isEmpty() && !closed;
+                scheduled = again;
+                delay = intervalNanos;
+            }
+            if (again) {
+                schedule(delay);
+            }
+        }
+    }
+
+    record Metrics(long received, long batches, double intervalMillis) {
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.clinic.ui;
+
+import javafx.scene.Node;
+
+import java.lang.ref.SoftReference;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Builds each dashboard section on first use and hands back the same node afterwards. Pinned
+ * sections are held for the life of the dashboard; these are the ones it keeps fields pointing
+ * into, which would keep them reachable anyway. The others stay strongly held while they are
+ * among the {@code hotCapacity} most recently shown and softly held after that, so a section
+ * nobody opens is released only when the collector needs the memory, and rebuilt on its next
+ * visit.
+ */
+final class ViewRegistry {
+    private final int hotCapacity;
+    private final Map<String, Section> sections = new HashMap<>();
+    private final LinkedHashMap<String, Node> hot = new LinkedHashMap<>(16, 0.75f, true);
+    private int builds;
+
+    ViewRegistry(int hotCapacity) {
+        if (hotCapacity < 0) {
+            throw new IllegalArgumentException("Hot capacity must not be negative");
+        }
+        this.hotCapacity = hotCapacity;
+    }
+
+    void register(String id, Supplier<Node> builder, boolean pinned) {
+        sections.put(id, new Section(builder, pinned));
+    }
+
+    /**
+     * The section's node, built now if it has never been built or has been released.
+     */
+    Node get(String id) {
+        Section section = sections.get(id);
+        if (section == null) {
+            throw new IllegalArgumentException("Unknown section " + id);
+        }
+        Node node = section.pinned != null ? section.pinned : section.soft.get();
+        if (node == null) {
+            node = section.builder.get();
+            builds++;
+            if (section.isPinned) {
+                section.pinned = node;
+            } else {
+                section.soft = new SoftReference<>(node);
+            }
+        }
+        if (!section.isPinned) {
+            hot.put(id, node);
+            if (hot.size() > hotCapacity) {
+                String coldest = hot.keySet().iterator().next();
+                hot.remove(coldest);
+            }
+        }
+        return node;
+    }
+
+    boolean isRegistered(String id) {
+        return sections.containsKey(id);
+    }
+
+    boolean isBuilt(String id) {
+        Section section = sections.get(id);
+        return section != null && (section.pinned != null || section.soft.get() != null);
+    }
+
+    /**
+     * How many times any section has been built, including rebuilds after a release.
+     */
+    int builds() {
+        return builds;
+    }
+
+    private static final class Section {
+        private final Supplier<Node> builder;
+        private final boolean isPinned;
+        private Node pinned;
+        private SoftReference<Node> soft = new SoftReference<>(null);
+
+        private Section(Supplier<Node> builder, boolean isPinned) {
+            this.builder = builder;
+            this.isPinned = isPinned;
+        }
+    }
+}
@@ -2,65 +2,122 @@ package com.example.clinic.util;
 
 import com.example.clinic.model.AppUser;
 import com.example.clinic.model.PatientRecord;
+import com.example.clinic.model.StockMovement;
 
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Instant;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.util.List;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.concurrent.CancellationException;
 
 public final class CsvExporter {
-    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+    private static volatile ExportOutput output = ExportOutput.fromSystemProperties();
 
     private CsvExporter() {
         // Utility class
     }
 
-    public static Path exportUsers(List<AppUser> users) throws IOException {
-        Path exports = Path.of("exports");
-        Files.createDirectories(exports);
-        String filename = "users-" + LocalDateTime.now().format(FORMATTER) + ".csv";
-        Path target = exports.resolve(filename);
-        try (var writer = Files.newBufferedWriter(target)) {
-            writer.write("Username,Role,PasswordHash\n");
-            for (AppUser user : users) {
-                writer.write(String.format("%s,%s,%s\n", user.getUsername(), user.getRole(), user.getPasswordHash()));
-            }
-        }
-        return target;
-    }
-
-    public static Path exportPatients(List<PatientRecord> patients) throws IOException {
-        Path exports = Path.of("exports");
-        Files.createDirectories(exports);
-        String filename = "patients-" + LocalDateTime.now().format(FORMATTER) + ".csv";
-        Path target = exports.resolve(filename);
-        try (var writer = Files.newBufferedWriter(target)) {
-            writer.write("Name,Status,Room\n");
-            for (PatientRecord patient : patients) {
-                writer.write(String.format("%s,%s,%s\n", patient.getName(), patient.getStatus(), patient.getRoom()));
-            }
-        }
-        return target;
-    }
-
-    public static Path exportStatusSnapshot(List<PatientRecord> patients) throws IOException {
-        Path exports = Path.of("exports");
-        Files.createDirectories(exports);
-        LocalDateTime now = LocalDateTime.now();
-        String filename = "status-" + now.format(FORMATTER) + ".csv";
-        Path target = exports.resolve(filename);
-        try (var writer = Files.newBufferedWriter(target)) {
-            writer.write("Name,Status,Room,CapturedAt\n");
-            for (PatientRecord patient : patients) {
-                writer.write(String.format("%s,%s,%s,%s\n",
-                        patient.getName(),
-                        patient.getStatus(),
-                        patient.getRoom(),
-                        now));
+    public static void configureOutput(ExportOutput exportOutput) {
+        output = exportOutput;
+    }
+
+    public static Path exportUsers(Iterable<AppUser> users) throws IOException {
+        return exportUsers(users.iterator());
+    }
+
+    public static Path exportUsers(Iterator<AppUser> users) throws IOException {
+        return exportUsers(users, ExportProgress.NONE);
+    }
+
+    public static Path exportUsers(Iterator<AppUser> users, ExportProgress progress) throws IOException {
+        Base64.Encoder encoder = Base64.getEncoder();
+        return export("users", users, progress,
+                new String[]{"Username", "Role", "PasswordHash", "Salt", "HashScheme"},
+                (csv, user) -> csv.field(user.getUsername())
+                        .field(user.getRole())
+                        .field(user.getPasswordHash())
+                        .field(encoder.encodeToString(user.getSalt()))
+                        .field(user.getScheme().toString()));
+    }
+
+    public static Path exportPatients(Iterable<PatientRecord> patients) throws IOException {
+        return exportPatients(patients.iterator());
+    }
+
+    public static Path exportPatients(Iterator<PatientRecord> patients) throws IOException {
+        return exportPatients(patients, ExportProgress.NONE);
+    }
+
+    public static Path exportPatients(Iterator<PatientRecord> patients, ExportProgress progress) throws IOException {
+        return export("patients", patients, progress,
+                new String[]{"Name", "Status", "Room"},
+                (csv, patient) -> csv.field(patient.getName())
+                        .field(patient.getStatus())
+                        .field(patient.getRoom()));
+    }
+
+    public static Path exportStatusSnapshot(Iterable<PatientRecord> patients) throws IOException {
+        return exportStatusSnapshot(patients.iterator());
+    }
+
+    public static Path exportStatusSnapshot(Iterator<PatientRecord> patients) throws IOException {
+        return exportStatusSnapshot(patients, ExportProgress.NONE);
+    }
+
+    public static Path exportStatusSnapshot(Iterator<PatientRecord> patients, ExportProgress progress) throws IOException {
+        String capturedAt = LocalDateTime.now().toString();
+        return export("status", patients, progress,
+                new String[]{"Name", "Status", "Room", "CapturedAt"},
+                (csv, patient) -> csv.field(patient.getName())
+                        .field(patient.getStatus())
+                        .field(patient.getRoom())
+                        .field(capturedAt));
+    }
+
+    public static Path exportLedger(Iterable<StockMovement> movements) throws IOException {
+        return exportLedger(movements.iterator());
+    }
+
+    public static Path exportLedger(Iterator<StockMovement> movements) throws IOException {
+        return exportLedger(movements, ExportProgress.NONE);
+    }
+
+    public static Path exportLedger(Iterator<StockMovement> movements, ExportProgress progress) throws IOException {
+        return export("ledger", movements, progress,
+                new String[]{"ItemId", "RecordedAt", "Kind", "Delta", "Balance"},
+                (csv, movement) -> csv.field(movement.getItemId())
+                        .field(Instant.ofEpochMilli(movement.getRecordedAt()).toString())
+                        .field(movement.getKind().name())
+                        .field(movement.getDelta())
+                        .field(movement.getBalance()));
+    }
+
+    private static <T> Path export(String prefix, Iterator<T> rows, ExportProgress progress, String[] header,
+                                   RowWriter<T> rowWriter) throws IOException {
+        try (ExportOutput.PendingFile file = output.begin(prefix)) {
+            try (CsvWriter csv = new CsvWriter(file.writer())) {
+                csv.row(header);
+                long written = 0;
+                while (rows.hasNext()) {
+                    rowWriter.write(csv, rows.next());
+                    csv.endRow();
+                    if (++written % ExportProgress.REPORT_INTERVAL == 0) {
+                        if (progress.isCancelled()) {
+                            throw new CancellationException("Export of " + prefix + " cancelled");
+                        }
+                        progress.rowsWritten(written);
+                    }
+                }
+                progress.rowsWritten(written);
             }
+            return file.commit();
         }
-        return target;
+    }
+
+    @FunctionalInterface
+    private interface RowWriter<T> {
+        void write(CsvWriter csv, T row) throws IOException;
     }
 }
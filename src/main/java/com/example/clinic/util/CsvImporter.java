@@ -0,0 +1,247 @@
+package com.example.clinic.util;
+
+import com.example.clinic.data.UserRepository;
+import com.example.clinic.model.AppUser;
+import com.example.clinic.model.PasswordScheme;
+import com.example.clinic.service.PasswordHashingService;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+public final class CsvImporter {
+    private CsvImporter() {
+        // Utility class
+    }
+
+    /**
+     * Loads a roster written by {@link CsvExporter#exportUsers} (Username,Role,PasswordHash,Salt,HashScheme)
+     * or an onboarding sheet with a plain Password column, skipping usernames that already exist.
+     * The file is checked in full first, so a bad row fails the import before anything is saved.
+     * Then it is read again {@code batchSize} rows at a time: each window's plain passwords are
+     * hashed through {@link PasswordHashingService#withPasswords} and the window is saved in one batched transaction, so memory
+     * holds one window however long the file is, and the repository's write lock is only taken
+     * once a window is ready. The import itself runs on a thread of its own, never on the pool it
+     * waits for. Pass {@code overwrite} to replace existing users' roles and passwords instead.
+     */
+    public static CompletableFuture<Integer> importUsers(Path source, UserRepository repository,
+                                                         PasswordHashingService hasher) {
+        return importUsers(source, repository, hasher, UserRepository.DEFAULT_BATCH_SIZE, false);
+    }
+
+    public static CompletableFuture<Integer> importUsers(Path source, UserRepository repository,
+                                                         PasswordHashingService hasher, int batchSize,
+                                                         boolean overwrite) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            forEachWindow(source, batchSize, window -> {
+            });
+            int[] imported = {0};
+            forEachWindow(source, batchSize, window -> {
+                if (!overwrite) {
+                    Set<String> existing = repository.existingUsernames(
+                            window.stream().map(UserRow::username).toList());
+                    window.removeIf(row -> existing.contains(row.username()));
+                }
+                List<PasswordHashingService.NewUser> unhashed = new ArrayList<>();
+                for (UserRow row : window) {
+                    if (row.stored() == null) {
+                        unhashed.add(new PasswordHashingService.NewUser(row.username(), row.role(), row.password()));
+                    }
+                }
+                Iterator<AppUser> hashed = hasher.withPasswords(unhashed).join().iterator();
+                List<AppUser> users = new ArrayList<>(window.size());
+                for (UserRow row : window) {
+                    users.add(row.stored() != null ? row.stored() : hashed.next());
+                }
+                imported[0] += repository.saveAll(users.iterator(), batchSize, overwrite);
+            });
+            return imported[0];
+        }, runnable -> {
+            Thread thread = new Thread(runnable, "csv-import");
+            thread.setDaemon(true);
+            thread.start();
+        });
+    }
+
+    private static void forEachWindow(Path source, int batchSize, Consumer<List<UserRow>> action) {
+        try (BufferedReader reader = Files.newBufferedReader(source)) {
+            UserRows rows = new UserRows(new RecordReader(reader));
+            List<UserRow> window = new ArrayList<>(batchSize);
+            while (rows.hasNext()) {
+                window.add(rows.next());
+                if (window.size() == batchSize) {
+                    action.accept(window);
+                    window.clear();
+                }
+            }
+            if (!window.isEmpty()) {
+                action.accept(window);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * One checked row: either a stored hash to keep, or a plain password still to hash.
+     */
+    private record UserRow(String username, String role, AppUser stored, String password) {
+    }
+
+    private static final class UserRows {
+        private final RecordReader records;
+        private final int usernameColumn;
+        private final int roleColumn;
+        private final int hashColumn;
+        private final int saltColumn;
+        private final int schemeColumn;
+        private final int passwordColumn;
+        private List<String> next;
+        private int rowCount = 1;
+
+        UserRows(RecordReader records) {
+            this.records = records;
+            List<String> header = records.read();
+            if (header == null) {
+                throw new IllegalArgumentException("User CSV is empty");
+            }
+            usernameColumn = require(header, "username");
+            roleColumn = require(header, "role");
+            hashColumn = indexOf(header, "passwordhash");
+            saltColumn = indexOf(header, "salt");
+            schemeColumn = indexOf(header, "hashscheme");
+            passwordColumn = indexOf(header, "password");
+            if ((hashColumn < 0 || saltColumn < 0) && passwordColumn < 0) {
+                throw new IllegalArgumentException("User CSV needs PasswordHash and Salt columns or a Password column");
+            }
+            advance();
+        }
+
+        boolean hasNext() {
+            return next != null;
+        }
+
+        UserRow next() {
+            List<String> row = next;
+            int rowNumber = rowCount;
+            advance();
+            return parse(row, rowNumber);
+        }
+
+        private UserRow parse(List<String> row, int rowNumber) {
+            String username = field(row, usernameColumn).toUpperCase(Locale.ROOT);
+            String role = field(row, roleColumn);
+            if (username.isEmpty() || role.isEmpty()) {
+                throw new IllegalArgumentException("Missing username or role on row " + rowNumber);
+            }
+            if (hashColumn >= 0 && saltColumn >= 0 && !field(row, hashColumn).isEmpty()) {
+                byte[] salt = Base64.getDecoder().decode(field(row, saltColumn));
+                String scheme = schemeColumn < 0 ? "" : field(row, schemeColumn);
+                return new UserRow(username, role, AppUser.fromStorage(UUID.randomUUID(), username, role,
+                        field(row, hashColumn), salt, scheme.isEmpty() ? PasswordScheme.LEGACY : PasswordScheme.parse(scheme)),
+                        null);
+            }
+            String password = passwordColumn < 0 ? "" : field(row, passwordColumn);
+            if (password.isEmpty()) {
+                throw new IllegalArgumentException("Missing password on row " + rowNumber);
+            }
+            return new UserRow(username, role, null, password);
+        }
+
+        private void advance() {
+            do {
+                next = records.read();
+                rowCount++;
+            } while (next != null && next.size() == 1 && next.get(0).isBlank());
+        }
+
+        private static String field(List<String> row, int column) {
+            return column < row.size() ? row.get(column).trim() : "";
+        }
+
+        private static int require(List<String> header, String name) {
+            int index = indexOf(header, name);
+            if (index < 0) {
+                throw new IllegalArgumentException("User CSV is missing the " + name + " column");
+            }
+            return index;
+        }
+
+        private static int indexOf(List<String> header, String name) {
+            for (int i = 0; i < header.size(); i++) {
+                if (header.get(i).trim().equalsIgnoreCase(name)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+
+    private static final class RecordReader {
+        private final BufferedReader reader;
+
+        RecordReader(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        List<String> read() {
+            try {
+                String line = reader.readLine();
+                if (line == null) {
+                    return null;
+                }
+                List<String> fields = new ArrayList<>();
+                StringBuilder field = new StringBuilder();
+                boolean quoted = false;
+                while (true) {
+                    for (int i = 0; i < line.length(); i++) {
+                        char c = line.charAt(i);
+                        if (quoted) {
+                            if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                                field.append('"');
+                                i++;
+                            } else if (c == '"') {
+                                quoted = false;
+                            } else {
+                                field.append(c);
+                            }
+                        } else if (c == '"') {
+                            quoted = true;
+                        } else if (c == ',') {
+                            fields.add(field.toString());
+                            field.setLength(0);
+                        } else {
+                            field.append(c);
+                        }
+                    }
+                    if (!quoted) {
+                        break;
+                    }
+                    line = reader.readLine();
+                    if (line == null) {
+                        break;
+                    }
+                    field.append('\n');
+                }
+                fields.add(field.toString());
+                return fields;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.clinic.util;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Streaming RFC 4180 writer. Fields are copied straight into one reusable char buffer, quoted
+ * only when they contain a separator, quote or line break, and the buffer is handed to the
+ * underlying writer in large chunks, so writing a row allocates nothing.
+ */
+public final class CsvWriter implements Closeable, Flushable {
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    private final Writer out;
+    private final char[] buffer;
+    private int position;
+    private boolean rowStarted;
+
+    public CsvWriter(Writer out) {
+        this(out, DEFAULT_BUFFER_SIZE);
+    }
+
+    public CsvWriter(Writer out, int bufferSize) {
+        if (bufferSize < 64) {
+            throw new IllegalArgumentException("Buffer size must be at least 64 chars");
+        }
+        this.out = out;
+        this.buffer = new char[bufferSize];
+    }
+
+    public CsvWriter row(String... fields) throws IOException {
+        for (String field : fields) {
+            field(field);
+        }
+        return endRow();
+    }
+
+    public CsvWriter field(String value) throws IOException {
+        separator();
+        if (value == null || value.isEmpty()) {
+            return this;
+        }
+        if (needsQuoting(value)) {
+            append('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"') {
+                    append('"');
+                }
+                append(c);
+            }
+            append('"');
+        } else {
+            appendPlain(value);
+        }
+        return this;
+    }
+
+    public CsvWriter field(long value) throws IOException {
+        separator();
+        if (value == Long.MIN_VALUE) {
+            appendPlain("-9223372036854775808");
+            return this;
+        }
+        if (value < 0) {
+            append('-');
+            value = -value;
+        }
+        ensureCapacity(19);
+        int digits = 1;
+        for (long rest = value / 10; rest != 0; rest /= 10) {
+            digits++;
+        }
+        int end = position + digits;
+        for (int i = end - 1; i >= position; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        position = end;
+        return this;
+    }
+
+    public CsvWriter endRow() throws IOException {
+        append('\r');
+        append('\n');
+        rowStarted = false;
+        return this;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        drain();
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            drain();
+        } finally {
+            out.close();
+        }
+    }
+
+    private static boolean needsQuoting(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void separator() throws IOException {
+        if (rowStarted) {
+            append(',');
+        }
+        rowStarted = true;
+    }
+
+    private void appendPlain(String value) throws IOException {
+        int offset = 0;
+        int remaining = value.length();
+        while (remaining > 0) {
+            if (position == buffer.length) {
+                drain();
+            }
+            int chunk = Math.min(remaining, buffer.length - position);
+            value.getChars(offset, offset + chunk, buffer, position);
+            position += chunk;
+            offset += chunk;
+            remaining -= chunk;
+        }
+    }
+
+    private void append(char c) throws IOException {
+        if (position == buffer.length) {
+            drain();
+        }
+        buffer[position++] = c;
+    }
+
+    private void ensureCapacity(int chars) throws IOException {
+        if (buffer.length - position < chars) {
+            drain();
+        }
+    }
+
+    private void drain() throws IOException {
+        if (position > 0) {
+            out.write(buffer, 0, position);
+            position = 0;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.clinic.util;
+
+import com.example.clinic.model.PatientRecord;
+import com.sun.management.ThreadMXBean;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Writes the same patient rows through the {@code String.format} path the exporters used to take
+ * and through {@link CsvWriter}, into a writer that discards its input so only formatting is
+ * timed, and reports nanoseconds and bytes allocated per row. Run with
+ * {@code java -cp target/classes com.example.clinic.util.CsvWriterBenchmark 1000000}.
+ */
+public final class CsvWriterBenchmark {
+    private CsvWriterBenchmark() {
+    }
+
+    private static final String[] STATUSES = {"Stable - Monitoring", "Critical - Ventilated", "Recovery, Physical"};
+
+    public static void main(String[] args) throws IOException {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        PatientRecord[] patients = new PatientRecord[1_024];
+        for (int i = 0; i < patients.length; i++) {
+            patients[i] = new PatientRecord("PAT-" + (100_000 + i), "Patient \"" + i + "\" Vega",
+                    STATUSES[i % STATUSES.length], "Room " + (100 + i % 400));
+        }
+        ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        for (int round = 0; round < 2; round++) {
+            // the first round warms up the JIT; only the second is representative
+            long bytes = threads.getCurrentThreadAllocatedBytes();
+            long start = System.nanoTime();
+            try (Writer writer = new BufferedWriter(Writer.nullWriter())) {
+                writer.write("Name,Status,Room\n");
+                for (int i = 0; i < rows; i++) {
+                    PatientRecord patient = patients[i & (patients.length - 1)];
+                    writer.write(String.format("%s,%s,%s\n", patient.getName(), patient.getStatus(),
+                            patient.getRoom()));
+                }
+            }
+            report("String.format", rows, System.nanoTime() - start,
+                    threads.getCurrentThreadAllocatedBytes() - bytes);
+
+            bytes = threads.getCurrentThreadAllocatedBytes();
+            start = System.nanoTime();
+            try (CsvWriter csv = new CsvWriter(Writer.nullWriter())) {
+                csv.row("Name", "Status", "Room");
+                for (int i = 0; i < rows; i++) {
+                    PatientRecord patient = patients[i & (patients.length - 1)];
+                    csv.field(patient.getName()).field(patient.getStatus()).field(patient.getRoom()).endRow();
+                }
+            }
+            report("CsvWriter", rows, System.nanoTime() - start, threads.getCurrentThreadAllocatedBytes() - bytes);
+        }
+    }
+
+    private static void report(String label, int rows, long nanos, long bytes) {
+        System.out.printf("%-14s %,12d rows %8.1f ns/row %10.1f bytes/row%n", label, rows, (double) nanos / rows,
+                (double) bytes / rows);
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.clinic.util;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Where exports land on disk. Each export is written to a hidden temp file, optionally gzipped as
+ * it streams, and renamed into place only once complete, so readers never see half a file. Final
+ * names carry a millisecond timestamp plus a sequence number that is reserved on disk before the
+ * rename, so two exports can never overwrite each other. After every export the oldest files are
+ * pruned until the retention limits hold.
+ */
+public final class ExportOutput {
+    public static final String GZIP_PROPERTY = "clinic.export.gzip";
+    public static final String MAX_FILES_PROPERTY = "clinic.export.maxFiles";
+    public static final String MAX_BYTES_PROPERTY = "clinic.export.maxBytes";
+
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyyMMddHHmmssSSS");
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path directory;
+    private final boolean gzip;
+    private final RetentionPolicy retention;
+
+    public ExportOutput(Path directory, boolean gzip, RetentionPolicy retention) {
+        this.directory = directory;
+        this.gzip = gzip;
+        this.retention = retention;
+    }
+
+    public static ExportOutput fromSystemProperties() {
+        RetentionPolicy defaults = RetentionPolicy.defaults();
+        return new ExportOutput(Path.of("exports"),
+                Boolean.getBoolean(GZIP_PROPERTY),
+                new RetentionPolicy(Integer.getInteger(MAX_FILES_PROPERTY, defaults.maxFiles()),
+                        Long.getLong(MAX_BYTES_PROPERTY, defaults.maxTotalBytes())));
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public PendingFile begin(String prefix) throws IOException {
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, "." + prefix + "-", ".tmp");
+        return new PendingFile(prefix, temp);
+    }
+
+    public void applyRetention(Path keep) throws IOException {
+        List<Path> candidates = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(this::isManaged).forEach(candidates::add);
+        }
+        List<Entry> entries = new ArrayList<>(candidates.size());
+        long totalBytes = 0;
+        for (Path file : candidates) {
+            try {
+                BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                entries.add(new Entry(file, attributes.lastModifiedTime().toMillis(), attributes.size()));
+                totalBytes += attributes.size();
+            } catch (IOException e) {
+                // removed concurrently
+            }
+        }
+        entries.sort(Comparator.comparingLong(Entry::modifiedAt).thenComparing(entry -> entry.file().getFileName().toString()));
+        int remaining = entries.size();
+        for (Entry entry : entries) {
+            if (remaining <= retention.maxFiles() && totalBytes <= retention.maxTotalBytes()) {
+                break;
+            }
+            if (entry.file().equals(keep)) {
+                continue;
+            }
+            if (Files.deleteIfExists(entry.file())) {
+                remaining--;
+                totalBytes -= entry.size();
+            }
+        }
+    }
+
+    private boolean isManaged(Path file) {
+        String name = file.getFileName().toString();
+        return !name.startsWith(".") && (name.endsWith(".csv") || name.endsWith(".csv.gz")) && Files.isRegularFile(file);
+    }
+
+    private Path reserve(String prefix) throws IOException {
+        String stem = prefix + "-" + LocalDateTime.now().format(FORMATTER);
+        String extension = gzip ? ".csv.gz" : ".csv";
+        for (int sequence = 0; ; sequence++) {
+            Path candidate = directory.resolve(sequence == 0 ? stem + extension : stem + "-" + sequence + extension);
+            try {
+                return Files.createFile(candidate);
+            } catch (FileAlreadyExistsException e) {
+                // taken by a concurrent export, try the next sequence number
+            }
+        }
+    }
+
+    public final class PendingFile implements Closeable {
+        private final String prefix;
+        private final Path temp;
+        private final Writer writer;
+        private boolean committed;
+
+        private PendingFile(String prefix, Path temp) throws IOException {
+            this.prefix = prefix;
+            this.temp = temp;
+            OutputStream out = new BufferedOutputStream(Files.newOutputStream(temp), BUFFER_SIZE);
+            if (gzip) {
+                out = new GZIPOutputStream(out, BUFFER_SIZE);
+            }
+            this.writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        }
+
+        public Writer writer() {
+            return writer;
+        }
+
+        /**
+         * Moves the finished file into place. The writer must already be closed so compressed
+         * output is complete.
+         */
+        public Path commit() throws IOException {
+            Path target = reserve(prefix);
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException e) {
+                Files.deleteIfExists(target);
+                throw e;
+            }
+            committed = true;
+            try {
+                applyRetention(target);
+            } catch (IOException | UncheckedIOException e) {
+                // the export itself succeeded; pruning is retried after the next one
+            }
+            return target;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!committed) {
+                try {
+                    writer.close();
+                } finally {
+                    Files.deleteIfExists(temp);
+                }
+            }
+        }
+    }
+
+    public record RetentionPolicy(int maxFiles, long maxTotalBytes) {
+        public static RetentionPolicy defaults() {
+            return new RetentionPolicy(200, 512L * 1024 * 1024);
+        }
+    }
+
+    private record Entry(Path file, long modifiedAt, long size) {
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.clinic.util;
+
+/**
+ * Receives row counts while an export runs and lets the caller stop it early. Checked every
+ * {@link #REPORT_INTERVAL} rows so the hot loop stays cheap.
+ */
+public interface ExportProgress {
+    int REPORT_INTERVAL = 1_024;
+
+    ExportProgress NONE = new ExportProgress() {
+        @Override
+        public void rowsWritten(long rows) {
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return false;
+        }
+    };
+
+    void rowsWritten(long rows);
+
+    /**
+     * Sets the row count progress is measured against, for work that only learns it once running.
+     */
+    default void rowsExpected(long rows) {
+    }
+
+    boolean isCancelled();
+}
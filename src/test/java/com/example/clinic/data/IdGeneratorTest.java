@@ -0,0 +1,115 @@
+package com.example.clinic.data;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IdGeneratorTest {
+    private static final long EXISTING_ID = 389_999;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void sequenceStartsAboveTheHighestExistingId() throws SQLException {
+        try (ConnectionPool pool = open(1)) {
+            createAppointments(pool);
+            IdGenerator.Sequence sequence = new IdGenerator(pool).sequence("APT-", "appointment");
+
+            assertEquals("APT-" + (EXISTING_ID + 1), sequence.get());
+            assertEquals(EXISTING_ID + 2, sequence.nextValue());
+        }
+    }
+
+    @Test
+    void concurrentDrawsAreUniqueAndIncreasingOnEachThread() throws SQLException, InterruptedException {
+        int threads = 8;
+        long[][] drawn = new long[threads][20_000];
+        try (ConnectionPool pool = open(threads)) {
+            createAppointments(pool);
+            // small blocks, so the threads race for refills as well as for values
+            IdGenerator.Sequence sequence = new IdGenerator(pool, 10).sequence("APT-", "appointment");
+            draw(sequence, drawn);
+        }
+
+        for (long[] ids : drawn) {
+            assertTrue(ids[0] > EXISTING_ID, "reissued existing id " + ids[0]);
+            for (int i = 1; i < ids.length; i++) {
+                assertTrue(ids[i] > ids[i - 1], "ids went backwards on one thread");
+            }
+        }
+        long[] all = Arrays.stream(drawn).flatMapToLong(Arrays::stream).sorted().toArray();
+        for (int i = 1; i < all.length; i++) {
+            assertNotEquals(all[i - 1], all[i], "duplicate id");
+        }
+    }
+
+    @Test
+    void restartResumesAboveEveryIdDrawn() throws SQLException {
+        long highest = 0;
+        try (ConnectionPool pool = open(1)) {
+            createAppointments(pool);
+            IdGenerator.Sequence sequence = new IdGenerator(pool).sequence("APT-", "appointment");
+            for (int i = 0; i < 2_500; i++) {
+                highest = sequence.nextValue();
+            }
+        }
+
+        try (ConnectionPool pool = open(1)) {
+            long next = new IdGenerator(pool).sequence("APT-", "appointment").nextValue();
+            assertTrue(next > highest, "restart reissued id " + next);
+        }
+    }
+
+    private ConnectionPool open(int connections) {
+        return new ConnectionPool("jdbc:sqlite:" + directory.resolve("ids.db"), connections);
+    }
+
+    private static void createAppointments(ConnectionPool pool) throws SQLException {
+        pool.write(connection -> {
+            try (Statement statement = connection.raw().createStatement()) {
+                statement.execute("CREATE TABLE appointment (id TEXT PRIMARY KEY)");
+                statement.execute("INSERT INTO appointment (id) VALUES ('APT-" + EXISTING_ID + "')");
+            }
+            return null;
+        });
+    }
+
+    private static void draw(IdGenerator.Sequence sequence, long[][] drawn) throws InterruptedException {
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        CountDownLatch go = new CountDownLatch(1);
+        Thread[] workers = new Thread[drawn.length];
+        for (int t = 0; t < drawn.length; t++) {
+            long[] ids = drawn[t];
+            workers[t] = new Thread(() -> {
+                try {
+                    go.await();
+                    for (int i = 0; i < ids.length; i++) {
+                        ids[i] = sequence.nextValue();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (RuntimeException e) {
+                    failure.compareAndSet(null, e);
+                }
+            });
+            workers[t].start();
+        }
+        go.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        assertNull(failure.get());
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.clinic.inventory;
+
+import com.example.clinic.model.InventoryItem;
+import com.example.clinic.model.StockMovement;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class InventoryLedgerTest {
+    private static final String ITEM = "INV-000001";
+    private static final long DAY = 86_400_000L;
+
+    @Test
+    void quantityAtFindsTheLastMovementAtOrBeforeTheTime() {
+        InventoryLedger ledger = new InventoryLedger();
+        ledger.record(ITEM, StockMovement.Kind.RECEIPT, 100, 1_000);
+        ledger.record(ITEM, StockMovement.Kind.CONSUMPTION, -30, 2_000);
+        ledger.record(ITEM, StockMovement.Kind.ADJUSTMENT, 5, 3_000);
+
+        assertEquals(0, ledger.quantityAt(ITEM, 999));
+        assertEquals(100, ledger.quantityAt(ITEM, 1_000));
+        assertEquals(100, ledger.quantityAt(ITEM, 1_999));
+        assertEquals(70, ledger.quantityAt(ITEM, 2_000));
+        assertEquals(75, ledger.quantityAt(ITEM, Long.MAX_VALUE));
+        assertEquals(0, ledger.quantityAt("INV-404", 5_000));
+    }
+
+    @Test
+    void consumedBetweenCountsOnlyConsumptionInsideTheWindow() {
+        InventoryLedger ledger = new InventoryLedger();
+        ledger.record(ITEM, StockMovement.Kind.RECEIPT, 500, 0);
+        ledger.record(ITEM, StockMovement.Kind.CONSUMPTION, -10, 1_000);
+        ledger.record(ITEM, StockMovement.Kind.ADJUSTMENT, -50, 2_000);
+        ledger.record(ITEM, StockMovement.Kind.CONSUMPTION, -20, 3_000);
+        ledger.record(ITEM, StockMovement.Kind.CONSUMPTION, -40, 4_000);
+
+        assertEquals(70, ledger.consumedBetween(ITEM, 0, 4_000));
+        // the window is (from, to]: a movement exactly at from is outside it
+        assertEquals(60, ledger.consumedBetween(ITEM, 1_000, 4_000));
+        assertEquals(20, ledger.consumedBetween(ITEM, 1_500, 3_999));
+        assertEquals(0, ledger.consumedBetween(ITEM, 4_000, 9_000));
+        assertEquals(0, ledger.consumedBetween(ITEM, 3_000, 1_000));
+    }
+
+    @Test
+    void consumptionPerDayDividesByTheWindowLength() {
+        InventoryLedger ledger = new InventoryLedger();
+        ledger.record(ITEM, StockMovement.Kind.RECEIPT, 1_000, 0);
+        ledger.record(ITEM, StockMovement.Kind.CONSUMPTION, -70, DAY);
+
+        assertEquals(10.0, ledger.consumptionPerDay(ITEM, 0, 7 * DAY), 1e-9);
+        assertEquals(0.0, ledger.consumptionPerDay(ITEM, DAY, DAY), 1e-9);
+    }
+
+    @Test
+    void movementStampedBeforeTheLastIsMovedUpToIt() {
+        InventoryLedger ledger = new InventoryLedger();
+        ledger.record(ITEM, StockMovement.Kind.RECEIPT, 100, 5_000);
+        StockMovement late = ledger.record(ITEM, StockMovement.Kind.CONSUMPTION, -25, 4_000);
+
+        assertEquals(5_000, late.getRecordedAt());
+        assertEquals(75, late.getBalance());
+        assertEquals(0, ledger.quantityAt(ITEM, 4_999));
+        assertEquals(75, ledger.quantityAt(ITEM, 5_000));
+    }
+
+    @Test
+    void recordAssignsSequentialIdsAndRunningBalances() {
+        InventoryLedger ledger = new InventoryLedger();
+        StockMovement first = ledger.record(ITEM, StockMovement.Kind.RECEIPT, 40, 1_000);
+        StockMovement second = ledger.record(ITEM, StockMovement.Kind.CONSUMPTION, -15, 2_000);
+
+        assertEquals(StockMovement.idFor(ITEM, 1), first.getId());
+        assertEquals(StockMovement.idFor(ITEM, 2), second.getId());
+        assertEquals(40, first.getBalance());
+        assertEquals(25, second.getBalance());
+        assertEquals(25, ledger.balance(ITEM));
+        assertEquals(2, ledger.movementCount(ITEM));
+    }
+
+    @Test
+    void loadReplaysPersistedMovementsLikeRecord() {
+        InventoryLedger recorded = new InventoryLedger();
+        InventoryLedger loaded = new InventoryLedger();
+        for (int i = 0; i < 100; i++) {
+            StockMovement.Kind kind = i % 10 == 0 ? StockMovement.Kind.RECEIPT : StockMovement.Kind.CONSUMPTION;
+            loaded.load(recorded.record(ITEM, kind, kind == StockMovement.Kind.RECEIPT ? 50 : -3, i * 1_000L));
+        }
+
+        for (long time = -1_000; time <= 100_000; time += 500) {
+            assertEquals(recorded.quantityAt(ITEM, time), loaded.quantityAt(ITEM, time));
+            assertEquals(recorded.consumedBetween(ITEM, 0, time), loaded.consumedBetween(ITEM, 0, time));
+        }
+        assertEquals(recorded.balance(ITEM), loaded.balance(ITEM));
+    }
+
+    @Test
+    void reconcileOpensANewItemWithAReceipt() {
+        InventoryLedger ledger = new InventoryLedger();
+        InventoryItem item = new InventoryItem(ITEM, "Gauze", 120, 1.5, "Healthy", 100);
+
+        StockMovement opening = ledger.reconcile(item, 1_000);
+
+        assertEquals(StockMovement.Kind.RECEIPT, opening.getKind());
+        assertEquals(120, opening.getDelta());
+        assertEquals(120, ledger.balance(ITEM));
+        assertNull(ledger.reconcile(item, 2_000));
+    }
+
+    @Test
+    void reconcileAdjustsAKnownItemThatDisagrees() {
+        InventoryLedger ledger = new InventoryLedger();
+        ledger.record(ITEM, StockMovement.Kind.RECEIPT, 100, 1_000);
+
+        StockMovement adjustment = ledger.reconcile(new InventoryItem(ITEM, "Gauze", 90, 1.5, "Healthy", 100), 2_000);
+
+        assertEquals(StockMovement.Kind.ADJUSTMENT, adjustment.getKind());
+        assertEquals(-10, adjustment.getDelta());
+        assertEquals(0, ledger.consumedBetween(ITEM, 0, 3_000));
+    }
+}